@@ -0,0 +1,212 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.core.benchmark;
+
+import net.openhft.chronicle.core.Memory;
+import org.openjdk.jmh.annotations.*;
+import sun.misc.Unsafe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single value reads and writes of each primitive type, aligned and misaligned, on native memory and on a byte[].
+ *
+ * @see MemoryBenchmarks#main(String...)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemoryAccessBenchmark {
+    private static final int SIZE = 64;
+
+    @Param({MemoryBenchmarks.UNSAFE_MEMORY, MemoryBenchmarks.ARM_MEMORY})
+    public String impl;
+
+    // bytes past an eight byte boundary
+    @Param({"0", "1", "4"})
+    public int misalignment;
+
+    private Memory memory;
+    private long base;
+    private long address;
+    private byte[] bytes;
+    private long offset;
+    private int partialLength;
+    private long value = 0x0102030405060708L;
+
+    @Setup
+    public void setup() {
+        memory = MemoryBenchmarks.memory(impl);
+        // allocations are at least 8 byte aligned
+        base = memory.allocate(SIZE);
+        address = base + misalignment;
+        bytes = new byte[SIZE];
+        offset = Unsafe.ARRAY_BYTE_BASE_OFFSET + misalignment;
+        // the array data starts on an 8 byte boundary with the usual 16 byte header
+        offset += (8 - (Unsafe.ARRAY_BYTE_BASE_OFFSET & 7)) & 7;
+    }
+
+    @TearDown
+    public void tearDown() {
+        memory.freeMemory(base, SIZE);
+    }
+
+    @Benchmark
+    public byte nativeReadByte() {
+        return memory.readByte(address);
+    }
+
+    @Benchmark
+    public void nativeWriteByte() {
+        memory.writeByte(address, (byte) value);
+    }
+
+    @Benchmark
+    public short nativeReadShort() {
+        return memory.readShort(address);
+    }
+
+    @Benchmark
+    public void nativeWriteShort() {
+        memory.writeShort(address, (short) value);
+    }
+
+    @Benchmark
+    public int nativeReadInt() {
+        return memory.readInt(address);
+    }
+
+    @Benchmark
+    public void nativeWriteInt() {
+        memory.writeInt(address, (int) value);
+    }
+
+    @Benchmark
+    public long nativeReadLong() {
+        return memory.readLong(address);
+    }
+
+    @Benchmark
+    public void nativeWriteLong() {
+        memory.writeLong(address, value);
+    }
+
+    @Benchmark
+    public float nativeReadFloat() {
+        return memory.readFloat(address);
+    }
+
+    @Benchmark
+    public void nativeWriteFloat() {
+        memory.writeFloat(address, value);
+    }
+
+    @Benchmark
+    public double nativeReadDouble() {
+        return memory.readDouble(address);
+    }
+
+    @Benchmark
+    public void nativeWriteDouble() {
+        memory.writeDouble(address, value);
+    }
+
+    @Benchmark
+    public long nativePartialRead() {
+        // cycles through lengths 1 to 8 so the branch isn't predicted perfectly
+        partialLength = (partialLength & 7) + 1;
+        return memory.partialRead(address, partialLength);
+    }
+
+    @Benchmark
+    public void nativePartialWrite() {
+        partialLength = (partialLength & 7) + 1;
+        memory.partialWrite(address, value, partialLength);
+    }
+
+    @Benchmark
+    public byte heapReadByte() {
+        return memory.readByte(bytes, offset);
+    }
+
+    @Benchmark
+    public void heapWriteByte() {
+        memory.writeByte(bytes, offset, (byte) value);
+    }
+
+    @Benchmark
+    public short heapReadShort() {
+        return memory.readShort(bytes, offset);
+    }
+
+    @Benchmark
+    public void heapWriteShort() {
+        memory.writeShort(bytes, offset, (short) value);
+    }
+
+    @Benchmark
+    public int heapReadInt() {
+        return memory.readInt(bytes, offset);
+    }
+
+    @Benchmark
+    public void heapWriteInt() {
+        memory.writeInt(bytes, offset, (int) value);
+    }
+
+    @Benchmark
+    public long heapReadLong() {
+        return memory.readLong(bytes, offset);
+    }
+
+    @Benchmark
+    public void heapWriteLong() {
+        memory.writeLong(bytes, offset, value);
+    }
+
+    @Benchmark
+    public float heapReadFloat() {
+        return memory.readFloat(bytes, offset);
+    }
+
+    @Benchmark
+    public void heapWriteFloat() {
+        memory.writeFloat(bytes, offset, value);
+    }
+
+    @Benchmark
+    public double heapReadDouble() {
+        return memory.readDouble(bytes, offset);
+    }
+
+    @Benchmark
+    public void heapWriteDouble() {
+        memory.writeDouble(bytes, offset, value);
+    }
+
+    @Benchmark
+    public long heapPartialRead() {
+        partialLength = (partialLength & 7) + 1;
+        return memory.partialRead(bytes, (int) (offset - Unsafe.ARRAY_BYTE_BASE_OFFSET), partialLength);
+    }
+
+    @Benchmark
+    public void heapPartialWrite() {
+        partialLength = (partialLength & 7) + 1;
+        memory.partialWrite(bytes, (int) (offset - Unsafe.ARRAY_BYTE_BASE_OFFSET), value, partialLength);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.core.benchmark;
+
+import net.openhft.chronicle.core.Memory;
+import org.openjdk.jmh.annotations.*;
+import sun.misc.Unsafe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Volatile, ordered and atomic operations on native memory and on a long[], single threaded so the cost of the
+ * barriers and locked instructions themselves is measured. These are aligned only, as the ARM implementation
+ * rejects misaligned atomic access.
+ *
+ * @see MemoryBenchmarks#main(String...)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemoryAtomicBenchmark {
+    private static final int SIZE = 64;
+
+    @Param({MemoryBenchmarks.UNSAFE_MEMORY, MemoryBenchmarks.ARM_MEMORY})
+    public String impl;
+
+    private Memory memory;
+    private long address;
+    private final long[] longs = new long[SIZE / 8];
+    private final long offset = Unsafe.ARRAY_LONG_BASE_OFFSET;
+    private long value;
+
+    @Setup
+    public void setup() {
+        memory = MemoryBenchmarks.memory(impl);
+        address = memory.allocate(SIZE);
+        memory.setMemory(address, SIZE, (byte) 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        memory.freeMemory(address, SIZE);
+    }
+
+    @Benchmark
+    public int nativeReadVolatileInt() {
+        return memory.readVolatileInt(address);
+    }
+
+    @Benchmark
+    public void nativeWriteVolatileInt() {
+        memory.writeVolatileInt(address, (int) ++value);
+    }
+
+    @Benchmark
+    public void nativeWriteOrderedInt() {
+        memory.writeOrderedInt(address, (int) ++value);
+    }
+
+    @Benchmark
+    public boolean nativeCompareAndSwapInt() {
+        // always succeeds
+        return memory.compareAndSwapInt(address, (int) value, (int) ++value);
+    }
+
+    @Benchmark
+    public int nativeAddInt() {
+        return memory.addInt(address, 1);
+    }
+
+    @Benchmark
+    public long nativeReadVolatileLong() {
+        return memory.readVolatileLong(address);
+    }
+
+    @Benchmark
+    public void nativeWriteVolatileLong() {
+        memory.writeVolatileLong(address, ++value);
+    }
+
+    @Benchmark
+    public void nativeWriteOrderedLong() {
+        memory.writeOrderedLong(address, ++value);
+    }
+
+    @Benchmark
+    public boolean nativeCompareAndSwapLong() {
+        return memory.compareAndSwapLong(address, value, ++value);
+    }
+
+    @Benchmark
+    public long nativeAddLong() {
+        return memory.addLong(address, 1);
+    }
+
+    @Benchmark
+    public long nativeGetAndSetLong() {
+        return memory.getAndSetLong(address, ++value);
+    }
+
+    @Benchmark
+    public int heapReadVolatileInt() {
+        return memory.readVolatileInt(longs, offset);
+    }
+
+    @Benchmark
+    public void heapWriteVolatileInt() {
+        memory.writeVolatileInt(longs, offset, (int) ++value);
+    }
+
+    @Benchmark
+    public void heapWriteOrderedInt() {
+        memory.writeOrderedInt(longs, offset, (int) ++value);
+    }
+
+    @Benchmark
+    public boolean heapCompareAndSwapInt() {
+        return memory.compareAndSwapInt(longs, offset, (int) value, (int) ++value);
+    }
+
+    @Benchmark
+    public int heapAddInt() {
+        return memory.addInt(longs, offset, 1);
+    }
+
+    @Benchmark
+    public long heapReadVolatileLong() {
+        return memory.readVolatileLong(longs, offset);
+    }
+
+    @Benchmark
+    public void heapWriteVolatileLong() {
+        memory.writeVolatileLong(longs, offset, ++value);
+    }
+
+    @Benchmark
+    public void heapWriteOrderedLong() {
+        memory.writeOrderedLong(longs, offset, ++value);
+    }
+
+    @Benchmark
+    public boolean heapCompareAndSwapLong() {
+        return memory.compareAndSwapLong(longs, offset, value, ++value);
+    }
+
+    @Benchmark
+    public long heapAddLong() {
+        return memory.addLong(longs, offset, 1);
+    }
+
+    @Benchmark
+    public long heapGetAndSetLong() {
+        return memory.getAndSetLong(longs, offset, ++value);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.core.benchmark;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.Memory;
+import net.openhft.chronicle.core.UnsafeMemory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Runs the JMH benchmarks of {@link Memory}, {@link MemoryAccessBenchmark}, {@link MemoryAtomicBenchmark} and
+ * {@link MemoryBulkBenchmark}, for both {@link UnsafeMemory} and the ARM variant, writing the results as JSON so runs
+ * can be compared, e.g. before and after a JVM or library upgrade.
+ * <p>
+ * The results are written to {@code -Djmh.result=memory-benchmarks.json}, {@code -Dinclude=regex} selects a subset
+ * of benchmarks, and {@code -DlongTest} measures for five seconds per iteration instead of one.
+ */
+public final class MemoryBenchmarks {
+    static final String UNSAFE_MEMORY = "UnsafeMemory";
+    static final String ARM_MEMORY = "ARMMemory";
+
+    // Suppresses default constructor, ensuring non-instantiability.
+    private MemoryBenchmarks() {
+    }
+
+    /**
+     * @param name {@value #UNSAFE_MEMORY} or {@value #ARM_MEMORY}
+     * @return a new instance of that implementation
+     */
+    static Memory memory(String name) {
+        switch (name) {
+            case UNSAFE_MEMORY:
+                return new UnsafeMemory();
+            case ARM_MEMORY:
+                // package-private in core as it is normally only used on ARM
+                try {
+                    Constructor<?> constructor = Class.forName(UnsafeMemory.class.getName() + "$" + ARM_MEMORY).getDeclaredConstructor();
+                    constructor.setAccessible(true);
+                    return (Memory) constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new AssertionError(e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown Memory " + name);
+        }
+    }
+
+    public static void main(String... args) throws RunnerException {
+        int time = Jvm.getBoolean("longTest") ? 5 : 1;
+        String result = System.getProperty("jmh.result", "memory-benchmarks.json");
+        System.out.println("measurementTime: " + time + " secs, results: " + result);
+        Options opt = new OptionsBuilder()
+                .include(System.getProperty("include", MemoryBenchmarks.class.getPackage().getName() + ".Memory\\w+Benchmark"))
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementTime(TimeValue.seconds(time))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
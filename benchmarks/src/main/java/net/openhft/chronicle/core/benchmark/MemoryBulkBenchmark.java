@@ -0,0 +1,119 @@
+/*
+ *     Copyright (C) 2015-2020 chronicle.software
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package net.openhft.chronicle.core.benchmark;
+
+import net.openhft.chronicle.core.Memory;
+import org.openjdk.jmh.annotations.*;
+import sun.misc.Unsafe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copying, filling, scanning and comparing blocks of memory from 16 bytes to 8 MiB, between native memory and
+ * byte[]s, with the destination aligned or not.
+ *
+ * @see MemoryBenchmarks#main(String...)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemoryBulkBenchmark {
+    @Param({MemoryBenchmarks.UNSAFE_MEMORY, MemoryBenchmarks.ARM_MEMORY})
+    public String impl;
+
+    @Param({"16", "256", "4096", "65536", "1048576", "8388608"})
+    public int size;
+
+    @Param({"0", "1"})
+    public int misalignment;
+
+    private Memory memory;
+    private long from;
+    private long to;
+    private byte[] fromBytes;
+    private byte[] toBytes;
+
+    @Setup
+    public void setup() {
+        memory = MemoryBenchmarks.memory(impl);
+        from = memory.allocate(size + 8L);
+        to = memory.allocate(size + 8L);
+        // 7-bit content so is7Bit has to scan all of it
+        memory.setMemory(from, size + 8L, (byte) 'X');
+        memory.setMemory(to, size + 8L, (byte) 'X');
+        fromBytes = new byte[size + 8];
+        toBytes = new byte[size + 8];
+        memory.copyMemory(from, fromBytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, size + 8);
+        memory.copyMemory(from, toBytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, size + 8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        memory.freeMemory(from, size + 8L);
+        memory.freeMemory(to, size + 8L);
+    }
+
+    @Benchmark
+    public void nativeToNativeCopy() {
+        memory.copyMemory(from, to + misalignment, size);
+    }
+
+    @Benchmark
+    public void heapToNativeCopy() {
+        memory.copyMemory(fromBytes, 0, to + misalignment, size);
+    }
+
+    @Benchmark
+    public void nativeToHeapCopy() {
+        memory.copyMemory(from, toBytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + misalignment, size);
+    }
+
+    @Benchmark
+    public void heapToHeapCopy() {
+        memory.copyMemory(fromBytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, toBytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + misalignment, size);
+    }
+
+    @Benchmark
+    public void nativeSetMemory() {
+        memory.setMemory(to + misalignment, size, (byte) 'X');
+    }
+
+    @Benchmark
+    public void heapSetMemory() {
+        memory.setMemory(toBytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + misalignment, size, (byte) 'X');
+    }
+
+    @Benchmark
+    public boolean nativeIs7Bit() {
+        return memory.is7Bit(to + misalignment, size);
+    }
+
+    @Benchmark
+    public boolean heapIs7Bit() {
+        return memory.is7Bit(toBytes, misalignment, size);
+    }
+
+    @Benchmark
+    public boolean nativeIsEqual() {
+        return memory.isEqual(from, to + misalignment, size);
+    }
+
+    @Benchmark
+    public boolean heapIsEqual() {
+        return memory.isEqual(fromBytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, toBytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + misalignment, size);
+    }
+}
@@ -673,6 +673,16 @@ public final class Jvm {
         return UnsafeMemory.INSTANCE.nativeMemoryUsed();
     }
 
+    /**
+     * Returns the amount of memory in bytes used by tagged calls to UnsafeMemory.allocate(), by tag.
+     *
+     * @return a snapshot of the memory used in bytes for each allocation tag
+     */
+    @NotNull
+    public static Map<String, Long> usedNativeMemoryByTag() {
+        return UnsafeMemory.INSTANCE.nativeMemoryUsedByTag();
+    }
+
     /**
      * Returns the maximum direct memory in bytes that can ever be allocated or 0 if the
      * value cannot be determined.
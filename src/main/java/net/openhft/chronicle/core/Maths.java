@@ -21,6 +21,7 @@ package net.openhft.chronicle.core;
 import net.openhft.chronicle.assertions.AssertUtil;
 import net.openhft.chronicle.core.annotation.NonNegative;
 import net.openhft.chronicle.core.util.StringUtils;
+import net.openhft.chronicle.core.util.WyHash;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -730,6 +731,52 @@ public final class Maths {
         return agitate(h0);
     }
 
+    /**
+     * Computes a 64-bit hash of a range of a byte[] using {@link WyHash}.
+     *
+     * @param bytes  to hash
+     * @param offset index of the first byte
+     * @param length number of bytes
+     * @return the 64-bit hash value
+     */
+    public static long hash64(@NotNull byte[] bytes, int offset, int length) {
+        return WyHash.hash64(bytes, offset, length);
+    }
+
+    /**
+     * Computes a 64-bit hash of a range of native memory using {@link WyHash}, e.g. a key in a memory mapped file,
+     * without copying it first. It isn't an overload of {@link #hash64(long)} so a call meant to hash two values can't
+     * read memory by mistake.
+     *
+     * @param address of the first byte
+     * @param length  number of bytes
+     * @return the 64-bit hash value
+     */
+    public static long hash64Memory(long address, long length) {
+        return WyHash.hash64(address, length);
+    }
+
+    /**
+     * Maps a signed value to an unsigned one so values close to zero, positive or negative, are small:
+     * 0, -1, 1, -2, 2 ... become 0, 1, 2, 3, 4 ...
+     *
+     * @param l the signed value
+     * @return the zig-zag encoded value
+     */
+    public static long zigZagEncode(long l) {
+        return (l << 1) ^ (l >> 63);
+    }
+
+    /**
+     * Reverses {@link #zigZagEncode(long)}.
+     *
+     * @param l the zig-zag encoded value
+     * @return the signed value
+     */
+    public static long zigZagDecode(long l) {
+        return (l >>> 1) ^ -(l & 1);
+    }
+
     /**
      * Divide {@code dividend} by divisor, if division is not integral the result is rounded up.
      * Examples: {@code divideRoundUp(10, 5) == 2}, {@code divideRoundUp(11, 5) == 3},
@@ -25,6 +25,9 @@ import sun.misc.Unsafe;
 
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * The Memory interface provides low-level memory access methods.
@@ -82,6 +85,87 @@ public interface Memory {
      */
     long allocate(@Positive long capacity);
 
+    /**
+     * Allocates memory and returns the low level base address of the newly allocated
+     * memory region, accounting for it against the given tag as well as the total.
+     * <p>
+     * By default the tag is ignored, for implementations which don't account by tag.
+     *
+     * @param capacity to allocate
+     * @param tag      identifying the owner of the memory, e.g. a component or class name
+     * @return the low level base address of the newly allocated memory region
+     * @throws IllegalArgumentException If the capacity is non-positive
+     * @throws OutOfMemoryError         if there are not enough memory to allocate
+     * @see #nativeMemoryUsedByTag()
+     */
+    default long allocate(@Positive long capacity, @NotNull String tag) {
+        return allocate(capacity);
+    }
+
+    /**
+     * Allocates memory and advises the operating system how it will be used, e.g. {@link MemoryAdvice#HUGE_PAGE}
+     * for a large table with random access. Only whole pages within the allocation are advised, and with
+     * {@link MemoryAdvice#POPULATE} they are faulted in for writing.
+     *
+     * @param capacity to allocate
+     * @param advice   how the memory will be used, ignored where not supported
+     * @return the low level base address of the newly allocated memory region
+     * @see OS#advise(long, long, MemoryAdvice, boolean)
+     */
+    default long allocate(@Positive long capacity, @NotNull MemoryAdvice advice) {
+        final long address = allocate(capacity);
+        OS.advise(address, capacity, advice, true);
+        return address;
+    }
+
+    /**
+     * Advises the operating system how a region of memory will be used. Only whole pages within the region are advised.
+     *
+     * @param address of the start of the region
+     * @param size    of the region in bytes
+     * @param advice  how the memory will be used
+     * @return true if the advice was applied, false if not supported on this platform
+     * @see OS#advise(long, long, MemoryAdvice)
+     */
+    default boolean advise(long address, long size, @NotNull MemoryAdvice advice) {
+        return OS.advise(address, size, advice);
+    }
+
+    /**
+     * Allocates memory accounted against the name of the given class.
+     *
+     * @param capacity to allocate
+     * @param tag      the class owning the memory
+     * @return the low level base address of the newly allocated memory region
+     */
+    default long allocate(@Positive long capacity, @NotNull Class<?> tag) {
+        return allocate(capacity, tag.getName());
+    }
+
+    /**
+     * Frees the memory block at the specified address which was allocated with a tag.
+     * <p>
+     * By default the tag is ignored, for implementations which don't account by tag.
+     *
+     * @param address The starting address of the memory block.
+     * @param size    The size of the memory block in bytes.
+     * @param tag     The tag the memory was allocated with.
+     */
+    default void freeMemory(long address, long size, @NotNull String tag) {
+        freeMemory(address, size);
+    }
+
+    /**
+     * Frees the memory block at the specified address which was allocated with a class tag.
+     *
+     * @param address The starting address of the memory block.
+     * @param size    The size of the memory block in bytes.
+     * @param tag     The class the memory was allocated with.
+     */
+    default void freeMemory(long address, long size, @NotNull Class<?> tag) {
+        freeMemory(address, size, tag.getName());
+    }
+
     /**
      * Retrieves the amount of native memory currently used by the application.
      *
@@ -89,6 +173,19 @@ public interface Memory {
      */
     long nativeMemoryUsed();
 
+    /**
+     * Retrieves a snapshot of the native memory currently used, broken down by allocation tag.
+     * Memory allocated without a tag is only included in {@link #nativeMemoryUsed()}.
+     * <p>
+     * By default this is empty, for implementations which don't account by tag.
+     *
+     * @return the number of bytes used for each tag which has been allocated against, sorted by tag.
+     */
+    @NotNull
+    default Map<String, Long> nativeMemoryUsedByTag() {
+        return Collections.emptyMap();
+    }
+
     /**
      * Writes a byte value to the memory at the specified address.
      *
@@ -382,6 +479,306 @@ public interface Memory {
      */
     void copyMemory(long fromAddress, Object obj2, long offset2, int length);
 
+    /**
+     * Writes elements of a short[] to native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void writeShorts(long address, short[] array, int offset, int length) throws IllegalArgumentException {
+        writeShorts(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes elements of a short[] to native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to write in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void writeShorts(long address, short[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Reads elements of a short[] from native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void readShorts(long address, short[] array, int offset, int length) throws IllegalArgumentException {
+        readShorts(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Reads elements of a short[] from native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to read in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void readShorts(long address, short[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Writes elements of a char[] to native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void writeChars(long address, char[] array, int offset, int length) throws IllegalArgumentException {
+        writeChars(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes elements of a char[] to native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to write in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void writeChars(long address, char[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Reads elements of a char[] from native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void readChars(long address, char[] array, int offset, int length) throws IllegalArgumentException {
+        readChars(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Reads elements of a char[] from native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to read in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void readChars(long address, char[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Writes elements of a int[] to native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void writeInts(long address, int[] array, int offset, int length) throws IllegalArgumentException {
+        writeInts(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes elements of a int[] to native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to write in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void writeInts(long address, int[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Reads elements of a int[] from native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void readInts(long address, int[] array, int offset, int length) throws IllegalArgumentException {
+        readInts(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Reads elements of a int[] from native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to read in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void readInts(long address, int[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Writes elements of a long[] to native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void writeLongs(long address, long[] array, int offset, int length) throws IllegalArgumentException {
+        writeLongs(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes elements of a long[] to native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to write in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void writeLongs(long address, long[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Reads elements of a long[] from native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void readLongs(long address, long[] array, int offset, int length) throws IllegalArgumentException {
+        readLongs(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Reads elements of a long[] from native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to read in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void readLongs(long address, long[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Writes elements of a float[] to native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void writeFloats(long address, float[] array, int offset, int length) throws IllegalArgumentException {
+        writeFloats(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes elements of a float[] to native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to write in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void writeFloats(long address, float[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Reads elements of a float[] from native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void readFloats(long address, float[] array, int offset, int length) throws IllegalArgumentException {
+        readFloats(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Reads elements of a float[] from native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to read in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void readFloats(long address, float[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Writes elements of a double[] to native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void writeDoubles(long address, double[] array, int offset, int length) throws IllegalArgumentException {
+        writeDoubles(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes elements of a double[] to native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to write to
+     * @param array   to copy from
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to write in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void writeDoubles(long address, double[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
+    /**
+     * Reads elements of a double[] from native memory in native byte order, as a single bulk copy.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    default void readDoubles(long address, double[] array, int offset, int length) throws IllegalArgumentException {
+        readDoubles(address, array, offset, length, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Reads elements of a double[] from native memory in the given byte order, swapping bytes if it is not the native order.
+     *
+     * @param address to read from
+     * @param array   to copy into
+     * @param offset  index of the first element
+     * @param length  number of elements
+     * @param order   byte order to read in
+     * @throws IllegalArgumentException if the offset and length are not within the array
+     */
+    void readDoubles(long address, double[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException;
+
     /**
      * Returns the length in bytes required to encode an integer using stop-bit encoding.
      *
@@ -398,6 +795,122 @@ public interface Memory {
      */
     int stopBitLength(long l);
 
+    /**
+     * Writes a long using stop-bit encoding, seven bits per byte, least significant first, with the top bit set on
+     * every byte but the last. A negative value is written as its complement followed by a zero byte.
+     * This is the same format as Chronicle Bytes' {@code writeStopBit}.
+     *
+     * @param address to write to, which must have at least {@link #stopBitLength(long)} bytes available
+     * @param value   to encode
+     * @return the number of bytes written, the same as {@link #stopBitLength(long)}
+     */
+    int writeStopBit(long address, long value);
+
+    /**
+     * Reads a long written with {@link #writeStopBit(long, long)}. The number of bytes read is
+     * {@link #stopBitLength(long)} of the value returned.
+     *
+     * @param address to read from
+     * @return the decoded value
+     * @throws IllegalStateException if the encoding is longer than a long can hold
+     */
+    long readStopBit(long address) throws IllegalStateException;
+
+    /**
+     * Writes a signed long zig-zag encoded, so values close to zero, whether positive or negative, take one byte.
+     *
+     * @param address to write to
+     * @param value   to encode
+     * @return the number of bytes written
+     * @see Maths#zigZagEncode(long)
+     */
+    default int writeZigZagStopBit(long address, long value) {
+        return writeStopBit(address, Maths.zigZagEncode(value));
+    }
+
+    /**
+     * Reads a long written with {@link #writeZigZagStopBit(long, long)}.
+     *
+     * @param address to read from
+     * @return the decoded value
+     * @throws IllegalStateException if the encoding is longer than a long can hold
+     */
+    default long readZigZagStopBit(long address) throws IllegalStateException {
+        return Maths.zigZagDecode(readStopBit(address));
+    }
+
+    /**
+     * Writes a sequence of longs with stop-bit encoding, one after another.
+     *
+     * @param address to write to
+     * @param values  to encode
+     * @param offset  index of the first value
+     * @param length  number of values
+     * @return the number of bytes written
+     */
+    default long writeStopBits(long address, long[] values, int offset, int length) {
+        long pos = address;
+        for (int i = offset, end = offset + length; i < end; i++)
+            pos += writeStopBit(pos, values[i]);
+        return pos - address;
+    }
+
+    /**
+     * Reads a sequence of longs written with {@link #writeStopBits(long, long[], int, int)}.
+     *
+     * @param address to read from
+     * @param values  to decode into
+     * @param offset  index of the first value
+     * @param length  number of values
+     * @return the number of bytes read
+     * @throws IllegalStateException if an encoding is longer than a long can hold
+     */
+    default long readStopBits(long address, long[] values, int offset, int length) throws IllegalStateException {
+        long pos = address;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            final long value = readStopBit(pos);
+            values[i] = value;
+            pos += stopBitLength(value);
+        }
+        return pos - address;
+    }
+
+    /**
+     * Writes a sequence of signed longs zig-zag and stop-bit encoded, e.g. the deltas between positions.
+     *
+     * @param address to write to
+     * @param values  to encode
+     * @param offset  index of the first value
+     * @param length  number of values
+     * @return the number of bytes written
+     */
+    default long writeZigZagStopBits(long address, long[] values, int offset, int length) {
+        long pos = address;
+        for (int i = offset, end = offset + length; i < end; i++)
+            pos += writeStopBit(pos, Maths.zigZagEncode(values[i]));
+        return pos - address;
+    }
+
+    /**
+     * Reads a sequence of signed longs written with {@link #writeZigZagStopBits(long, long[], int, int)}.
+     *
+     * @param address to read from
+     * @param values  to decode into
+     * @param offset  index of the first value
+     * @param length  number of values
+     * @return the number of bytes read
+     * @throws IllegalStateException if an encoding is longer than a long can hold
+     */
+    default long readZigZagStopBits(long address, long[] values, int offset, int length) throws IllegalStateException {
+        long pos = address;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            final long encoded = readStopBit(pos);
+            values[i] = Maths.zigZagDecode(encoded);
+            pos += stopBitLength(encoded);
+        }
+        return pos - address;
+    }
+
     /**
      * Reads a partial value from the given byte array starting at the specified offset.
      *
@@ -465,6 +978,163 @@ public interface Memory {
      */
     boolean is7Bit(long address, int length);
 
+    /**
+     * Returns the number of bytes needed to encode the characters as UTF-8. An unpaired surrogate is encoded as
+     * {@code '?'} as {@link String#getBytes(java.nio.charset.Charset)} does.
+     *
+     * @param cs the characters to encode
+     * @return the encoded length in bytes
+     */
+    long utf8Length(@NotNull CharSequence cs);
+
+    /**
+     * Encodes the characters as UTF-8 directly to native memory without creating any garbage. Runs of ASCII
+     * characters are written a byte at a time without further checks.
+     *
+     * @param address to write to, which must have at least {@link #utf8Length(CharSequence)} bytes available
+     * @param cs      the characters to encode
+     * @return the number of bytes written
+     */
+    long writeUtf8(long address, @NotNull CharSequence cs);
+
+    /**
+     * Decodes UTF-8 from native memory into a reusable StringBuilder, replacing its contents. If the bytes are all
+     * ASCII, as checked with {@link #is7Bit(long, int)}, each is appended without decoding.
+     *
+     * @param address the start of the encoded bytes
+     * @param length  the number of bytes to decode
+     * @param sb      to hold the decoded characters
+     * @throws IllegalArgumentException if the bytes are not valid UTF-8
+     */
+    void readUtf8(long address, int length, @NotNull StringBuilder sb) throws IllegalArgumentException;
+
+    /**
+     * Finds the index of the first byte which differs between two regions of native memory.
+     *
+     * @param address1 the start of the first region
+     * @param address2 the start of the second region
+     * @param length   the number of bytes to compare
+     * @return the index of the first differing byte, or -1 if the regions are equal
+     */
+    long mismatch(long address1, long address2, long length);
+
+    /**
+     * Finds the index of the first byte which differs between two regions of memory.
+     * Either object may be {@code null}, in which case its offset is a native address,
+     * so this covers heap/heap, heap/native and native/native comparisons.
+     *
+     * @param object1 the first object, or {@code null} for native memory
+     * @param offset1 the offset in the first object, or its address
+     * @param object2 the second object, or {@code null} for native memory
+     * @param offset2 the offset in the second object, or its address
+     * @param length  the number of bytes to compare
+     * @return the index of the first differing byte, or -1 if the regions are equal
+     */
+    long mismatch(Object object1, long offset1, Object object2, long offset2, long length);
+
+    /**
+     * Finds the index of the first byte which differs between a byte array and native memory.
+     *
+     * @param bytes   the byte array
+     * @param offset  the index of the first byte in the array
+     * @param address the start of the native region
+     * @param length  the number of bytes to compare
+     * @return the index of the first differing byte, or -1 if the regions are equal
+     */
+    default long mismatch(byte[] bytes, int offset, long address, int length) {
+        return mismatch(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) offset, null, address, length);
+    }
+
+    /**
+     * Compares two regions of native memory lexicographically as unsigned bytes.
+     *
+     * @param address1 the start of the first region
+     * @param address2 the start of the second region
+     * @param length   the number of bytes to compare
+     * @return a negative number, zero or a positive number as the first region is less than, equal to or greater than the second
+     */
+    int compare(long address1, long address2, long length);
+
+    /**
+     * Compares two regions of memory lexicographically as unsigned bytes.
+     * Either object may be {@code null}, in which case its offset is a native address.
+     *
+     * @param object1 the first object, or {@code null} for native memory
+     * @param offset1 the offset in the first object, or its address
+     * @param object2 the second object, or {@code null} for native memory
+     * @param offset2 the offset in the second object, or its address
+     * @param length  the number of bytes to compare
+     * @return a negative number, zero or a positive number as the first region is less than, equal to or greater than the second
+     */
+    int compare(Object object1, long offset1, Object object2, long offset2, long length);
+
+    /**
+     * Checks whether two regions of native memory hold the same bytes.
+     *
+     * @param address1 the start of the first region
+     * @param address2 the start of the second region
+     * @param length   the number of bytes to compare
+     * @return {@code true} if the regions are equal
+     */
+    boolean isEqual(long address1, long address2, long length);
+
+    /**
+     * Checks whether two regions of memory hold the same bytes.
+     * Either object may be {@code null}, in which case its offset is a native address.
+     *
+     * @param object1 the first object, or {@code null} for native memory
+     * @param offset1 the offset in the first object, or its address
+     * @param object2 the second object, or {@code null} for native memory
+     * @param offset2 the offset in the second object, or its address
+     * @param length  the number of bytes to compare
+     * @return {@code true} if the regions are equal
+     */
+    boolean isEqual(Object object1, long offset1, Object object2, long offset2, long length);
+
+    /**
+     * Finds the first occurrence of a byte in native memory, scanning a word at a time.
+     *
+     * @param address the start of the region
+     * @param length  the number of bytes to search
+     * @param b       the byte to find
+     * @return the index of the byte relative to the address, or -1 if not found
+     */
+    long indexOf(long address, long length, byte b);
+
+    /**
+     * Finds the first occurrence of a byte in memory, scanning a word at a time.
+     *
+     * @param object the object, or {@code null} for native memory
+     * @param offset the offset in the object, or an address
+     * @param length the number of bytes to search
+     * @param b      the byte to find
+     * @return the index of the byte relative to the offset, or -1 if not found
+     */
+    long indexOf(Object object, long offset, long length, byte b);
+
+    /**
+     * Finds the first position in native memory, at any byte alignment, where {@link #readLong(long)} would return
+     * the given pattern, e.g. an eight byte record delimiter.
+     *
+     * @param address the start of the region
+     * @param length  the number of bytes to search, only matches which lie entirely within the region are found
+     * @param pattern the eight bytes to find, in native byte order
+     * @return the index of the pattern relative to the address, or -1 if not found
+     */
+    long indexOfLong(long address, long length, long pattern);
+
+    /**
+     * Finds the first position in memory, at any byte alignment, where {@link #readLong(Object, long)} would return
+     * the given pattern.
+     *
+     * @param object  the object, or {@code null} for native memory
+     * @param offset  the offset in the object, or an address
+     * @param length  the number of bytes to search, only matches which lie entirely within the region are found
+     * @param pattern the eight bytes to find, in native byte order
+     * @return the index of the pattern relative to the offset, or -1 if not found
+     */
+    long indexOfLong(Object object, long offset, long length, long pattern);
+
     /**
      * Writes a long value to memory at the given address with ordered store semantics.
      *
@@ -578,9 +1248,30 @@ public interface Memory {
     int getAndSetInt(Object object, long offset, int value) throws MisAlignedAssertionError;
 
     /**
-     * Returns the page size of the underlying memory system.
+     * Atomically sets the value at the specified address to the given value and returns the previous value.
      *
-     * @return the page size
+     * @param address the memory address
+     * @param value   the new value
+     * @return the previous value at the address
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    long getAndSetLong(long address, long value) throws MisAlignedAssertionError;
+
+    /**
+     * Atomically sets the value at the specified offset in the object to the given value and returns the previous value.
+     *
+     * @param object the destination object
+     * @param offset the offset in the destination object
+     * @param value  the new value
+     * @return the previous value at the offset in the object
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    long getAndSetLong(Object object, long offset, long value) throws MisAlignedAssertionError;
+
+    /**
+     * Returns the page size of the underlying memory system.
+     *
+     * @return the page size
      */
     int pageSize();
 
@@ -790,6 +1481,486 @@ public interface Memory {
      */
     void writeVolatileDouble(Object object, long offset, double d);
 
+    /*
+     * Big endian (network order) variants. These swap bytes around the native order methods only on little endian
+     * platforms, so the JIT can fuse the load or store with the swap, and alignment handling such as that in
+     * ARMMemory applies to them as well.
+     */
+
+    /**
+     * Reads a big endian short from the specified address.
+     *
+     * @param address the memory address
+     * @return the short value
+     */
+    default short readBigEndianShort(long address) {
+        final short i16 = readShort(address);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Short.reverseBytes(i16) : i16;
+    }
+
+    /**
+     * Reads a big endian short from the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the short value
+     */
+    default short readBigEndianShort(Object object, long offset) {
+        final short i16 = readShort(object, offset);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Short.reverseBytes(i16) : i16;
+    }
+
+    /**
+     * Writes a short in big endian order to the specified address.
+     *
+     * @param address the memory address
+     * @param i16     the short value
+     */
+    default void writeBigEndianShort(long address, short i16) {
+        writeShort(address, UnsafeMemory.IS_LITTLE_ENDIAN ? Short.reverseBytes(i16) : i16);
+    }
+
+    /**
+     * Writes a short in big endian order to the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param i16    the short value
+     */
+    default void writeBigEndianShort(Object object, long offset, short i16) {
+        writeShort(object, offset, UnsafeMemory.IS_LITTLE_ENDIAN ? Short.reverseBytes(i16) : i16);
+    }
+
+    /**
+     * Reads a big endian short from the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @return the short value
+     */
+    default short readVolatileBigEndianShort(long address) {
+        final short i16 = readVolatileShort(address);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Short.reverseBytes(i16) : i16;
+    }
+
+    /**
+     * Reads a big endian short from the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the short value
+     */
+    default short readVolatileBigEndianShort(Object object, long offset) {
+        final short i16 = readVolatileShort(object, offset);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Short.reverseBytes(i16) : i16;
+    }
+
+    /**
+     * Writes a short in big endian order to the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @param i16     the short value
+     */
+    default void writeVolatileBigEndianShort(long address, short i16) {
+        writeVolatileShort(address, UnsafeMemory.IS_LITTLE_ENDIAN ? Short.reverseBytes(i16) : i16);
+    }
+
+    /**
+     * Writes a short in big endian order to the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param i16    the short value
+     */
+    default void writeVolatileBigEndianShort(Object object, long offset, short i16) {
+        writeVolatileShort(object, offset, UnsafeMemory.IS_LITTLE_ENDIAN ? Short.reverseBytes(i16) : i16);
+    }
+
+    /**
+     * Reads a big endian int from the specified address.
+     *
+     * @param address the memory address
+     * @return the int value
+     */
+    default int readBigEndianInt(long address) {
+        final int i32 = readInt(address);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32;
+    }
+
+    /**
+     * Reads a big endian int from the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the int value
+     */
+    default int readBigEndianInt(Object object, long offset) {
+        final int i32 = readInt(object, offset);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32;
+    }
+
+    /**
+     * Writes a int in big endian order to the specified address.
+     *
+     * @param address the memory address
+     * @param i32     the int value
+     */
+    default void writeBigEndianInt(long address, int i32) {
+        writeInt(address, UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32);
+    }
+
+    /**
+     * Writes a int in big endian order to the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param i32    the int value
+     */
+    default void writeBigEndianInt(Object object, long offset, int i32) {
+        writeInt(object, offset, UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32);
+    }
+
+    /**
+     * Reads a big endian int from the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @return the int value
+     */
+    default int readVolatileBigEndianInt(long address) {
+        final int i32 = readVolatileInt(address);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32;
+    }
+
+    /**
+     * Reads a big endian int from the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the int value
+     */
+    default int readVolatileBigEndianInt(Object object, long offset) {
+        final int i32 = readVolatileInt(object, offset);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32;
+    }
+
+    /**
+     * Writes a int in big endian order to the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @param i32     the int value
+     */
+    default void writeVolatileBigEndianInt(long address, int i32) {
+        writeVolatileInt(address, UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32);
+    }
+
+    /**
+     * Writes a int in big endian order to the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param i32    the int value
+     */
+    default void writeVolatileBigEndianInt(Object object, long offset, int i32) {
+        writeVolatileInt(object, offset, UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32);
+    }
+
+    /**
+     * Reads a big endian long from the specified address.
+     *
+     * @param address the memory address
+     * @return the long value
+     */
+    default long readBigEndianLong(long address) {
+        final long i64 = readLong(address);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64;
+    }
+
+    /**
+     * Reads a big endian long from the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the long value
+     */
+    default long readBigEndianLong(Object object, long offset) {
+        final long i64 = readLong(object, offset);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64;
+    }
+
+    /**
+     * Writes a long in big endian order to the specified address.
+     *
+     * @param address the memory address
+     * @param i64     the long value
+     */
+    default void writeBigEndianLong(long address, long i64) {
+        writeLong(address, UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64);
+    }
+
+    /**
+     * Writes a long in big endian order to the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param i64    the long value
+     */
+    default void writeBigEndianLong(Object object, long offset, long i64) {
+        writeLong(object, offset, UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64);
+    }
+
+    /**
+     * Reads a big endian long from the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @return the long value
+     */
+    default long readVolatileBigEndianLong(long address) {
+        final long i64 = readVolatileLong(address);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64;
+    }
+
+    /**
+     * Reads a big endian long from the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the long value
+     */
+    default long readVolatileBigEndianLong(Object object, long offset) {
+        final long i64 = readVolatileLong(object, offset);
+        return UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64;
+    }
+
+    /**
+     * Writes a long in big endian order to the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @param i64     the long value
+     */
+    default void writeVolatileBigEndianLong(long address, long i64) {
+        writeVolatileLong(address, UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64);
+    }
+
+    /**
+     * Writes a long in big endian order to the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param i64    the long value
+     */
+    default void writeVolatileBigEndianLong(Object object, long offset, long i64) {
+        writeVolatileLong(object, offset, UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64);
+    }
+
+    /**
+     * Reads a big endian float from the specified address.
+     *
+     * @param address the memory address
+     * @return the float value
+     */
+    default float readBigEndianFloat(long address) {
+        return Float.intBitsToFloat(readBigEndianInt(address));
+    }
+
+    /**
+     * Reads a big endian float from the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the float value
+     */
+    default float readBigEndianFloat(Object object, long offset) {
+        return Float.intBitsToFloat(readBigEndianInt(object, offset));
+    }
+
+    /**
+     * Writes a float in big endian order to the specified address.
+     *
+     * @param address the memory address
+     * @param f       the float value
+     */
+    default void writeBigEndianFloat(long address, float f) {
+        writeBigEndianInt(address, Float.floatToRawIntBits(f));
+    }
+
+    /**
+     * Writes a float in big endian order to the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param f      the float value
+     */
+    default void writeBigEndianFloat(Object object, long offset, float f) {
+        writeBigEndianInt(object, offset, Float.floatToRawIntBits(f));
+    }
+
+    /**
+     * Reads a big endian float from the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @return the float value
+     */
+    default float readVolatileBigEndianFloat(long address) {
+        return Float.intBitsToFloat(readVolatileBigEndianInt(address));
+    }
+
+    /**
+     * Reads a big endian float from the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the float value
+     */
+    default float readVolatileBigEndianFloat(Object object, long offset) {
+        return Float.intBitsToFloat(readVolatileBigEndianInt(object, offset));
+    }
+
+    /**
+     * Writes a float in big endian order to the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @param f       the float value
+     */
+    default void writeVolatileBigEndianFloat(long address, float f) {
+        writeVolatileBigEndianInt(address, Float.floatToRawIntBits(f));
+    }
+
+    /**
+     * Writes a float in big endian order to the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param f      the float value
+     */
+    default void writeVolatileBigEndianFloat(Object object, long offset, float f) {
+        writeVolatileBigEndianInt(object, offset, Float.floatToRawIntBits(f));
+    }
+
+    /**
+     * Reads a big endian double from the specified address.
+     *
+     * @param address the memory address
+     * @return the double value
+     */
+    default double readBigEndianDouble(long address) {
+        return Double.longBitsToDouble(readBigEndianLong(address));
+    }
+
+    /**
+     * Reads a big endian double from the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the double value
+     */
+    default double readBigEndianDouble(Object object, long offset) {
+        return Double.longBitsToDouble(readBigEndianLong(object, offset));
+    }
+
+    /**
+     * Writes a double in big endian order to the specified address.
+     *
+     * @param address the memory address
+     * @param d       the double value
+     */
+    default void writeBigEndianDouble(long address, double d) {
+        writeBigEndianLong(address, Double.doubleToRawLongBits(d));
+    }
+
+    /**
+     * Writes a double in big endian order to the given offset in the object.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param d      the double value
+     */
+    default void writeBigEndianDouble(Object object, long offset, double d) {
+        writeBigEndianLong(object, offset, Double.doubleToRawLongBits(d));
+    }
+
+    /**
+     * Reads a big endian double from the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @return the double value
+     */
+    default double readVolatileBigEndianDouble(long address) {
+        return Double.longBitsToDouble(readVolatileBigEndianLong(address));
+    }
+
+    /**
+     * Reads a big endian double from the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @return the double value
+     */
+    default double readVolatileBigEndianDouble(Object object, long offset) {
+        return Double.longBitsToDouble(readVolatileBigEndianLong(object, offset));
+    }
+
+    /**
+     * Writes a double in big endian order to the specified address with volatile semantics.
+     *
+     * @param address the memory address
+     * @param d       the double value
+     */
+    default void writeVolatileBigEndianDouble(long address, double d) {
+        writeVolatileBigEndianLong(address, Double.doubleToRawLongBits(d));
+    }
+
+    /**
+     * Writes a double in big endian order to the given offset in the object with volatile semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param d      the double value
+     */
+    default void writeVolatileBigEndianDouble(Object object, long offset, double d) {
+        writeVolatileBigEndianLong(object, offset, Double.doubleToRawLongBits(d));
+    }
+
+    /**
+     * Writes a int in big endian order to the specified address, with ordered (store-store) semantics.
+     *
+     * @param address the memory address
+     * @param i32     the int value
+     */
+    default void writeOrderedBigEndianInt(long address, int i32) {
+        writeOrderedInt(address, UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32);
+    }
+
+    /**
+     * Writes a int in big endian order to the given offset in the object, with ordered (store-store) semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param i32    the int value
+     */
+    default void writeOrderedBigEndianInt(Object object, long offset, int i32) {
+        writeOrderedInt(object, offset, UnsafeMemory.IS_LITTLE_ENDIAN ? Integer.reverseBytes(i32) : i32);
+    }
+
+    /**
+     * Writes a long in big endian order to the specified address, with ordered (store-store) semantics.
+     *
+     * @param address the memory address
+     * @param i64     the long value
+     */
+    default void writeOrderedBigEndianLong(long address, long i64) {
+        writeOrderedLong(address, UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64);
+    }
+
+    /**
+     * Writes a long in big endian order to the given offset in the object, with ordered (store-store) semantics.
+     *
+     * @param object the object, or {@code null} if the offset is an address
+     * @param offset the offset in the object
+     * @param i64    the long value
+     */
+    default void writeOrderedBigEndianLong(Object object, long offset, long i64) {
+        writeOrderedLong(object, offset, UnsafeMemory.IS_LITTLE_ENDIAN ? Long.reverseBytes(i64) : i64);
+    }
+
     /**
      * Adds the specified increment to the value at the given memory address and returns the updated value.
      *
@@ -831,6 +2002,410 @@ public interface Memory {
      */
     long addLong(Object object, long offset, long increment) throws MisAlignedAssertionError;
 
+    /**
+     * Atomically adds the delta to the int at the given address and returns the previous value.
+     *
+     * @param address   the memory address
+     * @param delta     the value to add
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default int getAndAddInt(long address, int delta) throws MisAlignedAssertionError {
+        return addInt(address, delta) - delta;
+    }
+
+    /**
+     * Atomically adds the delta to the int at the given offset in the object and returns the previous value.
+     *
+     * @param object    the destination object
+     * @param offset    the offset in the destination object
+     * @param delta     the value to add
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default int getAndAddInt(Object object, long offset, int delta) throws MisAlignedAssertionError {
+        return addInt(object, offset, delta) - delta;
+    }
+
+    /**
+     * Atomically sets the int at the given address to the new value if it holds the expected value,
+     * returning the value witnessed, so the caller needn't read it again when the exchange fails.
+     *
+     * @param address  the memory address
+     * @param expected the expected value
+     * @param value    the new value
+     * @return the value before the operation, equal to expected if it succeeded
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default int compareAndExchangeInt(long address, int expected, int value) throws MisAlignedAssertionError {
+        for (; ; ) {
+            final int witness = readVolatileInt(address);
+            if (witness != expected)
+                return witness;
+            if (compareAndSwapInt(address, expected, value))
+                return expected;
+        }
+    }
+
+    /**
+     * Atomically sets the int at the given address to the new value if it holds the expected value.
+     * This may fail spuriously so should be used in a retry loop, where it can be cheaper on some platforms.
+     * The current implementation is a strong compare-and-swap.
+     *
+     * @param address  the memory address
+     * @param expected the expected value
+     * @param value    the new value
+     * @return true if successful
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default boolean weakCompareAndSwapInt(long address, int expected, int value) throws MisAlignedAssertionError {
+        return compareAndSwapInt(address, expected, value);
+    }
+
+    /**
+     * Atomically sets the int at the given address to the bitwise OR of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param address the memory address
+     * @param mask   the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default int getAndBitwiseOrInt(long address, int mask) throws MisAlignedAssertionError {
+        int value;
+        do {
+            value = readVolatileInt(address);
+        } while (!compareAndSwapInt(address, value, value | mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the int at the given address to the bitwise AND of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param address the memory address
+     * @param mask   the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default int getAndBitwiseAndInt(long address, int mask) throws MisAlignedAssertionError {
+        int value;
+        do {
+            value = readVolatileInt(address);
+        } while (!compareAndSwapInt(address, value, value & mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the int at the given address to the bitwise XOR of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param address the memory address
+     * @param mask   the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default int getAndBitwiseXorInt(long address, int mask) throws MisAlignedAssertionError {
+        int value;
+        do {
+            value = readVolatileInt(address);
+        } while (!compareAndSwapInt(address, value, value ^ mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the int at the given offset in the object to the new value if it holds the expected value,
+     * returning the value witnessed, so the caller needn't read it again when the exchange fails.
+     *
+     * @param object   the destination object
+     * @param offset   the offset in the destination object
+     * @param expected the expected value
+     * @param value    the new value
+     * @return the value before the operation, equal to expected if it succeeded
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default int compareAndExchangeInt(Object object, long offset, int expected, int value) throws MisAlignedAssertionError {
+        for (; ; ) {
+            final int witness = readVolatileInt(object, offset);
+            if (witness != expected)
+                return witness;
+            if (compareAndSwapInt(object, offset, expected, value))
+                return expected;
+        }
+    }
+
+    /**
+     * Atomically sets the int at the given offset in the object to the new value if it holds the expected value.
+     * This may fail spuriously so should be used in a retry loop, where it can be cheaper on some platforms.
+     * The current implementation is a strong compare-and-swap.
+     *
+     * @param object   the destination object
+     * @param offset   the offset in the destination object
+     * @param expected the expected value
+     * @param value    the new value
+     * @return true if successful
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default boolean weakCompareAndSwapInt(Object object, long offset, int expected, int value) throws MisAlignedAssertionError {
+        return compareAndSwapInt(object, offset, expected, value);
+    }
+
+    /**
+     * Atomically sets the int at the given offset in the object to the bitwise OR of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param object  the destination object
+     * @param offset  the offset in the destination object
+     * @param mask  the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default int getAndBitwiseOrInt(Object object, long offset, int mask) throws MisAlignedAssertionError {
+        int value;
+        do {
+            value = readVolatileInt(object, offset);
+        } while (!compareAndSwapInt(object, offset, value, value | mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the int at the given offset in the object to the bitwise AND of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param object  the destination object
+     * @param offset  the offset in the destination object
+     * @param mask  the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default int getAndBitwiseAndInt(Object object, long offset, int mask) throws MisAlignedAssertionError {
+        int value;
+        do {
+            value = readVolatileInt(object, offset);
+        } while (!compareAndSwapInt(object, offset, value, value & mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the int at the given offset in the object to the bitwise XOR of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param object  the destination object
+     * @param offset  the offset in the destination object
+     * @param mask  the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default int getAndBitwiseXorInt(Object object, long offset, int mask) throws MisAlignedAssertionError {
+        int value;
+        do {
+            value = readVolatileInt(object, offset);
+        } while (!compareAndSwapInt(object, offset, value, value ^ mask));
+        return value;
+    }
+
+    /**
+     * Atomically adds the delta to the long at the given address and returns the previous value.
+     *
+     * @param address   the memory address
+     * @param delta     the value to add
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default long getAndAddLong(long address, long delta) throws MisAlignedAssertionError {
+        return addLong(address, delta) - delta;
+    }
+
+    /**
+     * Atomically adds the delta to the long at the given offset in the object and returns the previous value.
+     *
+     * @param object    the destination object
+     * @param offset    the offset in the destination object
+     * @param delta     the value to add
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default long getAndAddLong(Object object, long offset, long delta) throws MisAlignedAssertionError {
+        return addLong(object, offset, delta) - delta;
+    }
+
+    /**
+     * Atomically sets the long at the given address to the new value if it holds the expected value,
+     * returning the value witnessed, so the caller needn't read it again when the exchange fails.
+     *
+     * @param address  the memory address
+     * @param expected the expected value
+     * @param value    the new value
+     * @return the value before the operation, equal to expected if it succeeded
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default long compareAndExchangeLong(long address, long expected, long value) throws MisAlignedAssertionError {
+        for (; ; ) {
+            final long witness = readVolatileLong(address);
+            if (witness != expected)
+                return witness;
+            if (compareAndSwapLong(address, expected, value))
+                return expected;
+        }
+    }
+
+    /**
+     * Atomically sets the long at the given address to the new value if it holds the expected value.
+     * This may fail spuriously so should be used in a retry loop, where it can be cheaper on some platforms.
+     * The current implementation is a strong compare-and-swap.
+     *
+     * @param address  the memory address
+     * @param expected the expected value
+     * @param value    the new value
+     * @return true if successful
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default boolean weakCompareAndSwapLong(long address, long expected, long value) throws MisAlignedAssertionError {
+        return compareAndSwapLong(address, expected, value);
+    }
+
+    /**
+     * Atomically sets the long at the given address to the bitwise OR of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param address the memory address
+     * @param mask   the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default long getAndBitwiseOrLong(long address, long mask) throws MisAlignedAssertionError {
+        long value;
+        do {
+            value = readVolatileLong(address);
+        } while (!compareAndSwapLong(address, value, value | mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the long at the given address to the bitwise AND of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param address the memory address
+     * @param mask   the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default long getAndBitwiseAndLong(long address, long mask) throws MisAlignedAssertionError {
+        long value;
+        do {
+            value = readVolatileLong(address);
+        } while (!compareAndSwapLong(address, value, value & mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the long at the given address to the bitwise XOR of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param address the memory address
+     * @param mask   the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the address is misaligned for the operation
+     */
+    default long getAndBitwiseXorLong(long address, long mask) throws MisAlignedAssertionError {
+        long value;
+        do {
+            value = readVolatileLong(address);
+        } while (!compareAndSwapLong(address, value, value ^ mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the long at the given offset in the object to the new value if it holds the expected value,
+     * returning the value witnessed, so the caller needn't read it again when the exchange fails.
+     *
+     * @param object   the destination object
+     * @param offset   the offset in the destination object
+     * @param expected the expected value
+     * @param value    the new value
+     * @return the value before the operation, equal to expected if it succeeded
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default long compareAndExchangeLong(Object object, long offset, long expected, long value) throws MisAlignedAssertionError {
+        for (; ; ) {
+            final long witness = readVolatileLong(object, offset);
+            if (witness != expected)
+                return witness;
+            if (compareAndSwapLong(object, offset, expected, value))
+                return expected;
+        }
+    }
+
+    /**
+     * Atomically sets the long at the given offset in the object to the new value if it holds the expected value.
+     * This may fail spuriously so should be used in a retry loop, where it can be cheaper on some platforms.
+     * The current implementation is a strong compare-and-swap.
+     *
+     * @param object   the destination object
+     * @param offset   the offset in the destination object
+     * @param expected the expected value
+     * @param value    the new value
+     * @return true if successful
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default boolean weakCompareAndSwapLong(Object object, long offset, long expected, long value) throws MisAlignedAssertionError {
+        return compareAndSwapLong(object, offset, expected, value);
+    }
+
+    /**
+     * Atomically sets the long at the given offset in the object to the bitwise OR of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param object  the destination object
+     * @param offset  the offset in the destination object
+     * @param mask  the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default long getAndBitwiseOrLong(Object object, long offset, long mask) throws MisAlignedAssertionError {
+        long value;
+        do {
+            value = readVolatileLong(object, offset);
+        } while (!compareAndSwapLong(object, offset, value, value | mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the long at the given offset in the object to the bitwise AND of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param object  the destination object
+     * @param offset  the offset in the destination object
+     * @param mask  the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default long getAndBitwiseAndLong(Object object, long offset, long mask) throws MisAlignedAssertionError {
+        long value;
+        do {
+            value = readVolatileLong(object, offset);
+        } while (!compareAndSwapLong(object, offset, value, value & mask));
+        return value;
+    }
+
+    /**
+     * Atomically sets the long at the given offset in the object to the bitwise XOR of it and the mask, e.g. to update flags in a bitmap
+     * shared between processes.
+     *
+     * @param object  the destination object
+     * @param offset  the offset in the destination object
+     * @param mask  the bits to combine
+     * @return the previous value
+     * @throws MisAlignedAssertionError if the offset is misaligned for the operation
+     */
+    default long getAndBitwiseXorLong(Object object, long offset, long mask) throws MisAlignedAssertionError {
+        long value;
+        do {
+            value = readVolatileLong(object, offset);
+        } while (!compareAndSwapLong(object, offset, value, value ^ mask));
+        return value;
+    }
+
     /**
      * Allocates and returns a new instance of the specified class.
      *
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core;
+
+/**
+ * Advice to the operating system on how a region of memory will be used, passed to {@code madvise} on Linux.
+ * On other platforms, or if the posix library is not available, advice is ignored.
+ *
+ * @see OS#advise(long, long, MemoryAdvice)
+ * @see OS#map(java.nio.channels.FileChannel, java.nio.channels.FileChannel.MapMode, long, long, int, MemoryAdvice...)
+ * @see Memory#allocate(long, MemoryAdvice)
+ */
+public enum MemoryAdvice {
+    /**
+     * No special treatment, undoes any earlier access pattern advice.
+     */
+    NORMAL,
+    /**
+     * Pages will be accessed in random order, so read ahead is of little use.
+     */
+    RANDOM,
+    /**
+     * Pages will be accessed in sequential order, so read ahead aggressively and free pages soon after they are read.
+     */
+    SEQUENTIAL,
+    /**
+     * Pages will be accessed soon, start reading them in the background.
+     */
+    WILL_NEED,
+    /**
+     * Pages won't be accessed soon. For private and anonymous memory the contents are discarded.
+     */
+    DONT_NEED,
+    /**
+     * Back the region with transparent huge pages where possible to reduce TLB misses.
+     */
+    HUGE_PAGE,
+    /**
+     * Don't back the region with transparent huge pages.
+     */
+    NO_HUGE_PAGE,
+    /**
+     * Fault every page in before returning, the nearest equivalent to {@code MAP_POPULATE}.
+     * This advises {@link #WILL_NEED} and then touches each page, so it is applied on every platform.
+     */
+    POPULATE
+}
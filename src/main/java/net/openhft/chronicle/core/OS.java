@@ -21,6 +21,8 @@ package net.openhft.chronicle.core;
 import net.openhft.chronicle.core.internal.Bootstrap;
 import net.openhft.chronicle.core.util.ClassLocal;
 import net.openhft.chronicle.core.util.ThrowingFunction;
+import net.openhft.posix.MAdviseFlag;
+import net.openhft.posix.PosixAPI;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import sun.nio.ch.FileChannelImpl;
@@ -534,6 +536,79 @@ public final class OS {
         return map(fileChannel, mode, start, size, (int) mapAlignment());
     }
 
+    /**
+     * Map a region of a file into memory and apply advice to the whole mapping, e.g. {@link MemoryAdvice#HUGE_PAGE},
+     * {@link MemoryAdvice#SEQUENTIAL} or {@link MemoryAdvice#POPULATE}. Advice which is not supported is ignored.
+     *
+     * @param fileChannel to map
+     * @param mode        of access
+     * @param start       offset within a file
+     * @param size        of region to map.
+     * @param pageSize    to align the mapping to
+     * @param advice      to apply in order once mapped
+     * @return the address of the memory mapping.
+     * @throws IOException              if the mapping fails
+     * @throws IllegalArgumentException if the arguments are not valid
+     */
+    public static long map(@NotNull FileChannel fileChannel, FileChannel.MapMode mode, long start, long size, int pageSize, @NotNull MemoryAdvice... advice)
+            throws IOException, IllegalArgumentException {
+        final long address = map(fileChannel, mode, start, size, pageSize);
+        final long size2 = pageAlign(size, pageSize);
+        final boolean writable = mode != FileChannel.MapMode.READ_ONLY;
+        for (MemoryAdvice memoryAdvice : advice)
+            advise(address, size2, memoryAdvice, writable);
+        return address;
+    }
+
+    /**
+     * Advise the operating system how a region of memory will be used. Only whole pages within the region are advised,
+     * so memory which shares the first or last page isn't affected.
+     * <p>
+     * On Linux this calls {@code madvise}, elsewhere, or if the posix library isn't available, it does nothing,
+     * except for {@link MemoryAdvice#POPULATE} which touches every page on any platform.
+     *
+     * @param address of the start of the region
+     * @param size    of the region in bytes
+     * @param advice  how the region will be used
+     * @return true if the advice was applied, false if it was not supported or there were no whole pages to advise
+     */
+    public static boolean advise(long address, long size, @NotNull MemoryAdvice advice) {
+        return advise(address, size, advice, false);
+    }
+
+    /**
+     * Advise the operating system how a region of memory will be used, as {@link #advise(long, long, MemoryAdvice)}.
+     * <p>
+     * Reading a page only maps it for reading, e.g. the shared zero page for anonymous memory, so the first write
+     * would still fault. For writable memory {@link MemoryAdvice#POPULATE} touches each page with a compare-and-swap
+     * which changes nothing, so it is faulted in for writing.
+     *
+     * @param address  of the start of the region
+     * @param size     of the region in bytes
+     * @param advice   how the region will be used
+     * @param writable whether the region can be written, if not pages are only read
+     * @return true if the advice was applied, false if it was not supported or there were no whole pages to advise
+     */
+    public static boolean advise(long address, long size, @NotNull MemoryAdvice advice, boolean writable) {
+        final long pageSize = pageSize();
+        final long start = (address + pageSize - 1) & -pageSize;
+        final long end = (address + size) & -pageSize;
+        if (end <= start)
+            return false;
+        if (advice != MemoryAdvice.POPULATE)
+            return Madvise.madvise(start, end - start, advice);
+
+        Madvise.madvise(start, end - start, MemoryAdvice.WILL_NEED);
+        // neither can be eliminated, and both cost nothing next to a page fault
+        for (long page = start; page < end; page += pageSize) {
+            if (writable)
+                UnsafeMemory.MEMORY.compareAndSwapInt(page, 0, 0);
+            else
+                UnsafeMemory.MEMORY.readVolatileByte(page);
+        }
+        return true;
+    }
+
     private static long invokeFileChannelMap0(@NotNull MethodHandle map0, @NotNull FileChannel fileChannel, int imode, long start, long size,
                                               @NotNull ThrowingFunction<OutOfMemoryError, Long, IOException> errorHandler) throws IOException {
         try {
@@ -698,6 +773,58 @@ public final class OS {
         return !(s == null || s.isEmpty());
     }
 
+    /**
+     * Holds whether {@code madvise} can be called, only loading the posix library the first time advice is given.
+     */
+    private static final class Madvise {
+        static final boolean AVAILABLE = isAvailable();
+
+        private static boolean isAvailable() {
+            if (!isLinux())
+                return false;
+            try {
+                PosixAPI.posix();
+                return true;
+            } catch (Throwable t) {
+                Jvm.debug().on(OS.class, "madvise not available " + t);
+                return false;
+            }
+        }
+
+        static boolean madvise(long address, long length, MemoryAdvice advice) {
+            if (!AVAILABLE)
+                return false;
+            try {
+                return PosixAPI.posix().madvise(address, length, flagFor(advice)) == 0;
+            } catch (Throwable t) {
+                // e.g. an older posix library without this flag
+                Jvm.debug().on(OS.class, "madvise " + advice + " failed " + t);
+                return false;
+            }
+        }
+
+        private static MAdviseFlag flagFor(MemoryAdvice advice) {
+            switch (advice) {
+                case NORMAL:
+                    return MAdviseFlag.MADV_NORMAL;
+                case RANDOM:
+                    return MAdviseFlag.MADV_RANDOM;
+                case SEQUENTIAL:
+                    return MAdviseFlag.MADV_SEQUENTIAL;
+                case WILL_NEED:
+                    return MAdviseFlag.MADV_WILLNEED;
+                case DONT_NEED:
+                    return MAdviseFlag.MADV_DONTNEED;
+                case HUGE_PAGE:
+                    return MAdviseFlag.MADV_HUGEPAGE;
+                case NO_HUGE_PAGE:
+                    return MAdviseFlag.MADV_NOHUGEPAGE;
+                default:
+                    throw new IllegalArgumentException("Not an madvise flag " + advice);
+            }
+        }
+    }
+
     private static final class WriteZero {
         private MethodHandle write0Mh = null;
         private MethodHandle write0Mh2 = null;
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core;
+
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.threads.CleaningThread;
+import net.openhft.chronicle.core.threads.CleaningThreadLocal;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A size-classed allocator of native memory which carves fixed size chunks out of large slabs obtained
+ * from {@link Memory#allocate(long)}.
+ * <p>
+ * Chunk sizes are powers of two from {@link #MIN_CHUNK_SIZE} up to {@link #maxChunkSize()}. Each thread
+ * keeps a magazine of free chunks per size class, so the common allocate/free path touches neither the system
+ * allocator nor any shared state. Full and empty magazines are exchanged with a shared depot a magazine at a time,
+ * and a thread's magazines are returned to the depot in bulk when a {@link CleaningThread} exits.
+ * <p>
+ * Requests larger than {@link #maxChunkSize()} are passed straight through to {@link Memory#allocate(long)}
+ * and {@link Memory#freeMemory(long, long)}. Slabs are only returned to the system when the allocator is
+ * closed, at which point every chunk it has handed out becomes invalid.
+ */
+public final class SlabAllocator extends AbstractCloseable {
+    /**
+     * The smallest chunk handed out, smaller requests are rounded up to this size.
+     */
+    public static final int MIN_CHUNK_SIZE = 16;
+    private static final int MIN_CHUNK_SHIFT = 4;
+
+    private final int maxChunkSize;
+    private final int slabSize;
+    private final int magazineSize;
+    private final SizeClass[] sizeClasses;
+    private final CleaningThreadLocal<Magazine[]> magazines;
+    private final Object slabLock = new Object();
+    private long[] slabs = new long[16];
+    private int slabCount = 0;
+
+    /**
+     * Creates an allocator with chunks up to 64 KiB, carved from 1 MiB slabs, with 64 chunks per magazine.
+     */
+    public SlabAllocator() {
+        this(64 << 10, 1 << 20, 64);
+    }
+
+    /**
+     * Creates an allocator.
+     *
+     * @param maxChunkSize the largest size served from a slab, a power of two of at least {@link #MIN_CHUNK_SIZE}
+     * @param slabSize     the size of each block taken from {@link Memory#allocate(long)}, a multiple of maxChunkSize
+     * @param magazineSize the number of chunks cached per thread and size class
+     * @throws IllegalArgumentException if the sizes are not consistent
+     */
+    public SlabAllocator(int maxChunkSize, int slabSize, int magazineSize) throws IllegalArgumentException {
+        if (maxChunkSize < MIN_CHUNK_SIZE || !Maths.isPowerOf2(maxChunkSize))
+            throw new IllegalArgumentException("maxChunkSize must be a power of 2 >= " + MIN_CHUNK_SIZE + ", was " + maxChunkSize);
+        if (slabSize < maxChunkSize || slabSize % maxChunkSize != 0)
+            throw new IllegalArgumentException("slabSize must be a multiple of maxChunkSize " + maxChunkSize + ", was " + slabSize);
+        if (magazineSize <= 0)
+            throw new IllegalArgumentException("magazineSize must be positive, was " + magazineSize);
+        this.maxChunkSize = maxChunkSize;
+        this.slabSize = slabSize;
+        this.magazineSize = magazineSize;
+        this.sizeClasses = new SizeClass[sizeClass(maxChunkSize) + 1];
+        for (int i = 0; i < sizeClasses.length; i++)
+            sizeClasses[i] = new SizeClass(MIN_CHUNK_SIZE << i);
+        this.magazines = CleaningThreadLocal.withCleanup(() -> new Magazine[sizeClasses.length], this::returnMagazines);
+        singleThreadedCheckDisabled(true);
+    }
+
+    /**
+     * Returns the index of the size class used for a given request size.
+     *
+     * @param size of the request, at most {@link #maxChunkSize()}
+     * @return the size class index, where the chunk size is {@code MIN_CHUNK_SIZE << index}
+     */
+    static int sizeClass(long size) {
+        if (size <= MIN_CHUNK_SIZE)
+            return 0;
+        return 64 - Long.numberOfLeadingZeros(size - 1) - MIN_CHUNK_SHIFT;
+    }
+
+    /**
+     * Allocates a chunk of native memory of at least {@code size} bytes. The contents are not cleared.
+     *
+     * @param size of memory required
+     * @return the address of the chunk
+     * @throws IllegalArgumentException if the size is not positive
+     * @throws OutOfMemoryError         if a new slab could not be allocated
+     */
+    public long allocate(long size) throws IllegalArgumentException {
+        if (size > maxChunkSize)
+            return MEMORY.allocate(size);
+        if (size <= 0)
+            throw new IllegalArgumentException("Invalid size: " + size);
+        throwExceptionIfClosed();
+        final int sizeClass = sizeClass(size);
+        final Magazine magazine = magazine(sizeClass);
+        if (magazine.count == 0)
+            refill(sizeClasses[sizeClass], magazine);
+        return magazine.chunks[--magazine.count];
+    }
+
+    /**
+     * Returns a chunk obtained from {@link #allocate(long)}. The size must be the one passed to allocate.
+     *
+     * @param address of the chunk
+     * @param size    the size originally requested
+     */
+    public void free(long address, long size) {
+        assert SKIP_ASSERTIONS || address != 0;
+        if (size > maxChunkSize) {
+            MEMORY.freeMemory(address, size);
+            return;
+        }
+        // the slabs have already been released
+        if (isClosing())
+            return;
+        final int sizeClass = sizeClass(size);
+        final Magazine magazine = magazine(sizeClass);
+        if (magazine.count == magazine.chunks.length)
+            flush(sizeClasses[sizeClass], magazine);
+        magazine.chunks[magazine.count++] = address;
+    }
+
+    /**
+     * @return the largest request served from a slab
+     */
+    public int maxChunkSize() {
+        return maxChunkSize;
+    }
+
+    /**
+     * @return the number of bytes of native memory held in slabs
+     */
+    public long slabMemory() {
+        synchronized (slabLock) {
+            return (long) slabCount * slabSize;
+        }
+    }
+
+    private Magazine magazine(int sizeClass) {
+        final Magazine[] threadMagazines = magazines.get();
+        Magazine magazine = threadMagazines[sizeClass];
+        if (magazine == null)
+            threadMagazines[sizeClass] = magazine = new Magazine(magazineSize);
+        return magazine;
+    }
+
+    private void refill(SizeClass sizeClass, Magazine magazine) {
+        synchronized (sizeClass) {
+            final long[] full = sizeClass.full.pollLast();
+            if (full != null) {
+                sizeClass.empty.addLast(magazine.chunks);
+                magazine.chunks = full;
+                magazine.count = full.length;
+                return;
+            }
+            // then the chunks left over by exiting threads, before carving any more
+            if (sizeClass.partialCount > 0) {
+                final long[] partial = sizeClass.partial;
+                sizeClass.partial = magazine.chunks;
+                magazine.chunks = partial;
+                magazine.count = sizeClass.partialCount;
+                sizeClass.partialCount = 0;
+                return;
+            }
+            // nothing to reuse so carve a magazine's worth of chunks.
+            final long[] chunks = magazine.chunks;
+            for (int i = 0; i < chunks.length; i++) {
+                if (sizeClass.slabRemaining < sizeClass.chunkSize) {
+                    sizeClass.slabCursor = newSlab();
+                    sizeClass.slabRemaining = slabSize;
+                }
+                chunks[i] = sizeClass.slabCursor;
+                sizeClass.slabCursor += sizeClass.chunkSize;
+                sizeClass.slabRemaining -= sizeClass.chunkSize;
+            }
+            magazine.count = chunks.length;
+        }
+    }
+
+    private void flush(SizeClass sizeClass, Magazine magazine) {
+        synchronized (sizeClass) {
+            sizeClass.full.addLast(magazine.chunks);
+            final long[] empty = sizeClass.empty.pollLast();
+            magazine.chunks = empty == null ? new long[magazineSize] : empty;
+            magazine.count = 0;
+        }
+    }
+
+    private long newSlab() {
+        final long address = MEMORY.allocate(slabSize, SlabAllocator.class);
+        synchronized (slabLock) {
+            if (slabCount == slabs.length)
+                slabs = Arrays.copyOf(slabs, slabCount * 2);
+            slabs[slabCount++] = address;
+        }
+        return address;
+    }
+
+    /**
+     * Called when a thread exits, hands the chunks cached by that thread back to the shared depot.
+     */
+    private void returnMagazines(Magazine[] threadMagazines) {
+        if (isClosing())
+            return;
+        for (int i = 0; i < threadMagazines.length; i++) {
+            final Magazine magazine = threadMagazines[i];
+            if (magazine == null || magazine.count == 0)
+                continue;
+            final SizeClass sizeClass = sizeClasses[i];
+            synchronized (sizeClass) {
+                for (int j = 0; j < magazine.count; j++) {
+                    final long[] partial = sizeClass.partial;
+                    partial[sizeClass.partialCount++] = magazine.chunks[j];
+                    if (sizeClass.partialCount == partial.length) {
+                        sizeClass.full.addLast(partial);
+                        sizeClass.partial = new long[magazineSize];
+                        sizeClass.partialCount = 0;
+                    }
+                }
+            }
+            magazine.count = 0;
+        }
+    }
+
+    @Override
+    protected void performClose() {
+        synchronized (slabLock) {
+            for (int i = 0; i < slabCount; i++)
+                MEMORY.freeMemory(slabs[i], slabSize, SlabAllocator.class);
+            slabCount = 0;
+        }
+        for (SizeClass sizeClass : sizeClasses) {
+            synchronized (sizeClass) {
+                sizeClass.full.clear();
+                sizeClass.empty.clear();
+                sizeClass.partialCount = 0;
+                sizeClass.slabRemaining = 0;
+            }
+        }
+        magazines.remove();
+    }
+
+    /**
+     * A per thread cache of free chunks for one size class, used as a stack.
+     */
+    static final class Magazine {
+        long[] chunks;
+        int count;
+
+        Magazine(int magazineSize) {
+            chunks = new long[magazineSize];
+        }
+    }
+
+    /**
+     * The shared state of a size class, guarded by its own monitor.
+     */
+    final class SizeClass {
+        final int chunkSize;
+        final ArrayDeque<long[]> full = new ArrayDeque<>();
+        final ArrayDeque<long[]> empty = new ArrayDeque<>();
+        long[] partial = new long[magazineSize];
+        int partialCount;
+        long slabCursor;
+        long slabRemaining;
+
+        SizeClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+}
@@ -28,7 +28,11 @@ import sun.misc.Unsafe;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
 import static net.openhft.chronicle.core.util.ObjectUtils.requireNonNull;
@@ -80,6 +84,8 @@ public class UnsafeMemory implements Memory {
     private static final long ARRAY_BYTE_BASE_OFFSET = Unsafe.ARRAY_BYTE_BASE_OFFSET;
     private static final long ARRAY_CHAR_BASE_OFFSET = Unsafe.ARRAY_CHAR_BASE_OFFSET;
 
+    // the smallest code point which needs a given number of continuation bytes
+    private static final int[] UTF8_MIN_CODE_POINT = {0, 0x80, 0x800, 0x10000};
     private static final String CANNOT_CHANGE_AT = "Cannot change at ";
     private static final String WAS = " was ";
     private static final String EXPECTED = " expected ";
@@ -97,7 +103,9 @@ public class UnsafeMemory implements Memory {
         MEMORY = INSTANCE;
     }
 
-    private final AtomicLong nativeMemoryUsed = new AtomicLong();
+    // striped so concurrent allocations on different threads don't contend on one cache line
+    private final LongAdder nativeMemoryUsed = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> nativeMemoryUsedByTag = new ConcurrentHashMap<>();
     private final ObjectToAddress copyMemoryObjectToAddress;
 
     /**
@@ -642,7 +650,20 @@ public class UnsafeMemory implements Memory {
         assert SKIP_ASSERTIONS || size >= 0;
         if (address != 0)
             UNSAFE.freeMemory(address);
-        nativeMemoryUsed.addAndGet(-size);
+        nativeMemoryUsed.add(-size);
+    }
+
+    /**
+     * Releases the specified amount of memory starting from the given address, allocated with a tag.
+     *
+     * @param address the starting address.
+     * @param size    the amount of memory to free.
+     * @param tag     the tag the memory was allocated with.
+     */
+    @Override
+    public void freeMemory(long address, long size, @NotNull String tag) {
+        freeMemory(address, size);
+        tagCounter(tag).add(-size);
     }
 
     /**
@@ -661,11 +682,32 @@ public class UnsafeMemory implements Memory {
         if (address == 0)
             throw new OutOfMemoryError("Not enough free native memory, capacity attempted: " + capacity / 1024 + " KiB");
 
-        nativeMemoryUsed.addAndGet(capacity);
+        nativeMemoryUsed.add(capacity);
+
+        return address;
+    }
 
+    /**
+     * Allocates a block of native memory of the given capacity, accounted against a tag.
+     *
+     * @param capacity the size of the memory block to allocate.
+     * @param tag      the owner of the memory.
+     * @return the address of the allocated memory block.
+     * @throws AssertionError   if the requested capacity is not positive.
+     * @throws OutOfMemoryError if not enough free native memory is available.
+     */
+    @Override
+    public long allocate(long capacity, @NotNull String tag) {
+        final long address = allocate(capacity);
+        tagCounter(tag).add(capacity);
         return address;
     }
 
+    private LongAdder tagCounter(@NotNull String tag) {
+        final LongAdder counter = nativeMemoryUsedByTag.get(requireNonNull(tag));
+        return counter == null ? nativeMemoryUsedByTag.computeIfAbsent(tag, t -> new LongAdder()) : counter;
+    }
+
     /**
      * Retrieves the total amount of native memory used by the application.
      *
@@ -673,7 +715,20 @@ public class UnsafeMemory implements Memory {
      */
     @Override
     public long nativeMemoryUsed() {
-        return nativeMemoryUsed.get();
+        return nativeMemoryUsed.sum();
+    }
+
+    /**
+     * Retrieves the amount of native memory used for each allocation tag.
+     *
+     * @return a snapshot of bytes used by tag.
+     */
+    @NotNull
+    @Override
+    public Map<String, Long> nativeMemoryUsedByTag() {
+        final Map<String, Long> used = new TreeMap<>();
+        nativeMemoryUsedByTag.forEach((tag, counter) -> used.put(tag, counter.sum()));
+        return used;
     }
 
     /**
@@ -1212,6 +1267,296 @@ public class UnsafeMemory implements Memory {
         }
     }
 
+    /**
+     * Writes short values from an array to memory, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy from.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to write in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void writeShorts(long address, short[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyArrayToAddress(array, Unsafe.ARRAY_SHORT_BASE_OFFSET + ((long) offset << 1), address, (long) length << 1);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            UNSAFE.putShort(address + ((long) i << 1), Short.reverseBytes(array[offset + i]));
+    }
+
+    /**
+     * Reads short values from memory into an array, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy into.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to read in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void readShorts(long address, short[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyAddressToArray(address, array, Unsafe.ARRAY_SHORT_BASE_OFFSET + ((long) offset << 1), (long) length << 1);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            array[offset + i] = Short.reverseBytes(UNSAFE.getShort(address + ((long) i << 1)));
+    }
+
+    /**
+     * Writes char values from an array to memory, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy from.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to write in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void writeChars(long address, char[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyArrayToAddress(array, Unsafe.ARRAY_CHAR_BASE_OFFSET + ((long) offset << 1), address, (long) length << 1);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            UNSAFE.putChar(address + ((long) i << 1), Character.reverseBytes(array[offset + i]));
+    }
+
+    /**
+     * Reads char values from memory into an array, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy into.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to read in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void readChars(long address, char[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyAddressToArray(address, array, Unsafe.ARRAY_CHAR_BASE_OFFSET + ((long) offset << 1), (long) length << 1);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            array[offset + i] = Character.reverseBytes(UNSAFE.getChar(address + ((long) i << 1)));
+    }
+
+    /**
+     * Writes int values from an array to memory, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy from.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to write in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void writeInts(long address, int[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyArrayToAddress(array, Unsafe.ARRAY_INT_BASE_OFFSET + ((long) offset << 2), address, (long) length << 2);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            UNSAFE.putInt(address + ((long) i << 2), Integer.reverseBytes(array[offset + i]));
+    }
+
+    /**
+     * Reads int values from memory into an array, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy into.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to read in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void readInts(long address, int[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyAddressToArray(address, array, Unsafe.ARRAY_INT_BASE_OFFSET + ((long) offset << 2), (long) length << 2);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            array[offset + i] = Integer.reverseBytes(UNSAFE.getInt(address + ((long) i << 2)));
+    }
+
+    /**
+     * Writes long values from an array to memory, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy from.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to write in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void writeLongs(long address, long[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyArrayToAddress(array, Unsafe.ARRAY_LONG_BASE_OFFSET + ((long) offset << 3), address, (long) length << 3);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            UNSAFE.putLong(address + ((long) i << 3), Long.reverseBytes(array[offset + i]));
+    }
+
+    /**
+     * Reads long values from memory into an array, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy into.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to read in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void readLongs(long address, long[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyAddressToArray(address, array, Unsafe.ARRAY_LONG_BASE_OFFSET + ((long) offset << 3), (long) length << 3);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            array[offset + i] = Long.reverseBytes(UNSAFE.getLong(address + ((long) i << 3)));
+    }
+
+    /**
+     * Writes float values from an array to memory, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy from.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to write in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void writeFloats(long address, float[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyArrayToAddress(array, Unsafe.ARRAY_FLOAT_BASE_OFFSET + ((long) offset << 2), address, (long) length << 2);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            UNSAFE.putInt(address + ((long) i << 2), Integer.reverseBytes(Float.floatToRawIntBits(array[offset + i])));
+    }
+
+    /**
+     * Reads float values from memory into an array, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy into.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to read in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void readFloats(long address, float[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyAddressToArray(address, array, Unsafe.ARRAY_FLOAT_BASE_OFFSET + ((long) offset << 2), (long) length << 2);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            array[offset + i] = Float.intBitsToFloat(Integer.reverseBytes(UNSAFE.getInt(address + ((long) i << 2))));
+    }
+
+    /**
+     * Writes double values from an array to memory, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy from.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to write in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void writeDoubles(long address, double[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyArrayToAddress(array, Unsafe.ARRAY_DOUBLE_BASE_OFFSET + ((long) offset << 3), address, (long) length << 3);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            UNSAFE.putLong(address + ((long) i << 3), Long.reverseBytes(Double.doubleToRawLongBits(array[offset + i])));
+    }
+
+    /**
+     * Reads double values from memory into an array, swapping bytes if the order is not native.
+     *
+     * @param address the memory address.
+     * @param array   the array to copy into.
+     * @param offset  the index of the first element.
+     * @param length  the number of elements.
+     * @param order   the byte order to read in.
+     * @throws IllegalArgumentException if the offset and length are not within the array.
+     */
+    @Override
+    public void readDoubles(long address, double[] array, int offset, int length, ByteOrder order) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        checkArrayRange(array.length, offset, length);
+        if (order == ByteOrder.nativeOrder()) {
+            copyAddressToArray(address, array, Unsafe.ARRAY_DOUBLE_BASE_OFFSET + ((long) offset << 3), (long) length << 3);
+            return;
+        }
+        for (int i = 0; i < length; i++)
+            array[offset + i] = Double.longBitsToDouble(Long.reverseBytes(UNSAFE.getLong(address + ((long) i << 3))));
+    }
+
+    private static void checkArrayRange(int arrayLength, int offset, int length) throws IllegalArgumentException {
+        if (offset < 0 || length < 0 || offset > arrayLength - length)
+            throw new IllegalArgumentException("Invalid offset " + offset + " or length " + length + ", array's length is " + arrayLength);
+    }
+
+    private void copyArrayToAddress(Object array, long arrayOffset, long address, long bytes) {
+        // in chunks so there is a safe point every so often.
+        while (bytes > 0) {
+            final int size = (int) Math.min(bytes, UNSAFE_COPY_THRESHOLD);
+            copyMemory(array, arrayOffset, address, size);
+            arrayOffset += size;
+            address += size;
+            bytes -= size;
+        }
+    }
+
+    private void copyAddressToArray(long address, Object array, long arrayOffset, long bytes) {
+        while (bytes > 0) {
+            final int size = (int) Math.min(bytes, UNSAFE_COPY_THRESHOLD);
+            copyMemory(address, array, arrayOffset, size);
+            arrayOffset += size;
+            address += size;
+            bytes -= size;
+        }
+    }
+
     /**
      * Copies memory from one object to another object or memory address.
      * This is the fundamental method used by all copy operations in the class.
@@ -1294,6 +1639,82 @@ public class UnsafeMemory implements Memory {
         return (64 + 6 - Long.numberOfLeadingZeros(l)) / 7;
     }
 
+    /**
+     * Writes a long value using stop-bit encoding.
+     *
+     * @param address the memory address to write to.
+     * @param value   the value to encode.
+     * @return the number of bytes written.
+     */
+    @Override
+    public int writeStopBit(long address, long value) {
+        assert SKIP_ASSERTIONS || address != 0;
+        // common cases
+        if ((value & ~0x7FL) == 0) {
+            UNSAFE.putByte(address, (byte) value);
+            return 1;
+        }
+        if ((value & ~0x3FFFL) == 0) {
+            UNSAFE.putByte(address, (byte) (value | 0x80));
+            UNSAFE.putByte(address + 1, (byte) (value >>> 7));
+            return 2;
+        }
+        return writeStopBit0(address, value);
+    }
+
+    private static int writeStopBit0(long address, long value) {
+        final boolean negative = value < 0;
+        if (negative)
+            value = ~value;
+        long pos = address;
+        long next;
+        while ((next = value >>> 7) != 0) {
+            UNSAFE.putByte(pos++, (byte) (value | 0x80));
+            value = next;
+        }
+        if (negative) {
+            UNSAFE.putByte(pos++, (byte) (value | 0x80));
+            UNSAFE.putByte(pos++, (byte) 0);
+        } else {
+            UNSAFE.putByte(pos++, (byte) value);
+        }
+        return (int) (pos - address);
+    }
+
+    /**
+     * Reads a stop-bit encoded long value.
+     *
+     * @param address the memory address to read from.
+     * @return the decoded value.
+     * @throws IllegalStateException if the encoding is too long.
+     */
+    @Override
+    public long readStopBit(long address) throws IllegalStateException {
+        assert SKIP_ASSERTIONS || address != 0;
+        // common case
+        final long l = UNSAFE.getByte(address);
+        if (l >= 0)
+            return l;
+        return readStopBit0(address, l);
+    }
+
+    private static long readStopBit0(long address, long l) throws IllegalStateException {
+        l &= 0x7FL;
+        long b;
+        int count = 7;
+        long pos = address + 1;
+        while ((b = UNSAFE.getByte(pos++)) < 0) {
+            l |= (b & 0x7FL) << count;
+            count += 7;
+            if (count > 63)
+                throw new IllegalStateException("Stop bit encoding too long at " + Long.toHexString(address));
+        }
+        // a trailing zero byte marks a negative value
+        if (b == 0)
+            return ~l;
+        return l | (b << count);
+    }
+
     /**
      * Reads a portion of the given byte array starting from a given offset for a specified length.
      * Length determines the number of bytes to be read and also the interpretation of the read value (byte, short, int, or long).
@@ -1578,6 +1999,344 @@ public class UnsafeMemory implements Memory {
         return true;
     }
 
+    /**
+     * Calculates the UTF-8 encoded length of the characters.
+     *
+     * @param cs the characters to measure.
+     * @return the encoded length in bytes.
+     */
+    @Override
+    public long utf8Length(@NotNull CharSequence cs) {
+        final int length = cs.length();
+        long bytes = length;
+        for (int i = 0; i < length; i++) {
+            final char c = cs.charAt(i);
+            if (c < 0x80)
+                continue;
+            if (c < 0x800) {
+                bytes++;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(cs.charAt(i + 1))) {
+                // four bytes for two chars
+                bytes += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes the characters as UTF-8 at the given address.
+     *
+     * @param address the memory address to write to.
+     * @param cs      the characters to encode.
+     * @return the number of bytes written.
+     */
+    @Override
+    public long writeUtf8(long address, @NotNull CharSequence cs) {
+        assert SKIP_ASSERTIONS || address != 0;
+        final int length = cs.length();
+        long pos = address;
+        for (int i = 0; i < length; i++) {
+            final char c = cs.charAt(i);
+            if (c < 0x80) {
+                UNSAFE.putByte(pos++, (byte) c);
+            } else if (c < 0x800) {
+                UNSAFE.putByte(pos++, (byte) (0xC0 | (c >> 6)));
+                UNSAFE.putByte(pos++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                final char c2;
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(c2 = cs.charAt(i + 1))) {
+                    final int cp = Character.toCodePoint(c, c2);
+                    UNSAFE.putByte(pos++, (byte) (0xF0 | (cp >> 18)));
+                    UNSAFE.putByte(pos++, (byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    UNSAFE.putByte(pos++, (byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    UNSAFE.putByte(pos++, (byte) (0x80 | (cp & 0x3F)));
+                    i++;
+                } else {
+                    UNSAFE.putByte(pos++, (byte) '?');
+                }
+            } else {
+                UNSAFE.putByte(pos++, (byte) (0xE0 | (c >> 12)));
+                UNSAFE.putByte(pos++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                UNSAFE.putByte(pos++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return pos - address;
+    }
+
+    /**
+     * Decodes UTF-8 at the given address into a StringBuilder, replacing its contents.
+     *
+     * @param address the memory address to read from.
+     * @param length  the number of bytes to decode.
+     * @param sb      the StringBuilder to decode into.
+     * @throws IllegalArgumentException if the bytes are not valid UTF-8.
+     */
+    @Override
+    public void readUtf8(long address, int length, @NotNull StringBuilder sb) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        assert SKIP_ASSERTIONS || length >= 0;
+        sb.setLength(0);
+        sb.ensureCapacity(length);
+        if (is7Bit(address, length)) {
+            for (int i = 0; i < length; i++)
+                sb.append((char) UNSAFE.getByte(address + i));
+            return;
+        }
+        for (int i = 0; i < length; ) {
+            final int b = UNSAFE.getByte(address + i);
+            if (b >= 0) {
+                sb.append((char) b);
+                i++;
+                continue;
+            }
+            final int extra;
+            int cp;
+            if ((b & 0xE0) == 0xC0) {
+                extra = 1;
+                cp = b & 0x1F;
+            } else if ((b & 0xF0) == 0xE0) {
+                extra = 2;
+                cp = b & 0x0F;
+            } else if ((b & 0xF8) == 0xF0) {
+                extra = 3;
+                cp = b & 0x07;
+            } else {
+                throw malformedUtf8(i);
+            }
+            if (i + extra >= length)
+                throw malformedUtf8(i);
+            for (int j = 1; j <= extra; j++) {
+                final int b2 = UNSAFE.getByte(address + i + j);
+                if ((b2 & 0xC0) != 0x80)
+                    throw malformedUtf8(i);
+                cp = (cp << 6) | (b2 & 0x3F);
+            }
+            // reject overlong encodings, surrogates and values beyond Unicode
+            if (cp < UTF8_MIN_CODE_POINT[extra] || Character.isSurrogate((char) cp) && cp <= 0xFFFF || cp > Character.MAX_CODE_POINT)
+                throw malformedUtf8(i);
+            sb.appendCodePoint(cp);
+            i += 1 + extra;
+        }
+    }
+
+    @NotNull
+    private static IllegalArgumentException malformedUtf8(int index) {
+        return new IllegalArgumentException("Malformed UTF-8 at byte " + index);
+    }
+
+    /**
+     * Finds the index of the first differing byte between two native memory regions.
+     *
+     * @param address1 the start of the first region.
+     * @param address2 the start of the second region.
+     * @param length   the number of bytes to compare.
+     * @return the index of the first difference, or -1 if none.
+     */
+    @Override
+    public long mismatch(long address1, long address2, long length) {
+        assert SKIP_ASSERTIONS || address1 != 0 && address2 != 0;
+        return mismatch(null, address1, null, address2, length);
+    }
+
+    /**
+     * Finds the index of the first differing byte between two memory regions, comparing eight bytes at a time.
+     *
+     * @param object1 the first object, or null for native memory.
+     * @param offset1 the offset in the first object.
+     * @param object2 the second object, or null for native memory.
+     * @param offset2 the offset in the second object.
+     * @param length  the number of bytes to compare.
+     * @return the index of the first difference, or -1 if none.
+     */
+    @Override
+    public long mismatch(Object object1, long offset1, Object object2, long offset2, long length) {
+        assert SKIP_ASSERTIONS || length >= 0;
+        return mismatchFrom(object1, offset1, object2, offset2, 0, length);
+    }
+
+    long mismatchFrom(Object object1, long offset1, Object object2, long offset2, long i, long length) {
+        for (; i <= length - 8; i += 8) {
+            final long diff = UNSAFE.getLong(object1, offset1 + i) ^ UNSAFE.getLong(object2, offset2 + i);
+            if (diff != 0)
+                return i + firstByteSet(diff);
+        }
+        return mismatchBytes(object1, offset1, object2, offset2, i, length);
+    }
+
+    static long mismatchBytes(Object object1, long offset1, Object object2, long offset2, long i, long length) {
+        for (; i < length; i++)
+            if (UNSAFE.getByte(object1, offset1 + i) != UNSAFE.getByte(object2, offset2 + i))
+                return i;
+        return -1;
+    }
+
+    /**
+     * Compares two native memory regions as unsigned bytes.
+     *
+     * @param address1 the start of the first region.
+     * @param address2 the start of the second region.
+     * @param length   the number of bytes to compare.
+     * @return the sign of the first difference, or 0 if the regions are equal.
+     */
+    @Override
+    public int compare(long address1, long address2, long length) {
+        assert SKIP_ASSERTIONS || address1 != 0 && address2 != 0;
+        return compare(null, address1, null, address2, length);
+    }
+
+    /**
+     * Compares two memory regions as unsigned bytes.
+     *
+     * @param object1 the first object, or null for native memory.
+     * @param offset1 the offset in the first object.
+     * @param object2 the second object, or null for native memory.
+     * @param offset2 the offset in the second object.
+     * @param length  the number of bytes to compare.
+     * @return the sign of the first difference, or 0 if the regions are equal.
+     */
+    @Override
+    public int compare(Object object1, long offset1, Object object2, long offset2, long length) {
+        final long i = mismatch(object1, offset1, object2, offset2, length);
+        if (i < 0)
+            return 0;
+        return Integer.compare(UNSAFE.getByte(object1, offset1 + i) & 0xFF, UNSAFE.getByte(object2, offset2 + i) & 0xFF);
+    }
+
+    /**
+     * Checks whether two native memory regions are equal.
+     *
+     * @param address1 the start of the first region.
+     * @param address2 the start of the second region.
+     * @param length   the number of bytes to compare.
+     * @return true if the regions are equal.
+     */
+    @Override
+    public boolean isEqual(long address1, long address2, long length) {
+        return mismatch(address1, address2, length) < 0;
+    }
+
+    /**
+     * Checks whether two memory regions are equal.
+     *
+     * @param object1 the first object, or null for native memory.
+     * @param offset1 the offset in the first object.
+     * @param object2 the second object, or null for native memory.
+     * @param offset2 the offset in the second object.
+     * @param length  the number of bytes to compare.
+     * @return true if the regions are equal.
+     */
+    @Override
+    public boolean isEqual(Object object1, long offset1, Object object2, long offset2, long length) {
+        return mismatch(object1, offset1, object2, offset2, length) < 0;
+    }
+
+    /**
+     * Finds the first occurrence of a byte in native memory.
+     *
+     * @param address the start of the region.
+     * @param length  the number of bytes to search.
+     * @param b       the byte to find.
+     * @return the index of the byte, or -1 if not found.
+     */
+    @Override
+    public long indexOf(long address, long length, byte b) {
+        assert SKIP_ASSERTIONS || address != 0;
+        return indexOf(null, address, length, b);
+    }
+
+    /**
+     * Finds the first occurrence of a byte in memory, testing eight bytes at a time.
+     *
+     * @param object the object, or null for native memory.
+     * @param offset the offset in the object.
+     * @param length the number of bytes to search.
+     * @param b      the byte to find.
+     * @return the index of the byte, or -1 if not found.
+     */
+    @Override
+    public long indexOf(Object object, long offset, long length, byte b) {
+        assert SKIP_ASSERTIONS || length >= 0;
+        return indexOfFrom(object, offset, 0, length, b);
+    }
+
+    long indexOfFrom(Object object, long offset, long i, long length, byte b) {
+        final long pattern = (b & 0xFFL) * 0x0101010101010101L;
+        for (; i <= length - 8; i += 8) {
+            final long found = zeroBytes(UNSAFE.getLong(object, offset + i) ^ pattern);
+            if (found != 0)
+                return i + firstByteSet(found);
+        }
+        return indexOfBytes(object, offset, i, length, b);
+    }
+
+    static long indexOfBytes(Object object, long offset, long i, long length, byte b) {
+        for (; i < length; i++)
+            if (UNSAFE.getByte(object, offset + i) == b)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Finds the first position in native memory holding the given eight bytes.
+     *
+     * @param address the start of the region.
+     * @param length  the number of bytes to search.
+     * @param pattern the value to find.
+     * @return the index of the pattern, or -1 if not found.
+     */
+    @Override
+    public long indexOfLong(long address, long length, long pattern) {
+        assert SKIP_ASSERTIONS || address != 0;
+        return indexOfLong(null, address, length, pattern);
+    }
+
+    /**
+     * Finds the first position in memory holding the given eight bytes, by scanning for the
+     * first byte of the pattern a word at a time and then checking each candidate.
+     *
+     * @param object  the object, or null for native memory.
+     * @param offset  the offset in the object.
+     * @param length  the number of bytes to search.
+     * @param pattern the value to find.
+     * @return the index of the pattern, or -1 if not found.
+     */
+    @Override
+    public long indexOfLong(Object object, long offset, long length, long pattern) {
+        final byte first = (byte) (IS_LITTLE_ENDIAN ? pattern : pattern >>> 56);
+        // the last position a whole long can start at
+        final long limit = length - 7;
+        long i = 0;
+        while (i < limit) {
+            final long found = indexOf(object, offset + i, limit - i, first);
+            if (found < 0)
+                break;
+            i += found;
+            if (UNSAFE.getLong(object, offset + i) == pattern)
+                return i;
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a word with the top bit set in each byte which is zero. Unlike the cheaper
+     * {@code (x - 0x01..01) & ~x & 0x80..80} this has no false positives, so it works for either byte order.
+     */
+    static long zeroBytes(long word) {
+        final long t = (word & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL;
+        return ~(t | word | 0x7F7F7F7F7F7F7F7FL);
+    }
+
+    /**
+     * @return the index in memory order of the first byte in a word with any bit set
+     */
+    static int firstByteSet(long word) {
+        return (IS_LITTLE_ENDIAN ? Long.numberOfTrailingZeros(word) : Long.numberOfLeadingZeros(word)) >>> 3;
+    }
+
     /**
      * Writes a long value to the memory location specified by the address, in a way that is
      * guaranteed to be ordered with respect to other memory operations.
@@ -1749,6 +2508,39 @@ public class UnsafeMemory implements Memory {
         return UNSAFE.getAndSetInt(object, offset, value);
     }
 
+    /**
+     * Performs an atomic get-and-set operation on a long value at the specified memory address.
+     * The method sets the field to the given value and returns the old value.
+     *
+     * @param address the memory address.
+     * @param value   the new long value.
+     * @return the old long value.
+     * @throws MisAlignedAssertionError if the address is not correctly aligned.
+     */
+    @Override
+    public long getAndSetLong(long address, long value) throws MisAlignedAssertionError {
+        assert (address & 63) <= 64 - 8;
+        assert SKIP_ASSERTIONS || address != 0;
+        return UNSAFE.getAndSetLong(null, address, value);
+    }
+
+    /**
+     * Performs an atomic get-and-set operation on a long field of the specified object.
+     * The method sets the field to the given value and returns the old value.
+     *
+     * @param object the object whose field to operate on.
+     * @param offset the offset of the field.
+     * @param value  the new long value.
+     * @return the old long value.
+     * @throws MisAlignedAssertionError if the offset is not correctly aligned.
+     */
+    @Override
+    public long getAndSetLong(Object object, long offset, long value) throws MisAlignedAssertionError {
+        assert (offset & 63) <= 64 - 8;
+        assert SKIP_ASSERTIONS || offset > 0;
+        return UNSAFE.getAndSetLong(object, offset, value);
+    }
+
     /**
      * Returns the memory page size.
      *
@@ -2342,6 +3134,89 @@ public class UnsafeMemory implements Memory {
      * @see UnsafeMemory for the base implementation of memory operations.
      */
     static class ARMMemory extends UnsafeMemory {
+
+        /**
+         * Finds the first differing byte, comparing bytes until the first region is 8-byte aligned
+         * so the word loads don't split. If the two regions are not aligned relative to each other
+         * it compares a byte at a time.
+         *
+         * @param object1 the first object, or null for native memory
+         * @param offset1 the offset in the first object
+         * @param object2 the second object, or null for native memory
+         * @param offset2 the offset in the second object
+         * @param length  the number of bytes to compare
+         * @return the index of the first difference, or -1 if none
+         */
+        @Override
+        public long mismatch(Object object1, long offset1, Object object2, long offset2, long length) {
+            assert SKIP_ASSERTIONS || length >= 0;
+            if (((offset1 ^ offset2) & 0x7) != 0)
+                return mismatchBytes(object1, offset1, object2, offset2, 0, length);
+            final long head = Math.min(-offset1 & 0x7, length);
+            final long i = mismatchBytes(object1, offset1, object2, offset2, 0, head);
+            if (i >= 0)
+                return i;
+            return mismatchFrom(object1, offset1, object2, offset2, head, length);
+        }
+
+        /**
+         * Finds the first occurrence of a byte, checking bytes until the offset is 8-byte aligned
+         * before scanning a word at a time.
+         *
+         * @param object the object, or null for native memory
+         * @param offset the offset in the object
+         * @param length the number of bytes to search
+         * @param b      the byte to find
+         * @return the index of the byte, or -1 if not found
+         */
+        @Override
+        public long indexOf(Object object, long offset, long length, byte b) {
+            assert SKIP_ASSERTIONS || length >= 0;
+            final long head = Math.min(-offset & 0x7, length);
+            final long i = indexOfBytes(object, offset, 0, head, b);
+            if (i >= 0)
+                return i;
+            return indexOfFrom(object, offset, head, length, b);
+        }
+
+        /**
+         * Finds the first position holding the given eight bytes, assembling each candidate
+         * from aligned reads rather than a possibly unaligned long.
+         *
+         * @param object  the object, or null for native memory
+         * @param offset  the offset in the object
+         * @param length  the number of bytes to search
+         * @param pattern the value to find
+         * @return the index of the pattern, or -1 if not found
+         */
+        @Override
+        public long indexOfLong(Object object, long offset, long length, long pattern) {
+            final byte first = (byte) (IS_LITTLE_ENDIAN ? pattern : pattern >>> 56);
+            final long limit = length - 7;
+            long i = 0;
+            while (i < limit) {
+                final long found = indexOf(object, offset + i, limit - i, first);
+                if (found < 0)
+                    break;
+                i += found;
+                if (matchesLong(object, offset + i, pattern))
+                    return i;
+                i++;
+            }
+            return -1;
+        }
+
+        private static boolean matchesLong(Object object, long offset, long pattern) {
+            if ((offset & 0x7) == 0)
+                return UNSAFE.getLong(object, offset) == pattern;
+            for (int j = 0; j < 8; j++) {
+                final byte expected = (byte) (IS_LITTLE_ENDIAN ? pattern >>> (j << 3) : pattern >>> (56 - (j << 3)));
+                if (UNSAFE.getByte(object, offset + j) != expected)
+                    return false;
+            }
+            return true;
+        }
+
         /**
          * Reads a volatile short from the provided address.
          * If the address is not aligned to 2 bytes, a memory fence is enforced before reading.
@@ -2644,6 +3519,24 @@ public class UnsafeMemory implements Memory {
             throw new MisAlignedAssertionError();
         }
 
+        /**
+         * Atomically adds the increment to the int at the specified offset within the given object.
+         * If the offset is not aligned to 4 bytes (which is the size of an int), a MisAlignedAssertionError is thrown.
+         *
+         * @param object    the object containing the int value
+         * @param offset    the offset of the int value within the object
+         * @param increment the value to add
+         * @return the updated value
+         * @throws MisAlignedAssertionError if the offset is not aligned to 4 bytes
+         */
+        @Override
+        public int addInt(Object object, long offset, int increment) throws MisAlignedAssertionError {
+            assert SKIP_ASSERTIONS || offset > 0;
+            if (safeAlignedInt(offset))
+                return super.addInt(object, offset, increment);
+            throw new MisAlignedAssertionError();
+        }
+
         /**
          * Atomically sets the int at the specified memory address to the given value if it currently
          * holds the expected value. If the address is not aligned to 4 bytes (which is the size of an int),
@@ -3052,6 +3945,43 @@ public class UnsafeMemory implements Memory {
             throw new MisAlignedAssertionError();
         }
 
+        /**
+         * Atomically sets the long at the specified memory address to the given value and
+         * returns the old value. If the address is not aligned to 8 bytes (which is the size of a long),
+         * a MisAlignedAssertionError is thrown.
+         *
+         * @param address the memory address of the long value
+         * @param value   the new value
+         * @return the old value
+         * @throws MisAlignedAssertionError if the address is not aligned to 8 bytes
+         */
+        @Override
+        public long getAndSetLong(long address, long value) throws MisAlignedAssertionError {
+            assert SKIP_ASSERTIONS || address != 0;
+            if (safeAlignedLong(address))
+                return super.getAndSetLong(address, value);
+            throw new MisAlignedAssertionError();
+        }
+
+        /**
+         * Atomically sets the long at the specified offset within the given object to the given value
+         * and returns the old value. If the offset is not aligned to 8 bytes (which is the size of a long),
+         * a MisAlignedAssertionError is thrown.
+         *
+         * @param object the object containing the long value
+         * @param offset the offset of the long value within the object
+         * @param value  the new value
+         * @return the old value
+         * @throws MisAlignedAssertionError if the offset is not aligned to 8 bytes
+         */
+        @Override
+        public long getAndSetLong(Object object, long offset, long value) throws MisAlignedAssertionError {
+            assert SKIP_ASSERTIONS || offset > 0;
+            if (safeAlignedLong(offset))
+                return super.getAndSetLong(object, offset, value);
+            throw new MisAlignedAssertionError();
+        }
+
         /**
          * Checks if the specified memory address is aligned to 4 bytes (which is the size of an int).
          *
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core;
+
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import org.jetbrains.annotations.NotNull;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A pool of fixed size chunks of native memory which are already zeroed, so a caller needing a cleared buffer doesn't
+ * pay for {@link Memory#setMemory(long, long, byte)} itself.
+ * <p>
+ * A background thread keeps the pool topped up. Once the number of zeroed chunks falls to the low water mark, it
+ * allocates and zeroes chunks until there are high water mark chunks. Chunks passed to {@link #free(long)} are zeroed
+ * by the same thread and reused, unless the pool already holds high water mark chunks, in which case they are freed.
+ * If the pool is empty, {@link #allocate()} allocates and zeroes a chunk on the calling thread.
+ * <p>
+ * Closing the pool frees the chunks it holds, chunks which are still in use must be passed to {@link #free(long)}.
+ */
+public final class ZeroedMemoryPool extends AbstractCloseable {
+    private final long chunkSize;
+    private final int lowWaterMark;
+    private final int highWaterMark;
+    private final Thread thread;
+    // guarded by this
+    private final long[] zeroed;
+    private final long[] dirty;
+    private int zeroedCount;
+    private int dirtyCount;
+    private int inFlight;
+    private boolean refilling = true;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a pool and starts filling it in the background.
+     *
+     * @param name          included in the name of the background thread
+     * @param chunkSize     the size of each chunk
+     * @param lowWaterMark  the number of zeroed chunks at or below which the pool is refilled
+     * @param highWaterMark the number of chunks the pool is filled to, and the most it holds
+     * @throws IllegalArgumentException if the size or water marks are not valid
+     */
+    public ZeroedMemoryPool(@NotNull String name, long chunkSize, int lowWaterMark, int highWaterMark) throws IllegalArgumentException {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("chunkSize must be positive, was " + chunkSize);
+        if (lowWaterMark < 0 || highWaterMark <= lowWaterMark)
+            throw new IllegalArgumentException("Require 0 <= lowWaterMark < highWaterMark, was " + lowWaterMark + " and " + highWaterMark);
+        this.chunkSize = chunkSize;
+        this.lowWaterMark = lowWaterMark;
+        this.highWaterMark = highWaterMark;
+        this.zeroed = new long[highWaterMark];
+        this.dirty = new long[highWaterMark];
+        singleThreadedCheckDisabled(true);
+        thread = new Thread(this::run, name + "~zeroed~memory");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Takes a zeroed chunk of {@link #chunkSize()} bytes from the pool, or allocates and zeroes one if it is empty.
+     *
+     * @return the address of the chunk
+     * @throws OutOfMemoryError if a chunk could not be allocated
+     */
+    public long allocate() {
+        throwExceptionIfClosed();
+        synchronized (this) {
+            if (zeroedCount > 0) {
+                hits++;
+                final long address = zeroed[--zeroedCount];
+                if (zeroedCount <= lowWaterMark && !refilling) {
+                    refilling = true;
+                    notifyAll();
+                }
+                return address;
+            }
+            misses++;
+            if (!refilling) {
+                refilling = true;
+                notifyAll();
+            }
+        }
+        final long address = MEMORY.allocate(chunkSize, ZeroedMemoryPool.class);
+        MEMORY.setMemory(address, chunkSize, (byte) 0);
+        return address;
+    }
+
+    /**
+     * Returns a chunk obtained from {@link #allocate()}, which doesn't need to be cleared.
+     *
+     * @param address of the chunk
+     */
+    public void free(long address) {
+        assert SKIP_ASSERTIONS || address != 0;
+        synchronized (this) {
+            if (!isClosing() && zeroedCount + dirtyCount + inFlight < highWaterMark) {
+                dirty[dirtyCount++] = address;
+                notifyAll();
+                return;
+            }
+        }
+        MEMORY.freeMemory(address, chunkSize, ZeroedMemoryPool.class);
+    }
+
+    /**
+     * @return the size of every chunk
+     */
+    public long chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return the number of zeroed chunks ready to be allocated
+     */
+    public synchronized int zeroedCount() {
+        return zeroedCount;
+    }
+
+    /**
+     * @return the number of allocations served from the pool
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of allocations which found the pool empty and zeroed a chunk on the calling thread
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    private void run() {
+        try {
+            long address;
+            while ((address = nextChunk()) != 0) {
+                MEMORY.setMemory(address, chunkSize, (byte) 0);
+                synchronized (this) {
+                    inFlight--;
+                    zeroed[zeroedCount++] = address;
+                    if (zeroedCount == highWaterMark)
+                        refilling = false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Jvm.warn().on(ZeroedMemoryPool.class, "Interrupted, no longer refilling");
+        }
+    }
+
+    /**
+     * Waits for a chunk to zero, either one freed or a new one when refilling.
+     *
+     * @return the address of the chunk, or 0 once closed
+     */
+    private long nextChunk() throws InterruptedException {
+        synchronized (this) {
+            for (; ; ) {
+                if (isClosing())
+                    return 0;
+                if (dirtyCount > 0) {
+                    inFlight++;
+                    return dirty[--dirtyCount];
+                }
+                if (refilling && zeroedCount < highWaterMark)
+                    break;
+                refilling = false;
+                wait();
+            }
+            inFlight++;
+        }
+        return MEMORY.allocate(chunkSize, ZeroedMemoryPool.class);
+    }
+
+    @Override
+    protected void performClose() {
+        synchronized (this) {
+            notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (int i = 0; i < zeroedCount; i++)
+                MEMORY.freeMemory(zeroed[i], chunkSize, ZeroedMemoryPool.class);
+            for (int i = 0; i < dirtyCount; i++)
+                MEMORY.freeMemory(dirty[i], chunkSize, ZeroedMemoryPool.class);
+            zeroedCount = dirtyCount = 0;
+        }
+    }
+}
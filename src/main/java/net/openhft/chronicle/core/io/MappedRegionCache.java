@@ -0,0 +1,270 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.io;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.OS;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+
+/**
+ * Maps fixed size chunks of a file on demand and keeps them mapped while they are in use or fit in a budget of
+ * virtual memory.
+ * <p>
+ * {@link #acquire(long, ReferenceOwner)} returns the {@link MappedRegion} containing an offset, reserved for the
+ * caller, which must release it when done. The cache holds a reference of its own to every region it contains. When
+ * more than {@link #budget()} bytes are mapped, the least recently used regions which no one else holds are dropped
+ * from the cache, and unmapped by the {@link BackgroundResourceReleaser} once their last reference is released.
+ * Regions still held are never evicted, so the budget can be exceeded while they are in use.
+ * <p>
+ * For a read-only mapping, the last chunk can extend past the end of the file, and must not be accessed past it.
+ * A read-write mapping extends the file to the end of each chunk mapped.
+ */
+public final class MappedRegionCache extends AbstractCloseable {
+    private final FileChannel fileChannel;
+    private final FileChannel.MapMode mode;
+    private final long chunkSize;
+    private final long budget;
+    // in access order, guarded by this
+    private final LinkedHashMap<Long, MappedRegion> regions = new LinkedHashMap<>(16, 0.75f, true);
+    private long mappedSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache for a file.
+     *
+     * @param fileChannel to map, which is not closed by this cache
+     * @param mode        to map with
+     * @param chunkSize   the size of each region, a multiple of {@link OS#mapAlignment()}
+     * @param budget      the number of bytes mapped above which unused regions are evicted
+     * @throws IllegalArgumentException if the chunk size is not a multiple of the map alignment or the budget is negative
+     */
+    public MappedRegionCache(@NotNull FileChannel fileChannel, @NotNull FileChannel.MapMode mode, long chunkSize, long budget)
+            throws IllegalArgumentException {
+        if (chunkSize <= 0 || chunkSize % OS.mapAlignment() != 0)
+            throw new IllegalArgumentException("chunkSize must be a multiple of " + OS.mapAlignment() + ", was " + chunkSize);
+        if (budget < 0)
+            throw new IllegalArgumentException("budget must not be negative, was " + budget);
+        this.fileChannel = fileChannel;
+        this.mode = mode;
+        this.chunkSize = chunkSize;
+        this.budget = budget;
+        singleThreadedCheckDisabled(true);
+    }
+
+    /**
+     * Returns the region containing an offset, mapping it if it isn't cached.
+     *
+     * @param offset within the file
+     * @param owner  to reserve the region for, which must release it when done
+     * @return the region, reserved for the owner
+     * @throws IOException                 if the region could not be mapped
+     * @throws IllegalArgumentException    if the offset is negative
+     * @throws ClosedIllegalStateException if this cache has been closed
+     */
+    @NotNull
+    public MappedRegion acquire(long offset, @NotNull ReferenceOwner owner) throws IOException, IllegalArgumentException, ClosedIllegalStateException {
+        if (offset < 0)
+            throw new IllegalArgumentException("offset must not be negative, was " + offset);
+        final long start = offset - offset % chunkSize;
+        List<MappedRegion> evicted = null;
+        final MappedRegion region;
+        synchronized (this) {
+            throwExceptionIfClosed();
+            MappedRegion cached = regions.get(start);
+            if (cached != null) {
+                hits++;
+                cached.reserve(owner);
+                return cached;
+            }
+            misses++;
+            region = map(start);
+            regions.put(start, region);
+            mappedSize += chunkSize;
+            region.reserve(owner);
+            if (mappedSize > budget)
+                evicted = evict();
+        }
+        // releasing the cache's reference outside the lock, the unmap itself is done in the background
+        if (evicted != null)
+            for (MappedRegion mappedRegion : evicted)
+                mappedRegion.release(this);
+        return region;
+    }
+
+    private MappedRegion map(long start) throws IOException {
+        if (mode == FileChannel.MapMode.READ_WRITE && fileChannel.size() < start + chunkSize)
+            fileChannel.write(ByteBuffer.allocate(1), start + chunkSize - 1);
+        final long address = OS.map(fileChannel, mode, start, chunkSize);
+        return new MappedRegion(this, address, start, chunkSize);
+    }
+
+    /**
+     * Removes least recently used regions no one else holds until within budget.
+     */
+    private List<MappedRegion> evict() {
+        List<MappedRegion> evicted = new ArrayList<>();
+        for (Iterator<MappedRegion> iter = regions.values().iterator(); iter.hasNext() && mappedSize > budget; ) {
+            final MappedRegion region = iter.next();
+            // only the cache holds it, and it can't be reserved again except via acquire
+            if (region.refCount() != 1)
+                continue;
+            iter.remove();
+            mappedSize -= region.size;
+            evictions++;
+            evicted.add(region);
+        }
+        return evicted;
+    }
+
+    /**
+     * @return the size of each region
+     */
+    public long chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return the number of bytes mapped above which unused regions are evicted
+     */
+    public long budget() {
+        return budget;
+    }
+
+    /**
+     * @return the number of bytes mapped by the regions in the cache
+     */
+    public synchronized long mappedSize() {
+        return mappedSize;
+    }
+
+    /**
+     * @return the number of regions in the cache
+     */
+    public synchronized int regionCount() {
+        return regions.size();
+    }
+
+    /**
+     * @return the number of acquires which found the region cached
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of acquires which had to map a region
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of regions evicted to stay within the budget
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    @Override
+    protected void performClose() {
+        final List<MappedRegion> toRelease;
+        synchronized (this) {
+            toRelease = new ArrayList<>(regions.values());
+            regions.clear();
+            mappedSize = 0;
+        }
+        for (MappedRegion region : toRelease)
+            region.release(this);
+    }
+
+    /**
+     * A chunk of a file mapped into memory. It is unmapped once the cache and every owner which acquired it have
+     * released it.
+     */
+    public static final class MappedRegion extends AbstractReferenceCounted {
+        private final long address;
+        private final long start;
+        private final long size;
+
+        MappedRegion(ReferenceOwner cache, long address, long start, long size) {
+            this.address = address;
+            this.start = start;
+            this.size = size;
+            reserveTransfer(INIT, cache);
+        }
+
+        /**
+         * @return the address the start of the region is mapped to
+         */
+        public long address() {
+            return address;
+        }
+
+        /**
+         * Returns the address of an offset in the file, which must be in this region.
+         *
+         * @param offset within the file
+         * @return the address it is mapped to
+         */
+        public long addressOf(long offset) {
+            assert SKIP_ASSERTIONS || (offset >= start && offset < start + size);
+            return address + offset - start;
+        }
+
+        /**
+         * @return the offset in the file of the start of the region
+         */
+        public long start() {
+            return start;
+        }
+
+        /**
+         * @return the number of bytes mapped
+         */
+        public long size() {
+            return size;
+        }
+
+        @Override
+        protected boolean canReleaseInBackground() {
+            return true;
+        }
+
+        @Override
+        protected void performRelease() {
+            try {
+                OS.unmap(address, size);
+            } catch (IOException e) {
+                Jvm.warn().on(MappedRegionCache.class, "Failed to unmap region at " + start, e);
+            }
+        }
+    }
+}
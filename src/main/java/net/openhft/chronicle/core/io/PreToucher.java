@@ -0,0 +1,236 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.io;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.OS;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * Touches the pages of a memory mapped region on a background thread, ahead of a writer, so the writer doesn't
+ * take the page faults itself.
+ * <p>
+ * The writer reports its position with {@link #writePosition(long)} and the pages from there up to
+ * {@code lookahead} bytes ahead are touched, one touch per {@link OS#pageSize()}, by a single shared daemon thread
+ * named {@value #BACKGROUND_PRE_TOUCHER}. For a writable mapping each page is touched with a compare-and-swap which
+ * changes nothing, so it is faulted in for writing, otherwise it is read.
+ * <p>
+ * {@link #outrunCount()} and {@link #maxOutrun()} show whether the writer has ever reached pages before they were
+ * touched. This must be closed before the region is unmapped.
+ */
+public final class PreToucher extends AbstractCloseable {
+    public static final String BACKGROUND_PRE_TOUCHER = "background~pre~toucher";
+    private static final CopyOnWriteArrayList<PreToucher> PRE_TOUCHERS = new CopyOnWriteArrayList<>();
+    private static final long WRITE_POSITION = Jvm.fieldOffset(PreToucher.class, "writePosition");
+    private static final long OUTRUN_COUNT = Jvm.fieldOffset(PreToucher.class, "outrunCount");
+    private static final long MAX_OUTRUN = Jvm.fieldOffset(PreToucher.class, "maxOutrun");
+
+    private final long address;
+    private final long size;
+    private final long lookahead;
+    private final int pagesPerPass;
+    private final boolean writable;
+    private final int pageSize = OS.pageSize();
+    private volatile long touchedPosition;
+    private volatile long pagesTouched;
+    // only updated by the writer thread, with ordered writes so it doesn't pay for a fence, and read by others
+    // with volatile reads
+    private long writePosition;
+    private long outrunCount;
+    private long maxOutrun;
+
+    /**
+     * Starts touching a region in the background, touching at most about one million pages a second.
+     *
+     * @param address   the start of the mapping, page aligned
+     * @param size      of the mapping in bytes
+     * @param lookahead how far ahead of the write position to touch
+     * @param writable  whether the mapping is writable, so pages are faulted in for writing
+     */
+    public PreToucher(long address, long size, long lookahead, boolean writable) {
+        this(address, size, lookahead, writable, 1_000_000);
+    }
+
+    /**
+     * Starts touching a region in the background.
+     *
+     * @param address        the start of the mapping, page aligned
+     * @param size           of the mapping in bytes
+     * @param lookahead      how far ahead of the write position to touch
+     * @param writable       whether the mapping is writable, so pages are faulted in for writing
+     * @param pagesPerSecond the approximate maximum rate pages are touched
+     * @throws IllegalArgumentException if the lookahead or rate is not positive
+     */
+    public PreToucher(long address, long size, long lookahead, boolean writable, int pagesPerSecond) throws IllegalArgumentException {
+        assert SKIP_ASSERTIONS || address != 0;
+        if (lookahead <= 0)
+            throw new IllegalArgumentException("lookahead must be positive, was " + lookahead);
+        if (pagesPerSecond <= 0)
+            throw new IllegalArgumentException("pagesPerSecond must be positive, was " + pagesPerSecond);
+        this.address = address;
+        this.size = size;
+        this.lookahead = lookahead;
+        this.writable = writable;
+        // the background thread makes a pass about every millisecond
+        this.pagesPerPass = Math.max(1, pagesPerSecond / 1000);
+        singleThreadedCheckDisabled(true);
+        PRE_TOUCHERS.add(this);
+        PreToucherThread.thread();
+    }
+
+    /**
+     * Sets the position the writer has reached, relative to the start of the region. This is cheap enough to call on
+     * every write, and should only be called by one thread.
+     *
+     * @param position the offset the writer has written up to
+     */
+    public void writePosition(long position) {
+        MEMORY.writeOrderedLong(this, WRITE_POSITION, position);
+        final long touched = touchedPosition;
+        final long outrun = position - touched;
+        if (outrun > 0 && touched < size) {
+            MEMORY.writeOrderedLong(this, OUTRUN_COUNT, outrunCount + 1);
+            if (outrun > maxOutrun)
+                MEMORY.writeOrderedLong(this, MAX_OUTRUN, outrun);
+        }
+    }
+
+    /**
+     * @return the last position set by the writer
+     */
+    public long writePosition() {
+        return MEMORY.readVolatileLong(this, WRITE_POSITION);
+    }
+
+    /**
+     * @return the offset up to which all pages have been touched
+     */
+    public long touchedPosition() {
+        return touchedPosition;
+    }
+
+    /**
+     * @return the number of pages touched so far
+     */
+    public long pagesTouched() {
+        return pagesTouched;
+    }
+
+    /**
+     * @return how many bytes the writer is currently ahead of the touched pages, or 0 if it isn't
+     */
+    public long lag() {
+        return Math.max(0, writePosition() - touchedPosition);
+    }
+
+    /**
+     * @return the number of times the writer reported a position beyond the touched pages
+     */
+    public long outrunCount() {
+        return MEMORY.readVolatileLong(this, OUTRUN_COUNT);
+    }
+
+    /**
+     * @return the furthest the writer has been ahead of the touched pages, in bytes
+     */
+    public long maxOutrun() {
+        return MEMORY.readVolatileLong(this, MAX_OUTRUN);
+    }
+
+    /**
+     * Touches up to a pass worth of pages.
+     *
+     * @return true if any pages were touched
+     */
+    synchronized boolean touchPages() {
+        if (isClosing())
+            return false;
+        final long target = Math.min(size, writePosition() + lookahead);
+        long position = touchedPosition;
+        int pages = 0;
+        for (; position < target && pages < pagesPerPass; position += pageSize, pages++) {
+            final long page = address + position;
+            if (writable)
+                MEMORY.compareAndSwapInt(page, 0, 0);
+            else
+                MEMORY.readVolatileByte(page);
+        }
+        if (pages == 0)
+            return false;
+        touchedPosition = Math.min(size, position);
+        pagesTouched += pages;
+        return true;
+    }
+
+    @Override
+    protected void performClose() {
+        PRE_TOUCHERS.remove(this);
+        // wait for any pass in progress so the region can be unmapped safely
+        synchronized (this) {
+            touchedPosition = size;
+        }
+    }
+
+    @Override
+    protected boolean shouldPerformCloseInBackground() {
+        return false;
+    }
+
+    static final class PreToucherThread {
+        private static final Thread THREAD = createThread();
+
+        // Suppresses default constructor, ensuring non-instantiability.
+        private PreToucherThread() {
+        }
+
+        private static Thread createThread() {
+            final Thread thread = new Thread(PreToucherThread::run, BACKGROUND_PRE_TOUCHER);
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+        }
+
+        /**
+         * The first call starts the thread, as it initialises this class.
+         */
+        static Thread thread() {
+            return THREAD;
+        }
+
+        private static void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                boolean busy = false;
+                for (PreToucher preToucher : PRE_TOUCHERS) {
+                    try {
+                        busy |= preToucher.touchPages();
+                    } catch (Throwable t) {
+                        Jvm.warn().on(PreToucher.class, "Failed to pre-touch, removing " + preToucher, t);
+                        PRE_TOUCHERS.remove(preToucher);
+                    }
+                }
+                // pause between passes to limit the rate, and to avoid spinning when idle
+                Jvm.pause(busy ? 1 : 5);
+            }
+        }
+    }
+}
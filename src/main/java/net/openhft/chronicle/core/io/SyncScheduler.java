@@ -0,0 +1,166 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.io;
+
+import net.openhft.chronicle.core.Jvm;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link Syncable#sync()} on a dedicated daemon thread, coalescing requests so a burst of writers asking for the
+ * same resource to be synced results in one sync rather than one each.
+ * <p>
+ * {@link #requestSync(Syncable)} returns a future which completes once a sync started after the request has finished,
+ * so a writer can wait for its data to be on the underlying media, or carry on and ignore it. The first request after
+ * the thread goes idle starts a window, and all the requests made during it are then run together, one sync per
+ * resource. Requests made while a resource is being synced are held for the next window, as they may have written
+ * data the running sync won't cover.
+ * <p>
+ * Requests still pending are run when this is closed.
+ */
+public final class SyncScheduler extends AbstractCloseable {
+    private final long windowNS;
+    private final Thread thread;
+    // guarded by this
+    private Map<Syncable, CompletableFuture<Void>> pending = new IdentityHashMap<>();
+    private long windowStartNS;
+    private long syncsRequested;
+    private volatile long syncsPerformed;
+
+    /**
+     * Creates a scheduler and starts its thread.
+     *
+     * @param name   included in the name of the thread
+     * @param window how long to wait after the first request for others to coalesce with it
+     * @param unit   of the window
+     * @throws IllegalArgumentException if the window is negative
+     */
+    public SyncScheduler(@NotNull String name, long window, @NotNull TimeUnit unit) throws IllegalArgumentException {
+        if (window < 0)
+            throw new IllegalArgumentException("window must not be negative, was " + window);
+        this.windowNS = unit.toNanos(window);
+        singleThreadedCheckDisabled(true);
+        thread = new Thread(this::run, name + "~sync~scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Requests a resource be synced in the background.
+     *
+     * @param syncable to sync
+     * @return a future completed when the sync has finished, or completed exceptionally if it failed
+     * @throws ClosedIllegalStateException if this scheduler has been closed
+     */
+    @NotNull
+    public CompletableFuture<Void> requestSync(@NotNull Syncable syncable) throws ClosedIllegalStateException {
+        synchronized (this) {
+            throwExceptionIfClosed();
+            syncsRequested++;
+            CompletableFuture<Void> future = pending.get(syncable);
+            if (future == null) {
+                if (pending.isEmpty()) {
+                    windowStartNS = System.nanoTime();
+                    notifyAll();
+                }
+                pending.put(syncable, future = new CompletableFuture<>());
+            }
+            return future;
+        }
+    }
+
+    /**
+     * @return the number of calls to {@link #requestSync(Syncable)}
+     */
+    public synchronized long syncsRequested() {
+        return syncsRequested;
+    }
+
+    /**
+     * @return the number of times {@link Syncable#sync()} has been called, at most the number requested
+     */
+    public long syncsPerformed() {
+        return syncsPerformed;
+    }
+
+    private void run() {
+        try {
+            Map<Syncable, CompletableFuture<Void>> batch;
+            while ((batch = nextBatch()) != null)
+                syncAll(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Jvm.warn().on(SyncScheduler.class, "Interrupted, pending syncs will be run on close");
+        }
+    }
+
+    /**
+     * Waits for the first request, then for the window to close.
+     *
+     * @return the requests to run, or null once closed with nothing pending
+     */
+    private synchronized Map<Syncable, CompletableFuture<Void>> nextBatch() throws InterruptedException {
+        while (pending.isEmpty()) {
+            if (isClosing())
+                return null;
+            wait();
+        }
+        long remainingNS;
+        while (!isClosing() && (remainingNS = windowStartNS + windowNS - System.nanoTime()) > 0)
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNS);
+        return takePending();
+    }
+
+    private synchronized Map<Syncable, CompletableFuture<Void>> takePending() {
+        final Map<Syncable, CompletableFuture<Void>> batch = pending;
+        pending = new IdentityHashMap<>();
+        return batch;
+    }
+
+    private void syncAll(Map<Syncable, CompletableFuture<Void>> batch) {
+        for (Map.Entry<Syncable, CompletableFuture<Void>> entry : batch.entrySet()) {
+            syncsPerformed++;
+            try {
+                entry.getKey().sync();
+                entry.getValue().complete(null);
+            } catch (Throwable t) {
+                Jvm.warn().on(SyncScheduler.class, "Failed to sync " + entry.getKey(), t);
+                entry.getValue().completeExceptionally(t);
+            }
+        }
+    }
+
+    @Override
+    protected void performClose() {
+        synchronized (this) {
+            notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // if the thread didn't get to them
+        syncAll(takePending());
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.pool;
+
+import net.openhft.chronicle.core.Maths;
+import net.openhft.chronicle.core.util.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import sun.misc.Unsafe;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+
+/**
+ * A {@link StringInterner} which can be shared by any number of threads, so one cache can serve them all rather than
+ * one per thread.
+ * <p>
+ * It uses the same two way cache, each String having two possible slots, with no locks. Slots are written with ordered
+ * stores and as Strings are immutable a thread either sees a complete String or the previous one. Threads interning the
+ * same text at the same time may each get their own copy and one replaces the other, which only costs a miss later.
+ * On a miss with both slots taken, the slot replaced is chosen at random rather than by a shared toggle.
+ * <p>
+ * Hits, misses and evictions are counted with {@link LongAdder}s, which don't contend between threads, to help size the
+ * capacity from real usage.
+ */
+public class ConcurrentStringInterner {
+    protected final AtomicReferenceArray<String> interner;
+    protected final int mask;
+    protected final int shift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a new ConcurrentStringInterner with the specified capacity.
+     *
+     * @param capacity the initial capacity of the interner.
+     * @throws IllegalArgumentException if the capacity is invalid.
+     */
+    public ConcurrentStringInterner(int capacity) throws IllegalArgumentException {
+        int n = Maths.nextPower2(capacity, 128);
+        shift = Maths.intLog2(n);
+        interner = new AtomicReferenceArray<>(n);
+        mask = n - 1;
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int capacity() {
+        return interner.length();
+    }
+
+    /**
+     * Interns the specified CharSequence.
+     *
+     * @param cs the CharSequence to intern.
+     * @return the interned string, or a new String if it was too long to cache
+     */
+    @Nullable
+    public String intern(@Nullable CharSequence cs) {
+        if (cs == null)
+            return null;
+        if (cs.length() > interner.length())
+            return cs.toString();
+        long h1 = Maths.hash64(cs);
+        h1 ^= h1 >> 32;
+        int h = (int) h1 & mask;
+        String s = interner.get(h);
+        if (StringUtils.isEqual(cs, s)) {
+            hits.increment();
+            return s;
+        }
+        int h2 = (int) (h1 >> shift) & mask;
+        String s2 = interner.get(h2);
+        if (StringUtils.isEqual(cs, s2)) {
+            hits.increment();
+            return s2;
+        }
+        String s3 = cs.toString();
+        interner.lazySet(victim(h, s, h2, s2), s3);
+        return s3;
+    }
+
+    /**
+     * Interns ISO-8859-1 text held in native memory, e.g. a symbol in a memory mapped file, hashing and comparing the
+     * bytes in place so a String is only created on a miss.
+     *
+     * @param address of the first byte
+     * @param length  the number of bytes
+     * @return the interned string
+     */
+    @NotNull
+    public String intern(long address, int length) {
+        assert SKIP_ASSERTIONS || address != 0;
+        return internBytes(null, address, length);
+    }
+
+    /**
+     * Interns ISO-8859-1 text held in a byte[], hashing and comparing the bytes in place so a String is only created
+     * on a miss.
+     *
+     * @param bytes  holding the text
+     * @param offset of the first byte
+     * @param length the number of bytes
+     * @return the interned string
+     */
+    @NotNull
+    public String intern(@NotNull byte[] bytes, int offset, int length) {
+        StringInterner.checkBounds(bytes, offset, length);
+        return internBytes(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) offset, length);
+    }
+
+    /**
+     * Interns UTF-8 text held in native memory. ASCII text is interned in place as {@link #intern(long, int)} does,
+     * anything else is decoded first.
+     *
+     * @param address of the first byte
+     * @param length  the number of bytes
+     * @return the interned string
+     */
+    @NotNull
+    public String internUtf8(long address, int length) {
+        assert SKIP_ASSERTIONS || address != 0;
+        if (StringInterner.isAscii(null, address, length))
+            return internBytes(null, address, length);
+        return intern(StringInterner.decode(null, address, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Interns UTF-8 text held in a byte[]. ASCII text is interned in place as {@link #intern(byte[], int, int)} does,
+     * anything else is decoded first.
+     *
+     * @param bytes  holding the text
+     * @param offset of the first byte
+     * @param length the number of bytes
+     * @return the interned string
+     */
+    @NotNull
+    public String internUtf8(@NotNull byte[] bytes, int offset, int length) {
+        StringInterner.checkBounds(bytes, offset, length);
+        if (StringInterner.isAscii(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) offset, length))
+            return internBytes(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) offset, length);
+        return intern(new String(bytes, offset, length, StandardCharsets.UTF_8));
+    }
+
+    private String internBytes(Object object, long offset, int length) {
+        if (length > interner.length())
+            return StringInterner.decode(object, offset, length, StandardCharsets.ISO_8859_1);
+        long h1 = StringInterner.hash64(object, offset, length);
+        h1 ^= h1 >> 32;
+        int h = (int) h1 & mask;
+        String s = interner.get(h);
+        if (StringInterner.isEqual(object, offset, length, s)) {
+            hits.increment();
+            return s;
+        }
+        int h2 = (int) (h1 >> shift) & mask;
+        String s2 = interner.get(h2);
+        if (StringInterner.isEqual(object, offset, length, s2)) {
+            hits.increment();
+            return s2;
+        }
+        String s3 = StringInterner.decode(object, offset, length, StandardCharsets.ISO_8859_1);
+        interner.lazySet(victim(h, s, h2, s2), s3);
+        return s3;
+    }
+
+    /**
+     * Interns the specified CharSequence and returns the slot it is held in, as {@link StringInterner#index} does.
+     *
+     * @param cs        a source string
+     * @param onChanged called if the slot was changed to hold this string
+     * @return the index that the interned string is stored in, or -1 if not stored
+     */
+    public int index(@Nullable CharSequence cs, @Nullable StringInterner.Changed onChanged) {
+        if (cs == null)
+            return -1;
+        if (cs.length() > interner.length())
+            return -1;
+        long h1 = Maths.hash64(cs);
+        h1 ^= h1 >> 32;
+        int h = (int) h1 & mask;
+        String s = interner.get(h);
+        if (StringUtils.isEqual(cs, s)) {
+            hits.increment();
+            return h;
+        }
+        int h2 = (int) (h1 >> shift) & mask;
+        String s2 = interner.get(h2);
+        if (StringUtils.isEqual(cs, s2)) {
+            hits.increment();
+            return h2;
+        }
+        String s3 = cs.toString();
+        final int i = victim(h, s, h2, s2);
+        interner.lazySet(i, s3);
+        if (onChanged != null)
+            onChanged.onChanged(i, s3);
+        return i;
+    }
+
+    /**
+     * Records a miss and chooses the slot to replace, an empty one if there is one.
+     */
+    protected int victim(int h, String s, int h2, String s2) {
+        misses.increment();
+        if (s == null)
+            return h;
+        if (s2 == null)
+            return h2;
+        evictions.increment();
+        return ThreadLocalRandom.current().nextBoolean() ? h : h2;
+    }
+
+    /**
+     * @param index the index of the interned string, from {@link #index}
+     * @return the String held at that index, which may have been replaced since
+     */
+    public String get(int index) {
+        return interner.get(index);
+    }
+
+    /**
+     * @return the count of non-null strings in the interner.
+     */
+    public int valueCount() {
+        int count = 0;
+        for (int i = 0; i < interner.length(); i++)
+            if (interner.get(i) != null)
+                count++;
+        return count;
+    }
+
+    /**
+     * @return the number of lookups which found the string cached
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups which created a String, not counting strings too long to cache
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of misses which replaced a different cached String
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Resets the hit, miss and eviction counts.
+     */
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentStringInterner{" +
+                "capacity=" + capacity() +
+                ", hits=" + hits() +
+                ", misses=" + misses() +
+                ", evictions=" + evictions() +
+                '}';
+    }
+}
@@ -18,13 +18,21 @@
 
 package net.openhft.chronicle.core.pool;
 
+import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.Maths;
 import net.openhft.chronicle.core.util.StringUtils;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import sun.misc.Unsafe;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import java.util.stream.Stream;
 
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
 /**
  * <p>
  * StringInterner only guarantees it will behave in a correct manner. When you ask it for a String for a given input, it must return a String which matches the toString() of that CharSequence.
@@ -103,6 +111,87 @@ public class StringInterner {
         return s3;
     }
 
+    /**
+     * Interns ISO-8859-1 text held in native memory, e.g. a symbol in a memory mapped file, hashing and comparing the
+     * bytes in place so a String is only created on a miss.
+     *
+     * @param address of the first byte
+     * @param length  the number of bytes
+     * @return the interned string
+     */
+    @NotNull
+    public String intern(long address, int length) {
+        assert SKIP_ASSERTIONS || address != 0;
+        return internBytes(null, address, length);
+    }
+
+    /**
+     * Interns ISO-8859-1 text held in a byte[], hashing and comparing the bytes in place so a String is only created
+     * on a miss.
+     *
+     * @param bytes  holding the text
+     * @param offset of the first byte
+     * @param length the number of bytes
+     * @return the interned string
+     */
+    @NotNull
+    public String intern(@NotNull byte[] bytes, int offset, int length) {
+        checkBounds(bytes, offset, length);
+        return internBytes(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) offset, length);
+    }
+
+    /**
+     * Interns UTF-8 text held in native memory. ASCII text is interned in place as {@link #intern(long, int)} does,
+     * anything else is decoded first.
+     *
+     * @param address of the first byte
+     * @param length  the number of bytes
+     * @return the interned string
+     */
+    @NotNull
+    public String internUtf8(long address, int length) {
+        assert SKIP_ASSERTIONS || address != 0;
+        if (isAscii(null, address, length))
+            return internBytes(null, address, length);
+        return intern(decode(null, address, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Interns UTF-8 text held in a byte[]. ASCII text is interned in place as {@link #intern(byte[], int, int)} does,
+     * anything else is decoded first.
+     *
+     * @param bytes  holding the text
+     * @param offset of the first byte
+     * @param length the number of bytes
+     * @return the interned string
+     */
+    @NotNull
+    public String internUtf8(@NotNull byte[] bytes, int offset, int length) {
+        checkBounds(bytes, offset, length);
+        if (isAscii(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) offset, length))
+            return internBytes(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) offset, length);
+        return intern(new String(bytes, offset, length, StandardCharsets.UTF_8));
+    }
+
+    private String internBytes(Object object, long offset, int length) {
+        if (length > interner.length)
+            return decode(object, offset, length, StandardCharsets.ISO_8859_1);
+        long h1 = hash64(object, offset, length);
+        h1 ^= h1 >> 32;
+        int h = (int) h1 & mask;
+        String s = interner[h];
+        if (isEqual(object, offset, length, s))
+            return s;
+        int h2 = (int) (h1 >> shift) & mask;
+        String s2 = interner[h2];
+        if (isEqual(object, offset, length, s2))
+            return s2;
+        String s3 = decode(object, offset, length, StandardCharsets.ISO_8859_1);
+        interner[s == null || (s2 != null && toggle()) ? h : h2] = s3;
+
+        return s3;
+    }
+
     /**
      * provide
      *
@@ -181,4 +270,48 @@ public class StringInterner {
     public int valueCount() {
         return (int) Stream.of(interner).filter(Objects::nonNull).count();
     }
+
+    static void checkBounds(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length)
+            throw new ArrayIndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + bytes.length);
+    }
+
+    /**
+     * Hashes bytes as ISO-8859-1 characters, giving the same hash as {@link Maths#hash64(CharSequence)} for the same
+     * text in a StringBuilder, and for ASCII text in a String, so either finds the other's slot.
+     */
+    static long hash64(Object object, long offset, int length) {
+        long hash = 0;
+        for (int i = 0; i < length; i++)
+            hash = hash * 0x32246e3d + (MEMORY.readByte(object, offset + i) & 0xFF);
+        return Maths.agitate(hash);
+    }
+
+    /**
+     * @return whether the String holds exactly the bytes as ISO-8859-1 characters
+     */
+    static boolean isEqual(Object object, long offset, int length, String s) {
+        if (s == null || s.length() != length)
+            return false;
+        // with -XX:-CompactStrings every String is UTF16, so only a LATIN1 String can be compared as bytes
+        if (Jvm.isJava9Plus() && StringUtils.getStringCoder(s) == 0)
+            return MEMORY.isEqual(object, offset, StringUtils.extractBytes(s), Unsafe.ARRAY_BYTE_BASE_OFFSET, length);
+        for (int i = 0; i < length; i++)
+            if ((MEMORY.readByte(object, offset + i) & 0xFF) != s.charAt(i))
+                return false;
+        return true;
+    }
+
+    static boolean isAscii(Object object, long offset, int length) {
+        for (int i = 0; i < length; i++)
+            if (MEMORY.readByte(object, offset + i) < 0)
+                return false;
+        return true;
+    }
+
+    static String decode(Object object, long offset, int length, Charset charset) {
+        final byte[] bytes = new byte[length];
+        MEMORY.copyMemory(object, offset, bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, length);
+        return new String(bytes, charset);
+    }
 }
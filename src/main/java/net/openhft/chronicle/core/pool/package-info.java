@@ -29,9 +29,12 @@
  *
  * <p>The {@link net.openhft.chronicle.core.pool.StringInterner} class provides string interning functionality, optimizing
  * memory usage by caching strings and referring to them by index rather than storing duplicate strings.
+ * {@link net.openhft.chronicle.core.pool.ConcurrentStringInterner} does the same for a cache shared between threads,
+ * counting hits, misses and evictions.
  *
  * @see net.openhft.chronicle.core.pool.ClassAliasPool
  * @see net.openhft.chronicle.core.pool.ClassLookup
+ * @see net.openhft.chronicle.core.pool.ConcurrentStringInterner
  * @see net.openhft.chronicle.core.pool.DynamicEnumClass
  * @see net.openhft.chronicle.core.pool.EnumCache
  * @see net.openhft.chronicle.core.pool.EnumInterner
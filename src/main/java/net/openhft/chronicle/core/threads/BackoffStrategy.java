@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.threads;
+
+/**
+ * How a thread waiting for a condition, such as a value in shared memory changing, idles between checks.
+ * <p>
+ * The strategy is told how many times the condition has been checked so far, so the same instance can be shared
+ * by any number of waiting threads.
+ */
+@FunctionalInterface
+public interface BackoffStrategy {
+
+    /**
+     * Spins without pausing at all, for the lowest latency at the cost of a whole core.
+     *
+     * @return a strategy which never gives up the CPU
+     */
+    static BackoffStrategy busySpin() {
+        return (iteration, remainingNanos) -> {
+        };
+    }
+
+    /**
+     * Spins briefly, then spins with a CPU pause hint, then yields, then parks for increasing periods up to 100
+     * microseconds, so a short wait has low latency and a long one uses little CPU.
+     *
+     * @return the default strategy
+     */
+    static BackoffStrategy spinYieldPark() {
+        return SpinYieldParkBackoff.DEFAULT;
+    }
+
+    /**
+     * Idles after the condition was found not yet met, for no longer than the time left before the wait gives up.
+     *
+     * @param iteration      the number of times this has been called for the current wait, from 0
+     * @param remainingNanos the time left before the wait times out, always positive
+     * @throws InterruptedRuntimeException if the thread is interrupted while parked
+     */
+    void idle(int iteration, long remainingNanos) throws InterruptedRuntimeException;
+}
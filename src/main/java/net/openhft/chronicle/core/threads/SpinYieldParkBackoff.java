@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.threads;
+
+import net.openhft.chronicle.core.Jvm;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link BackoffStrategy} which busy spins, then spins calling {@link Jvm#nanoPause()}, then yields, then parks
+ * for a period which doubles up to a maximum.
+ * <p>
+ * A parked thread isn't woken by the writer, it checks again when the park times out, which works the same whether
+ * the value is written by another thread or another process. The maximum park time bounds the latency of a long wait,
+ * and no park outlasts the time remaining before the wait times out.
+ */
+public final class SpinYieldParkBackoff implements BackoffStrategy {
+    static final SpinYieldParkBackoff DEFAULT = new SpinYieldParkBackoff(100, 1000, 100,
+            TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MICROSECONDS.toNanos(100));
+
+    private final int spinUntil;
+    private final int pauseUntil;
+    private final int yieldUntil;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+
+    /**
+     * @param spins        the number of iterations to busy spin
+     * @param pauses       the number of iterations to spin with a pause hint after that
+     * @param yields       the number of iterations to yield after that
+     * @param minParkNanos the first period to park for
+     * @param maxParkNanos the longest period to park for
+     * @throws IllegalArgumentException if a count is negative or the park times are not positive and in order
+     */
+    public SpinYieldParkBackoff(int spins, int pauses, int yields, long minParkNanos, long maxParkNanos) throws IllegalArgumentException {
+        if (spins < 0 || pauses < 0 || yields < 0)
+            throw new IllegalArgumentException("spins, pauses and yields must not be negative, were " + spins + ", " + pauses + " and " + yields);
+        if (minParkNanos <= 0 || maxParkNanos < minParkNanos)
+            throw new IllegalArgumentException("park times must be positive with min <= max, were " + minParkNanos + " and " + maxParkNanos);
+        this.spinUntil = spins;
+        this.pauseUntil = spinUntil + pauses;
+        this.yieldUntil = pauseUntil + yields;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public void idle(int iteration, long remainingNanos) throws InterruptedRuntimeException {
+        if (iteration < spinUntil)
+            return;
+        if (iteration < pauseUntil) {
+            Jvm.nanoPause();
+            return;
+        }
+        if (iteration < yieldUntil) {
+            Thread.yield();
+            return;
+        }
+        LockSupport.parkNanos(Math.min(parkNanos(iteration - yieldUntil), remainingNanos));
+        if (Thread.currentThread().isInterrupted())
+            throw new InterruptedRuntimeException("Interrupted while waiting");
+    }
+
+    /**
+     * @return the period to park for on the given park, doubling from the minimum up to the maximum
+     */
+    long parkNanos(int parks) {
+        final int shift = Math.min(parks, 62);
+        final long nanos = minParkNanos << shift;
+        return nanos >>> shift != minParkNanos || nanos > maxParkNanos ? maxParkNanos : nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SpinYieldParkBackoff{" +
+                "spins=" + spinUntil +
+                ", pauses=" + (pauseUntil - spinUntil) +
+                ", yields=" + (yieldUntil - pauseUntil) +
+                ", minParkNanos=" + minParkNanos +
+                ", maxParkNanos=" + maxParkNanos +
+                '}';
+    }
+}
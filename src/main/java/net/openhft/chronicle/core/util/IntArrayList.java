@@ -0,0 +1,237 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A growable list of primitive {@code int}s, without boxing. Adding only allocates when the backing array has to grow.
+ * <p>
+ * This is not thread safe.
+ */
+public final class IntArrayList {
+    private static final int[] EMPTY = {};
+
+    private int[] elements;
+    private int size;
+
+    /**
+     * Creates an empty list which allocates on the first add.
+     */
+    public IntArrayList() {
+        elements = EMPTY;
+    }
+
+    /**
+     * Creates an empty list.
+     *
+     * @param initialCapacity the number of elements which can be added before it grows
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public IntArrayList(int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("initialCapacity must not be negative, was " + initialCapacity);
+        elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    /**
+     * @param value to append
+     */
+    public void add(int value) {
+        if (size == elements.length)
+            grow(size + 1);
+        elements[size++] = value;
+    }
+
+    /**
+     * @param values to append
+     * @param offset of the first value
+     * @param length number of values
+     * @throws ArrayIndexOutOfBoundsException if the range is outside the array
+     */
+    public void addAll(@NotNull int[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > values.length - length)
+            throw new ArrayIndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + values.length);
+        if (size + length > elements.length)
+            grow(size + length);
+        System.arraycopy(values, offset, elements, size, length);
+        size += length;
+    }
+
+    /**
+     * @param index of the element
+     * @return the element
+     * @throws IndexOutOfBoundsException if the index is not less than the size
+     */
+    public int get(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * @param index of the element
+     * @param value to replace it with
+     * @return the previous element
+     * @throws IndexOutOfBoundsException if the index is not less than the size
+     */
+    public int set(int index, int value) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        final int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    /**
+     * Removes an element, shifting the later ones down.
+     *
+     * @param index of the element
+     * @return the element removed
+     * @throws IndexOutOfBoundsException if the index is not less than the size
+     */
+    public int removeAt(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        final int removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    /**
+     * @param value to look for
+     * @return the index of the first element equal to the value, or -1
+     */
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++)
+            if (elements[i] == value)
+                return i;
+        return -1;
+    }
+
+    /**
+     * @param value to look for
+     * @return whether any element is equal to the value
+     */
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * @return the number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether there are no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element, keeping the backing array.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @param consumer called with each element in order
+     */
+    public void forEach(@NotNull IntConsumer consumer) {
+        for (int i = 0; i < size; i++)
+            consumer.accept(elements[i]);
+    }
+
+    /**
+     * Removes the elements matching a predicate, keeping the order of the rest.
+     *
+     * @param filter which returns true for the elements to remove
+     * @return whether any were removed
+     */
+    public boolean removeIf(@NotNull IntPredicate filter) {
+        int to = 0;
+        for (int i = 0; i < size; i++) {
+            final int value = elements[i];
+            if (!filter.test(value))
+                elements[to++] = value;
+        }
+        final boolean removed = to < size;
+        size = to;
+        return removed;
+    }
+
+    /**
+     * @return a copy of the elements
+     */
+    @NotNull
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+
+    private void grow(int minCapacity) {
+        final int capacity = Math.max(minCapacity, Math.max(8, elements.length + (elements.length >> 1)));
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof IntArrayList))
+            return false;
+        final IntArrayList that = (IntArrayList) o;
+        if (size != that.size)
+            return false;
+        for (int i = 0; i < size; i++)
+            if (elements[i] != that.elements[i])
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++)
+            hash = 31 * hash + Integer.hashCode(elements[i]);
+        return hash;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
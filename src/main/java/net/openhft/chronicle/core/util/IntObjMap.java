@@ -0,0 +1,255 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A map of primitive {@code int} keys to objects, without boxing the keys. An open addressing table with linear
+ * probing, where removing shifts later entries in the same run back rather than leaving tombstones. Adding only
+ * allocates when the table has to grow. Any key can be used, values can't be null.
+ * <p>
+ * This is not thread safe.
+ *
+ * @param <V> the type of the values
+ */
+public final class IntObjMap<V> {
+    private int[] keys;
+    // null marks a free slot
+    private Object[] values;
+    private int mask;
+    private int shift;
+    private int resizeAt;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntObjMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param expectedSize the number of entries to hold without resizing
+     * @throws IllegalArgumentException if the size is negative or too large
+     */
+    public IntObjMap(int expectedSize) throws IllegalArgumentException {
+        allocate(OpenAddressing.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = OpenAddressing.shiftFor(capacity);
+        resizeAt = OpenAddressing.resizeAt(capacity);
+    }
+
+    private int find(int key) {
+        for (int i = OpenAddressing.index(key, shift); ; i = (i + 1) & mask) {
+            if (values[i] == null)
+                return -1;
+            if (keys[i] == key)
+                return i;
+        }
+    }
+
+    /**
+     * @param key to look up
+     * @return the value, or null if not present
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public V get(int key) {
+        final int i = find(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    /**
+     * @param key          to look up
+     * @param defaultValue returned if the key is not present
+     * @return the value, or defaultValue if not present
+     */
+    public V getOrDefault(int key, V defaultValue) {
+        final V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @param key to look up
+     * @return whether it is present
+     */
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Adds an entry or replaces its value.
+     *
+     * @param key   to add
+     * @param value to associate with the key, not null
+     * @return the previous value, or null if the key was added
+     * @throws IllegalStateException if the map is full
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public V put(int key, @NotNull V value) {
+        Objects.requireNonNull(value);
+        for (int i = OpenAddressing.index(key, shift); ; i = (i + 1) & mask) {
+            final Object v = values[i];
+            if (v == null) {
+                // grow before adding, so a table which can't grow never fills up
+                if (size >= resizeAt) {
+                    rehash(OpenAddressing.grow(keys.length, "map"));
+                    return put(key, value);
+                }
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return null;
+            }
+            if (keys[i] == key) {
+                values[i] = value;
+                return (V) v;
+            }
+        }
+    }
+
+    /**
+     * Returns the value for a key, adding one from the function if not present.
+     *
+     * @param key      to look up
+     * @param function to create a value for a key not present, which must not return null
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public V computeIfAbsent(int key, @NotNull IntFunction<? extends V> function) {
+        final int i = find(key);
+        if (i >= 0)
+            return (V) values[i];
+        final V value = function.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * @param key to remove
+     * @return the value removed, or null if not present
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public V remove(int key) {
+        final int i = find(key);
+        if (i < 0)
+            return null;
+        final V removed = (V) values[i];
+        shiftBack(i);
+        size--;
+        return removed;
+    }
+
+    private void shiftBack(int hole) {
+        for (int i = (hole + 1) & mask; ; i = (i + 1) & mask) {
+            final Object v = values[i];
+            if (v == null)
+                break;
+            // move it back if its home slot isn't between the hole and here
+            final int home = OpenAddressing.index(keys[i], shift);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = v;
+                hole = i;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldValues.length; j++) {
+            final Object v = oldValues[j];
+            if (v == null)
+                continue;
+            final int k = oldKeys[j];
+            int i = OpenAddressing.index(k, shift);
+            while (values[i] != null)
+                i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = v;
+        }
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether there are no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry, keeping the table.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * @param consumer called with each value and its key, in no particular order
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(@NotNull ObjIntConsumer<? super V> consumer) {
+        for (int i = 0; i < values.length; i++) {
+            final Object v = values[i];
+            if (v != null)
+                consumer.accept((V) v, keys[i]);
+        }
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        forEach((v, k) -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(k).append('=').append(v);
+        });
+        return sb.append('}').toString();
+    }
+}
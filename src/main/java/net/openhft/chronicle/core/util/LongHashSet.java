@@ -0,0 +1,221 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of primitive {@code long}s, without boxing. An open addressing table with linear probing, where removing
+ * shifts later entries in the same run back rather than leaving tombstones. Adding only allocates when the table has
+ * to grow.
+ * <p>
+ * This is not thread safe.
+ */
+public final class LongHashSet {
+    private long[] keys;
+    private int mask;
+    private int shift;
+    private int resizeAt;
+    private int size;
+    // 0 marks a free slot, so is held separately
+    private boolean hasZero;
+
+    /**
+     * Creates an empty set.
+     */
+    public LongHashSet() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty set.
+     *
+     * @param expectedSize the number of elements to hold without resizing
+     * @throws IllegalArgumentException if the size is negative or too large
+     */
+    public LongHashSet(int expectedSize) throws IllegalArgumentException {
+        allocate(OpenAddressing.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        shift = OpenAddressing.shiftFor(capacity);
+        resizeAt = OpenAddressing.resizeAt(capacity);
+    }
+
+    /**
+     * @param value to add
+     * @return true if it wasn't already present
+     * @throws IllegalStateException if the set is full
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero)
+                return false;
+            return hasZero = true;
+        }
+        for (int i = OpenAddressing.index(value, shift); ; i = (i + 1) & mask) {
+            final long k = keys[i];
+            if (k == value)
+                return false;
+            if (k == 0) {
+                // grow before adding, so a table which can't grow never fills up
+                if (size >= resizeAt) {
+                    rehash(OpenAddressing.grow(keys.length, "set"));
+                    return add(value);
+                }
+                keys[i] = value;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param value to look for
+     * @return whether it is present
+     */
+    public boolean contains(long value) {
+        if (value == 0)
+            return hasZero;
+        for (int i = OpenAddressing.index(value, shift); ; i = (i + 1) & mask) {
+            final long k = keys[i];
+            if (k == value)
+                return true;
+            if (k == 0)
+                return false;
+        }
+    }
+
+    /**
+     * @param value to remove
+     * @return true if it was present
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            final boolean had = hasZero;
+            hasZero = false;
+            return had;
+        }
+        for (int i = OpenAddressing.index(value, shift); ; i = (i + 1) & mask) {
+            final long k = keys[i];
+            if (k == value) {
+                shiftBack(i);
+                size--;
+                return true;
+            }
+            if (k == 0)
+                return false;
+        }
+    }
+
+    private void shiftBack(int hole) {
+        for (int i = (hole + 1) & mask; ; i = (i + 1) & mask) {
+            final long k = keys[i];
+            if (k == 0)
+                break;
+            // move it back if its home slot isn't between the hole and here
+            final int home = OpenAddressing.index(k, shift);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = k;
+                hole = i;
+            }
+        }
+        keys[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = keys;
+        allocate(capacity);
+        for (long k : oldKeys) {
+            if (k == 0)
+                continue;
+            int i = OpenAddressing.index(k, shift);
+            while (keys[i] != 0)
+                i = (i + 1) & mask;
+            keys[i] = k;
+        }
+    }
+
+    /**
+     * @return the number of elements
+     */
+    public int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    /**
+     * @return whether there are no elements
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes every element, keeping the table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZero = false;
+    }
+
+    /**
+     * @param consumer called with each element, in no particular order
+     */
+    public void forEach(@NotNull LongConsumer consumer) {
+        if (hasZero)
+            consumer.accept(0);
+        for (long k : keys)
+            if (k != 0)
+                consumer.accept(k);
+    }
+
+    /**
+     * @return the elements, in no particular order
+     */
+    @NotNull
+    public long[] toArray() {
+        final long[] array = new long[size()];
+        int n = 0;
+        if (hasZero)
+            n++;
+        for (long k : keys)
+            if (k != 0)
+                array[n++] = k;
+        return array;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        forEach(v -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(v);
+        });
+        return sb.append(']').toString();
+    }
+}
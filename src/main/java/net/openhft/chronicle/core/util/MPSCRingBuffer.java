@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.Memory;
+import net.openhft.chronicle.core.OS;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A multiple producer, single consumer {@link NativeRingBuffer}. Producers claim slots with a compare-and-swap of the
+ * claim position, and as they can publish out of order, each slot has an eight byte sequence before it which is set
+ * to its position plus one when published. The consumer reads slots up to the first one not yet published.
+ */
+public final class MPSCRingBuffer extends NativeRingBuffer {
+    private static final int TYPE = 2;
+    // a hint shared by producers, it only needs to be no later than the consumer's position
+    private volatile long cachedHead;
+
+    /**
+     * Uses memory already mapped or allocated, e.g. with {@link OS#map}, which must be zeroed the first time it is
+     * used. The memory isn't freed when this is closed.
+     *
+     * @param address  of at least {@link #sizeFor(int, int)} bytes
+     * @param capacity the number of slots, a power of 2
+     * @param slotSize the size of each slot
+     * @throws IllegalArgumentException if the sizes are invalid or don't match the memory's header
+     * @throws IllegalStateException    if whoever started initialising the memory didn't finish within 10 seconds,
+     *                                  e.g. the process died part way through
+     */
+    public MPSCRingBuffer(long address, int capacity, int slotSize) throws IllegalArgumentException, IllegalStateException {
+        this(address, 0, capacity, slotSize);
+    }
+
+    private MPSCRingBuffer(long address, long allocated, int capacity, int slotSize) throws IllegalArgumentException {
+        super(address, allocated, TYPE, capacity, slotSize, stride(slotSize));
+        cachedHead = consumerPosition;
+    }
+
+    /**
+     * Creates a ring buffer in memory from {@link Memory#allocate(long)}, freed when it is closed.
+     *
+     * @param capacity the number of slots, a power of 2
+     * @param slotSize the size of each slot
+     * @return the ring buffer
+     * @throws IllegalArgumentException if the sizes are invalid
+     */
+    public static MPSCRingBuffer allocate(int capacity, int slotSize) throws IllegalArgumentException {
+        final long size = sizeFor(capacity, slotSize);
+        final long address = MEMORY.allocate(size, MPSCRingBuffer.class);
+        MEMORY.setMemory(address, size, (byte) 0);
+        return new MPSCRingBuffer(address, size, capacity, slotSize);
+    }
+
+    /**
+     * @param capacity the number of slots, a power of 2
+     * @param slotSize the size of each slot
+     * @return the number of bytes needed for a ring buffer
+     * @throws IllegalArgumentException if the sizes are invalid
+     */
+    public static long sizeFor(int capacity, int slotSize) throws IllegalArgumentException {
+        checkSizes(capacity, slotSize);
+        return HEADER_SIZE + capacity * stride(slotSize);
+    }
+
+    private static long stride(int slotSize) {
+        // the sequence and the slot
+        return 8 + ((slotSize + 7L) & ~7L);
+    }
+
+    @Override
+    public long slotAddress(long position) {
+        return super.slotAddress(position) + 8;
+    }
+
+    private long sequenceAddress(long position) {
+        return super.slotAddress(position);
+    }
+
+    @Override
+    public long tryClaim(int count) {
+        assert SKIP_ASSERTIONS || (count > 0 && count <= capacity);
+        for (; ; ) {
+            final long position = MEMORY.readVolatileLong(address + CLAIM);
+            final long end = position + count;
+            if (end - cachedHead > capacity) {
+                cachedHead = MEMORY.readVolatileLong(address + HEAD);
+                if (end - cachedHead > capacity)
+                    return -1;
+            }
+            if (MEMORY.compareAndSwapLong(address + CLAIM, position, end))
+                return position;
+        }
+    }
+
+    @Override
+    public void publish(long position, int count) {
+        for (int i = 0; i < count; i++)
+            MEMORY.writeOrderedLong(sequenceAddress(position + i), position + i + 1);
+    }
+
+    @Override
+    public int readable(int max) {
+        final long position = consumerPosition;
+        int count = 0;
+        while (count < max && MEMORY.readVolatileLong(sequenceAddress(position + count)) == position + count + 1)
+            count++;
+        return count;
+    }
+
+    @Override
+    public long size() {
+        return MEMORY.readVolatileLong(address + CLAIM) - MEMORY.readVolatileLong(address + HEAD);
+    }
+}
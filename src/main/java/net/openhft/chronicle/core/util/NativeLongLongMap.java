@@ -0,0 +1,372 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.Maths;
+import net.openhft.chronicle.core.Memory;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A map of long keys to long values held entirely in native memory, either allocated or in a memory mapped file,
+ * so a very large map costs 16 bytes a slot and nothing for the garbage collector to scan.
+ * <p>
+ * The table is open addressing with linear probing. Removing an entry shifts any later entries in the same run back
+ * into the gap, so there are no tombstones and lookups never get slower as entries come and go. The capacity is
+ * fixed when the map is created, at most {@link #maxSize()} entries can be added, after which {@link #put(long, long)}
+ * throws an {@link IllegalStateException}. The key 0 is stored in the header rather than the table, as 0 marks a free
+ * slot.
+ * <p>
+ * All updates must be made by one thread at a time. Other threads, or processes sharing a mapped file, can use
+ * {@link #getConcurrent(long, long)} while that happens, which retries if an entry was moved by a remove while it
+ * was reading. Adding an entry writes the value before the key, and replacing a value is a single ordered write, so
+ * neither moves anything.
+ */
+public final class NativeLongLongMap extends AbstractCloseable {
+    /**
+     * The size of the header before the first slot.
+     */
+    public static final int HEADER_SIZE = 64;
+    private static final int MAGIC = 0x4d4c4c4e; // NLLM in little endian
+    private static final int INITIALISING = -1;
+    private static final long CAPACITY = 8;
+    private static final long SIZE = 16;
+    private static final long SEQUENCE = 24;
+    private static final long HAS_ZERO_KEY = 32;
+    private static final long ZERO_KEY_VALUE = 40;
+    private static final long INITIALISE_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(10);
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final int ENTRY_SIZE = 16;
+
+    private final long address;
+    private final long table;
+    private final long capacity;
+    private final long mask;
+    private final int shift;
+    private final long maxSize;
+    private final long allocated;
+
+    /**
+     * Uses memory already mapped or allocated, e.g. with {@link OS#map}, which must be zeroed the first time it is
+     * used. The capacity is the largest power of 2 which fits. The memory isn't freed when this is closed.
+     *
+     * @param address of the memory
+     * @param size    of the memory, e.g. from {@link #sizeFor(long)}
+     * @throws IllegalArgumentException if the memory is too small or was used for a map of a different capacity
+     * @throws IllegalStateException    if whoever started initialising the memory didn't finish within 10 seconds,
+     *                                  e.g. the process died part way through
+     */
+    public NativeLongLongMap(long address, long size) throws IllegalArgumentException, IllegalStateException {
+        this(address, size, 0);
+    }
+
+    private NativeLongLongMap(long address, long size, long allocated) throws IllegalArgumentException, IllegalStateException {
+        assert SKIP_ASSERTIONS || address != 0;
+        final long slots = (size - HEADER_SIZE) / ENTRY_SIZE;
+        if (slots < 2)
+            throw new IllegalArgumentException("size " + size + " is too small");
+        this.address = address;
+        this.table = address + HEADER_SIZE;
+        this.capacity = Long.highestOneBit(slots);
+        this.mask = capacity - 1;
+        this.shift = 64 - Long.numberOfTrailingZeros(capacity);
+        this.maxSize = capacity - Math.max(1, capacity / 8);
+        this.allocated = allocated;
+        singleThreadedCheckDisabled(true);
+        initialiseOrCheckHeader();
+    }
+
+    /**
+     * Creates a map in memory from {@link Memory#allocate(long)}, freed when it is closed.
+     *
+     * @param expectedEntries the number of entries to size the table for
+     * @return the map
+     */
+    public static NativeLongLongMap allocate(long expectedEntries) {
+        final long size = sizeFor(expectedEntries);
+        final long address = MEMORY.allocate(size, NativeLongLongMap.class);
+        MEMORY.setMemory(address, size, (byte) 0);
+        return new NativeLongLongMap(address, size, size);
+    }
+
+    /**
+     * @param expectedEntries the number of entries to size the table for
+     * @return the bytes of memory needed, which leaves the table at most 3/4 full
+     */
+    public static long sizeFor(long expectedEntries) {
+        final long capacity = Maths.nextPower2(expectedEntries + expectedEntries / 3 + 1, 16);
+        return HEADER_SIZE + capacity * ENTRY_SIZE;
+    }
+
+    /**
+     * The first to see the memory zeroed initialises it, anyone else waits for that, for a bounded time as it could be
+     * another process which died part way through, and checks it matches.
+     */
+    private void initialiseOrCheckHeader() throws IllegalArgumentException, IllegalStateException {
+        if (MEMORY.compareAndSwapInt(address, 0, INITIALISING)) {
+            MEMORY.writeLong(address + CAPACITY, capacity);
+            MEMORY.writeOrderedInt(address, MAGIC);
+            return;
+        }
+        int magic;
+        long start = 0;
+        while ((magic = MEMORY.readVolatileInt(address)) == INITIALISING) {
+            if (start == 0)
+                start = System.nanoTime();
+            else if (System.nanoTime() - start > INITIALISE_TIMEOUT_NS)
+                throw new IllegalStateException("Map still being initialised after " +
+                        TimeUnit.NANOSECONDS.toSeconds(INITIALISE_TIMEOUT_NS) + " seconds, the initialising process may have died");
+            Jvm.nanoPause();
+        }
+        if (magic != MAGIC)
+            throw new IllegalArgumentException("Not a map, magic was " + Integer.toHexString(magic));
+        final long capacity2 = MEMORY.readLong(address + CAPACITY);
+        if (capacity2 != capacity)
+            throw new IllegalArgumentException("Map was created with capacity " + capacity2 + ", expected " + capacity);
+    }
+
+    private long index(long key) {
+        return (Maths.agitate(key) * GOLDEN_RATIO) >>> shift;
+    }
+
+    private long keyAddress(long index) {
+        return table + index * ENTRY_SIZE;
+    }
+
+    /**
+     * Looks up a key. Only for the updating thread, or when there are no updates.
+     *
+     * @param key          to look up
+     * @param defaultValue returned if the key is not present
+     * @return the value, or defaultValue if not present
+     */
+    public long get(long key, long defaultValue) {
+        if (key == 0)
+            return MEMORY.readLong(address + HAS_ZERO_KEY) != 0 ? MEMORY.readLong(address + ZERO_KEY_VALUE) : defaultValue;
+        for (long i = index(key); ; i = (i + 1) & mask) {
+            final long keyAddress = keyAddress(i);
+            final long k = MEMORY.readLong(keyAddress);
+            if (k == key)
+                return MEMORY.readLong(keyAddress + 8);
+            if (k == 0)
+                return defaultValue;
+        }
+    }
+
+    /**
+     * Looks up a key while another thread or process may be updating the map.
+     *
+     * @param key          to look up
+     * @param defaultValue returned if the key is not present
+     * @return the value, or defaultValue if not present
+     */
+    public long getConcurrent(long key, long defaultValue) {
+        if (key == 0) {
+            // the value is written before the flag is set
+            return MEMORY.readVolatileLong(address + HAS_ZERO_KEY) != 0 ? MEMORY.readVolatileLong(address + ZERO_KEY_VALUE) : defaultValue;
+        }
+        for (; ; ) {
+            final long sequence = MEMORY.readVolatileLong(address + SEQUENCE);
+            if ((sequence & 1) != 0) {
+                // a remove is moving entries
+                Jvm.nanoPause();
+                continue;
+            }
+            long value = defaultValue;
+            for (long i = index(key); ; i = (i + 1) & mask) {
+                final long keyAddress = keyAddress(i);
+                final long k = MEMORY.readVolatileLong(keyAddress);
+                if (k == key) {
+                    value = MEMORY.readVolatileLong(keyAddress + 8);
+                    break;
+                }
+                if (k == 0)
+                    break;
+            }
+            if (MEMORY.readVolatileLong(address + SEQUENCE) == sequence)
+                return value;
+        }
+    }
+
+    /**
+     * @param key to look up
+     * @return whether the key is present, only for the updating thread, or when there are no updates
+     */
+    public boolean containsKey(long key) {
+        if (key == 0)
+            return MEMORY.readLong(address + HAS_ZERO_KEY) != 0;
+        for (long i = index(key); ; i = (i + 1) & mask) {
+            final long k = MEMORY.readLong(keyAddress(i));
+            if (k == key)
+                return true;
+            if (k == 0)
+                return false;
+        }
+    }
+
+    /**
+     * Adds an entry or replaces its value.
+     *
+     * @param key   to add
+     * @param value to associate with the key
+     * @return true if the key was added, false if its value was replaced
+     * @throws IllegalStateException if the key is new and the map already has {@link #maxSize()} entries
+     */
+    public boolean put(long key, long value) throws IllegalStateException {
+        if (key == 0) {
+            MEMORY.writeOrderedLong(address + ZERO_KEY_VALUE, value);
+            if (MEMORY.readLong(address + HAS_ZERO_KEY) != 0)
+                return false;
+            MEMORY.writeOrderedLong(address + HAS_ZERO_KEY, 1);
+            return true;
+        }
+        for (long i = index(key); ; i = (i + 1) & mask) {
+            final long keyAddress = keyAddress(i);
+            final long k = MEMORY.readLong(keyAddress);
+            if (k == key) {
+                MEMORY.writeOrderedLong(keyAddress + 8, value);
+                return false;
+            }
+            if (k == 0) {
+                final long size = MEMORY.readLong(address + SIZE);
+                if (size >= maxSize)
+                    throw new IllegalStateException("Map is full with " + size + " entries, capacity " + capacity);
+                // the value must be visible before the key
+                MEMORY.writeLong(keyAddress + 8, value);
+                MEMORY.writeOrderedLong(keyAddress, key);
+                MEMORY.writeOrderedLong(address + SIZE, size + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes an entry, moving back later entries in the same run of occupied slots to fill the gap.
+     *
+     * @param key to remove
+     * @return true if it was present
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (MEMORY.readLong(address + HAS_ZERO_KEY) == 0)
+                return false;
+            MEMORY.writeOrderedLong(address + HAS_ZERO_KEY, 0);
+            return true;
+        }
+        long hole = index(key);
+        for (; ; hole = (hole + 1) & mask) {
+            final long k = MEMORY.readLong(keyAddress(hole));
+            if (k == key)
+                break;
+            if (k == 0)
+                return false;
+        }
+        final long sequence = MEMORY.readLong(address + SEQUENCE);
+        // a full barrier so readers see the odd sequence before anything moves
+        MEMORY.writeVolatileLong(address + SEQUENCE, sequence + 1);
+        for (long i = (hole + 1) & mask; ; i = (i + 1) & mask) {
+            final long keyAddress = keyAddress(i);
+            final long k = MEMORY.readLong(keyAddress);
+            if (k == 0)
+                break;
+            // move it back if its home slot isn't between the hole and here
+            final long home = index(k);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                final long holeAddress = keyAddress(hole);
+                MEMORY.writeOrderedLong(holeAddress + 8, MEMORY.readLong(keyAddress + 8));
+                MEMORY.writeOrderedLong(holeAddress, k);
+                hole = i;
+            }
+        }
+        MEMORY.writeOrderedLong(keyAddress(hole), 0);
+        MEMORY.writeOrderedLong(address + SIZE, MEMORY.readLong(address + SIZE) - 1);
+        MEMORY.writeOrderedLong(address + SEQUENCE, sequence + 2);
+        return true;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        final long sequence = MEMORY.readLong(address + SEQUENCE);
+        MEMORY.writeVolatileLong(address + SEQUENCE, sequence + 1);
+        MEMORY.setMemory(table, capacity * ENTRY_SIZE, (byte) 0);
+        MEMORY.writeLong(address + HAS_ZERO_KEY, 0);
+        MEMORY.writeLong(address + SIZE, 0);
+        MEMORY.writeOrderedLong(address + SEQUENCE, sequence + 2);
+    }
+
+    /**
+     * Calls the consumer for every entry, in no particular order. Only for the updating thread, or when there are no
+     * updates.
+     *
+     * @param consumer of each key and value
+     */
+    public void forEach(EntryConsumer consumer) {
+        if (MEMORY.readLong(address + HAS_ZERO_KEY) != 0)
+            consumer.accept(0, MEMORY.readLong(address + ZERO_KEY_VALUE));
+        for (long i = 0; i < capacity; i++) {
+            final long keyAddress = keyAddress(i);
+            final long k = MEMORY.readLong(keyAddress);
+            if (k != 0)
+                consumer.accept(k, MEMORY.readLong(keyAddress + 8));
+        }
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public long size() {
+        return MEMORY.readVolatileLong(address + SIZE) + MEMORY.readVolatileLong(address + HAS_ZERO_KEY);
+    }
+
+    /**
+     * @return the number of slots in the table
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the most entries which can be added, leaving enough free slots for probes to stay short
+     */
+    public long maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    protected void performClose() {
+        if (allocated > 0)
+            MEMORY.freeMemory(address, allocated, NativeLongLongMap.class);
+    }
+
+    /**
+     * Accepts a key and its value.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.Maths;
+import net.openhft.chronicle.core.io.AbstractCloseable;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A bounded ring of fixed size slots held entirely in native memory, either allocated or in a memory mapped file, so
+ * it can be shared between processes as well as threads. Nothing is allocated per message.
+ * <p>
+ * The memory starts with a header of {@link #HEADER_SIZE} bytes, recording the type, capacity and slot size so a
+ * second process can check it agrees, and the positions of the producers and the consumer, each on its own pair of
+ * cache lines so they don't false share. The slots follow. Positions only ever increase, a position maps to slot
+ * {@code position & (capacity - 1)}.
+ * <p>
+ * A producer claims one or more slots with {@code tryClaim}, writes to them via {@link #slotAddress(long)} and makes
+ * them visible with {@code publish}. The single consumer asks how many slots are {@code readable}, reads them from
+ * {@link #readPosition()} onwards, and then {@link #release(int)}s them for reuse.
+ */
+public abstract class NativeRingBuffer extends AbstractCloseable {
+    /**
+     * The size of the header before the first slot.
+     */
+    public static final int HEADER_SIZE = 512;
+    static final long TAIL = 128;
+    static final long HEAD = 256;
+    static final long CLAIM = 384;
+    private static final int MAGIC = 0x474e4952; // RING in little endian
+    private static final int INITIALISING = -1;
+    private static final long TYPE = 4;
+    private static final long CAPACITY = 8;
+    private static final long SLOT_SIZE = 12;
+    private static final long INITIALISE_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(10);
+
+    protected final long address;
+    protected final int capacity;
+    protected final long mask;
+    protected final int slotSize;
+    protected final long stride;
+    // only used by the consumer
+    protected long consumerPosition;
+    private final long allocated;
+
+    NativeRingBuffer(long address, long allocated, int type, int capacity, int slotSize, long stride) throws IllegalArgumentException, IllegalStateException {
+        assert SKIP_ASSERTIONS || address != 0;
+        this.address = address;
+        this.allocated = allocated;
+        this.capacity = capacity;
+        this.mask = capacity - 1L;
+        this.slotSize = slotSize;
+        this.stride = stride;
+        singleThreadedCheckDisabled(true);
+        initialiseOrCheckHeader(type);
+        consumerPosition = MEMORY.readVolatileLong(address + HEAD);
+    }
+
+    static void checkSizes(int capacity, int slotSize) throws IllegalArgumentException {
+        if (capacity <= 0 || !Maths.isPowerOf2(capacity))
+            throw new IllegalArgumentException("capacity must be a positive power of 2, was " + capacity);
+        if (slotSize <= 0)
+            throw new IllegalArgumentException("slotSize must be positive, was " + slotSize);
+    }
+
+    /**
+     * The first to see the memory zeroed initialises it, anyone else waits for that, for a bounded time as it could be
+     * another process which died part way through, and checks it matches.
+     */
+    private void initialiseOrCheckHeader(int type) throws IllegalArgumentException, IllegalStateException {
+        if (MEMORY.compareAndSwapInt(address, 0, INITIALISING)) {
+            MEMORY.writeInt(address + TYPE, type);
+            MEMORY.writeInt(address + CAPACITY, capacity);
+            MEMORY.writeInt(address + SLOT_SIZE, slotSize);
+            MEMORY.writeOrderedInt(address, MAGIC);
+            return;
+        }
+        int magic;
+        long start = 0;
+        while ((magic = MEMORY.readVolatileInt(address)) == INITIALISING) {
+            if (start == 0)
+                start = System.nanoTime();
+            else if (System.nanoTime() - start > INITIALISE_TIMEOUT_NS)
+                throw new IllegalStateException("Ring buffer still being initialised after " +
+                        TimeUnit.NANOSECONDS.toSeconds(INITIALISE_TIMEOUT_NS) + " seconds, the initialising process may have died");
+            Jvm.nanoPause();
+        }
+        if (magic != MAGIC)
+            throw new IllegalArgumentException("Not a ring buffer, magic was " + Integer.toHexString(magic));
+        final int type2 = MEMORY.readInt(address + TYPE);
+        final int capacity2 = MEMORY.readInt(address + CAPACITY);
+        final int slotSize2 = MEMORY.readInt(address + SLOT_SIZE);
+        if (type2 != type || capacity2 != capacity || slotSize2 != slotSize)
+            throw new IllegalArgumentException("Ring buffer was created with type " + type2 + ", capacity " + capacity2 +
+                    " and slotSize " + slotSize2 + ", expected " + type + ", " + capacity + " and " + slotSize);
+    }
+
+    /**
+     * Claims {@code count} consecutive slots if there is room for all of them.
+     *
+     * @param count of slots, at most the capacity
+     * @return the position of the first slot claimed, or -1 if the ring is too full
+     */
+    public abstract long tryClaim(int count);
+
+    /**
+     * Makes slots claimed with {@link #tryClaim(int)} visible to the consumer.
+     *
+     * @param position the position returned by tryClaim
+     * @param count    the number of slots claimed
+     */
+    public abstract void publish(long position, int count);
+
+    /**
+     * Returns how many slots can be read from {@link #readPosition()} without waiting. Only called by the consumer.
+     *
+     * @param max the most the caller is interested in
+     * @return the number of slots which can be read, up to max
+     */
+    public abstract int readable(int max);
+
+    /**
+     * @return the position of the next slot to read, only used by the consumer
+     */
+    public long readPosition() {
+        return consumerPosition;
+    }
+
+    /**
+     * Frees slots read by the consumer for reuse, advancing {@link #readPosition()}.
+     *
+     * @param count of slots read, at most the number readable
+     */
+    public void release(int count) {
+        consumerPosition += count;
+        MEMORY.writeOrderedLong(address + HEAD, consumerPosition);
+    }
+
+    /**
+     * @param position of a slot claimed or readable
+     * @return the address of the slot's {@link #slotSize()} bytes
+     */
+    public long slotAddress(long position) {
+        return address + HEADER_SIZE + (position & mask) * stride;
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the usable size of each slot in bytes
+     */
+    public int slotSize() {
+        return slotSize;
+    }
+
+    /**
+     * @return the number of slots published or claimed and not yet released, which is only a snapshot
+     */
+    public abstract long size();
+
+    @Override
+    protected void performClose() {
+        if (allocated > 0)
+            MEMORY.freeMemory(address, allocated, getClass());
+    }
+}
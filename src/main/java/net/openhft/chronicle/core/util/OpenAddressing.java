@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.Maths;
+
+/**
+ * Sizing and hashing shared by the open addressing primitive collections.
+ */
+final class OpenAddressing {
+    static final int MIN_CAPACITY = 8;
+    static final int MAX_CAPACITY = 1 << 30;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    // Suppresses default constructor, ensuring non-instantiability.
+    private OpenAddressing() {
+    }
+
+    /**
+     * @param expectedSize the number of entries to hold without resizing
+     * @return a power of 2 capacity which keeps the table at most 3/4 full
+     */
+    static int capacityFor(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("expectedSize must not be negative, was " + expectedSize);
+        final long capacity = Maths.nextPower2(expectedSize + expectedSize / 3L + 1, MIN_CAPACITY);
+        if (capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("expectedSize " + expectedSize + " is too large");
+        return (int) capacity;
+    }
+
+    /**
+     * @param capacity of the table, a power of 2
+     * @param what     the kind of collection, for the error message
+     * @return double the capacity
+     * @throws IllegalStateException if the table is already at {@link #MAX_CAPACITY}
+     */
+    static int grow(int capacity, String what) throws IllegalStateException {
+        if (capacity >= MAX_CAPACITY)
+            throw new IllegalStateException(what + " is full, capacity " + capacity);
+        return capacity * 2;
+    }
+
+    /**
+     * @param capacity of the table, a power of 2
+     * @return the number of entries above which it should be resized
+     */
+    static int resizeAt(int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+
+    /**
+     * @param capacity of the table, a power of 2
+     * @return the shift to pass to {@link #index(long, int)}
+     */
+    static int shiftFor(int capacity) {
+        return 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * @param key   to hash
+     * @param shift 64 less the log2 of the capacity
+     * @return the home slot of the key, from the high bits of a multiplicative hash
+     */
+    static int index(long key, int shift) {
+        return (int) ((Maths.agitate(key) * GOLDEN_RATIO) >>> shift);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.Memory;
+import net.openhft.chronicle.core.OS;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A single producer, single consumer {@link NativeRingBuffer}. Slots are published in order, so publishing only
+ * has to move the producer's position, and each side only reads the other's position when the copy it cached
+ * doesn't show enough room or data.
+ */
+public final class SPSCRingBuffer extends NativeRingBuffer {
+    private static final int TYPE = 1;
+    // only used by the producer
+    private long producerPosition;
+    private long cachedHead;
+    // only used by the consumer
+    private long cachedTail;
+
+    /**
+     * Uses memory already mapped or allocated, e.g. with {@link OS#map}, which must be zeroed the first time it is
+     * used. The memory isn't freed when this is closed.
+     *
+     * @param address  of at least {@link #sizeFor(int, int)} bytes
+     * @param capacity the number of slots, a power of 2
+     * @param slotSize the size of each slot
+     * @throws IllegalArgumentException if the sizes are invalid or don't match the memory's header
+     * @throws IllegalStateException    if whoever started initialising the memory didn't finish within 10 seconds,
+     *                                  e.g. the process died part way through
+     */
+    public SPSCRingBuffer(long address, int capacity, int slotSize) throws IllegalArgumentException, IllegalStateException {
+        this(address, 0, capacity, slotSize);
+    }
+
+    private SPSCRingBuffer(long address, long allocated, int capacity, int slotSize) throws IllegalArgumentException {
+        super(address, allocated, TYPE, capacity, slotSize, stride(slotSize));
+        producerPosition = MEMORY.readVolatileLong(address + TAIL);
+        cachedHead = consumerPosition;
+        cachedTail = producerPosition;
+    }
+
+    /**
+     * Creates a ring buffer in memory from {@link Memory#allocate(long)}, freed when it is closed.
+     *
+     * @param capacity the number of slots, a power of 2
+     * @param slotSize the size of each slot
+     * @return the ring buffer
+     * @throws IllegalArgumentException if the sizes are invalid
+     */
+    public static SPSCRingBuffer allocate(int capacity, int slotSize) throws IllegalArgumentException {
+        final long size = sizeFor(capacity, slotSize);
+        final long address = MEMORY.allocate(size, SPSCRingBuffer.class);
+        MEMORY.setMemory(address, size, (byte) 0);
+        return new SPSCRingBuffer(address, size, capacity, slotSize);
+    }
+
+    /**
+     * @param capacity the number of slots, a power of 2
+     * @param slotSize the size of each slot
+     * @return the number of bytes needed for a ring buffer
+     * @throws IllegalArgumentException if the sizes are invalid
+     */
+    public static long sizeFor(int capacity, int slotSize) throws IllegalArgumentException {
+        checkSizes(capacity, slotSize);
+        return HEADER_SIZE + capacity * stride(slotSize);
+    }
+
+    private static long stride(int slotSize) {
+        return (slotSize + 7L) & ~7L;
+    }
+
+    @Override
+    public long tryClaim(int count) {
+        assert SKIP_ASSERTIONS || (count > 0 && count <= capacity);
+        final long position = producerPosition;
+        final long end = position + count;
+        if (end - cachedHead > capacity) {
+            cachedHead = MEMORY.readVolatileLong(address + HEAD);
+            if (end - cachedHead > capacity)
+                return -1;
+        }
+        producerPosition = end;
+        return position;
+    }
+
+    @Override
+    public void publish(long position, int count) {
+        MEMORY.writeOrderedLong(address + TAIL, position + count);
+    }
+
+    @Override
+    public int readable(int max) {
+        final long position = consumerPosition;
+        if (cachedTail - position < max)
+            cachedTail = MEMORY.readVolatileLong(address + TAIL);
+        return (int) Math.min(max, cachedTail - position);
+    }
+
+    @Override
+    public long size() {
+        return MEMORY.readVolatileLong(address + TAIL) - MEMORY.readVolatileLong(address + HEAD);
+    }
+}
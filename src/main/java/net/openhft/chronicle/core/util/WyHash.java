@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.Memory;
+import org.jetbrains.annotations.NotNull;
+import sun.misc.Unsafe;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.IS_LITTLE_ENDIAN;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A 64-bit and 128-bit hash of a range of bytes based on wyhash, reading eight bytes at a time directly
+ * from native memory, a byte[] or any object via {@link Memory}, so a key doesn't have to be copied
+ * into a String or byte[] to be hashed.
+ * <p>
+ * Bytes are read as little endian so a hash is the same on any platform for the same content.
+ * The 128-bit variant combines two 64-bit hashes with independent secrets and is intended
+ * for content addressing where 64 bits doesn't give a low enough chance of a collision.
+ */
+public final class WyHash {
+    private static final long[] SECRET = {
+            0x2d358dccaa6c78a5L, 0x8bb84b93962eacc9L, 0x4b33a62ed433d4a3L, 0x4d5a2da51de1aa47L};
+    private static final long[] SECRET2 = {
+            0xa0761d6478bd642fL, 0xe7037ed1a0b428dbL, 0x8ebc6af09c88c6e3L, 0x589965cc75374cc3L};
+
+    // Suppresses default constructor, ensuring non-instantiability.
+    private WyHash() {
+    }
+
+    /**
+     * Hashes a range of native memory.
+     *
+     * @param address of the first byte
+     * @param length  number of bytes
+     * @return the 64-bit hash
+     */
+    public static long hash64(long address, long length) {
+        assert SKIP_ASSERTIONS || address != 0;
+        return hash64(null, address, length, 0);
+    }
+
+    /**
+     * Hashes a range of a byte[].
+     *
+     * @param bytes  to hash
+     * @param offset index of the first byte
+     * @param length number of bytes
+     * @return the 64-bit hash
+     */
+    public static long hash64(@NotNull byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length)
+            throw new ArrayIndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + bytes.length);
+        return hash64(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) offset, length, 0);
+    }
+
+    /**
+     * Hashes a range of memory with a seed.
+     *
+     * @param object the object holding the bytes, or {@code null} if the offset is a native address
+     * @param offset the offset of the first byte in the object, or its address
+     * @param length number of bytes
+     * @param seed   to vary the hash
+     * @return the 64-bit hash
+     */
+    public static long hash64(Object object, long offset, long length, long seed) {
+        assert SKIP_ASSERTIONS || length >= 0;
+        return hash(object, offset, length, seed, SECRET);
+    }
+
+    /**
+     * Hashes a range of native memory to 128 bits.
+     *
+     * @param address of the first byte
+     * @param length  number of bytes
+     * @param hash    to write the result to, the low 64 bits in element 0 and the high 64 bits in element 1
+     */
+    public static void hash128(long address, long length, @NotNull long[] hash) {
+        assert SKIP_ASSERTIONS || address != 0;
+        hash128(null, address, length, 0, hash);
+    }
+
+    /**
+     * Hashes a range of a byte[] to 128 bits.
+     *
+     * @param bytes  to hash
+     * @param offset index of the first byte
+     * @param length number of bytes
+     * @param hash   to write the result to, the low 64 bits in element 0 and the high 64 bits in element 1
+     */
+    public static void hash128(@NotNull byte[] bytes, int offset, int length, @NotNull long[] hash) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length)
+            throw new ArrayIndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + bytes.length);
+        hash128(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET + (long) offset, length, 0, hash);
+    }
+
+    /**
+     * Hashes a range of memory with a seed to 128 bits.
+     *
+     * @param object the object holding the bytes, or {@code null} if the offset is a native address
+     * @param offset the offset of the first byte in the object, or its address
+     * @param length number of bytes
+     * @param seed   to vary the hash
+     * @param hash   to write the result to, the low 64 bits in element 0 and the high 64 bits in element 1
+     */
+    public static void hash128(Object object, long offset, long length, long seed, @NotNull long[] hash) {
+        assert SKIP_ASSERTIONS || length >= 0;
+        hash[0] = hash(object, offset, length, seed, SECRET);
+        hash[1] = hash(object, offset, length, seed, SECRET2);
+    }
+
+    private static long hash(Object object, long offset, long length, long seed, long[] secret) {
+        final long s0 = secret[0];
+        final long s1 = secret[1];
+        seed ^= mix(seed ^ s0, s1);
+        long a;
+        long b;
+        if (length <= 16) {
+            if (length >= 4) {
+                // two possibly overlapping pairs of ints cover 4 to 16 bytes
+                final long quarter = (length >>> 3) << 2;
+                a = (read32(object, offset) << 32) | read32(object, offset + quarter);
+                b = (read32(object, offset + length - 4) << 32) | read32(object, offset + length - 4 - quarter);
+            } else if (length > 0) {
+                a = ((MEMORY.readByte(object, offset) & 0xFFL) << 16)
+                        | ((MEMORY.readByte(object, offset + (length >>> 1)) & 0xFFL) << 8)
+                        | (MEMORY.readByte(object, offset + length - 1) & 0xFFL);
+                b = 0;
+            } else {
+                a = b = 0;
+            }
+        } else {
+            long i = length;
+            long p = offset;
+            if (i > 48) {
+                final long s2 = secret[2];
+                final long s3 = secret[3];
+                long see1 = seed;
+                long see2 = seed;
+                do {
+                    seed = mix(read64(object, p) ^ s1, read64(object, p + 8) ^ seed);
+                    see1 = mix(read64(object, p + 16) ^ s2, read64(object, p + 24) ^ see1);
+                    see2 = mix(read64(object, p + 32) ^ s3, read64(object, p + 40) ^ see2);
+                    p += 48;
+                    i -= 48;
+                } while (i > 48);
+                seed ^= see1 ^ see2;
+            }
+            while (i > 16) {
+                seed = mix(read64(object, p) ^ s1, read64(object, p + 8) ^ seed);
+                i -= 16;
+                p += 16;
+            }
+            a = read64(object, p + i - 16);
+            b = read64(object, p + i - 8);
+        }
+        a ^= s1;
+        b ^= seed;
+        final long lo = a * b;
+        final long hi = multiplyHighUnsigned(a, b);
+        return mix(lo ^ s0 ^ length, hi ^ s1);
+    }
+
+    private static long read64(Object object, long offset) {
+        final long l = MEMORY.readLong(object, offset);
+        return IS_LITTLE_ENDIAN ? l : Long.reverseBytes(l);
+    }
+
+    private static long read32(Object object, long offset) {
+        final int i = MEMORY.readInt(object, offset);
+        return (IS_LITTLE_ENDIAN ? i : Integer.reverseBytes(i)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Folds the 128-bit product of two longs into 64 bits.
+     */
+    static long mix(long a, long b) {
+        return (a * b) ^ multiplyHighUnsigned(a, b);
+    }
+
+    /**
+     * @return the high 64 bits of the unsigned 128-bit product, as Math.multiplyHigh is not available in Java 8
+     */
+    static long multiplyHighUnsigned(long x, long y) {
+        final long x0 = x & 0xFFFFFFFFL;
+        final long x1 = x >>> 32;
+        final long y0 = y & 0xFFFFFFFFL;
+        final long y1 = y >>> 32;
+        final long t = x1 * y0 + ((x0 * y0) >>> 32);
+        final long w1 = x0 * y1 + (t & 0xFFFFFFFFL);
+        return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.io.AbstractCloseable;
+import net.openhft.chronicle.core.io.ClosedIllegalStateException;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * The common part of values held at a native memory address, either memory the caller manages, e.g. a counter in a
+ * memory mapped file shared between processes, or memory allocated for the value alone and freed on close.
+ * <p>
+ * When values written by different threads are next to each other, each write invalidates the cache line holding
+ * the others, so allocated values can be padded to take a whole cache line, {@link #CACHE_LINE_PADDING}, or a pair
+ * of cache lines, {@link #TWO_CACHE_LINE_PADDING}, as some CPUs prefetch the adjacent line too. For values at a
+ * caller's address, {@link #paddedSize(int, int)} gives the spacing to lay them out with.
+ * <p>
+ * Values at a caller's address hold no resources so aren't tracked as needing to be closed, though once closed they
+ * can't be used.
+ */
+public abstract class AbstractNativeValue extends AbstractCloseable {
+    /**
+     * The value takes only its own size.
+     */
+    public static final int NO_PADDING = 0;
+    /**
+     * The value has a 64 byte cache line to itself.
+     */
+    public static final int CACHE_LINE_PADDING = 64;
+    /**
+     * The value has an aligned pair of 64 byte cache lines to itself.
+     */
+    public static final int TWO_CACHE_LINE_PADDING = 128;
+
+    protected long address;
+    private final long allocatedAddress;
+    private final long allocatedSize;
+
+    /**
+     * @param address of the value, which must be aligned to its size, and isn't freed on close
+     */
+    protected AbstractNativeValue(long address) {
+        this(address, 0, 0);
+    }
+
+    AbstractNativeValue(long address, long allocatedAddress, long allocatedSize) {
+        assert SKIP_ASSERTIONS || address != 0;
+        this.address = address;
+        this.allocatedAddress = allocatedAddress;
+        this.allocatedSize = allocatedSize;
+        singleThreadedCheckDisabled(true);
+        if (allocatedSize == 0)
+            unmonitor();
+    }
+
+    /**
+     * @param valueSize the size of the value
+     * @param padding   one of {@link #NO_PADDING}, {@link #CACHE_LINE_PADDING} or {@link #TWO_CACHE_LINE_PADDING}
+     * @return the bytes taken by each value when laid out with the padding, a multiple of the padding
+     * @throws IllegalArgumentException if the padding is not one of the above
+     */
+    public static int paddedSize(int valueSize, int padding) throws IllegalArgumentException {
+        switch (padding) {
+            case NO_PADDING:
+                return valueSize;
+            case CACHE_LINE_PADDING:
+            case TWO_CACHE_LINE_PADDING:
+                return (valueSize + padding - 1) & -padding;
+            default:
+                throw new IllegalArgumentException("padding must be 0, 64 or 128, was " + padding);
+        }
+    }
+
+    /**
+     * Allocates memory for one value, aligned to the padding, and zeroes it.
+     *
+     * @return {allocated address, aligned address, allocated size}
+     */
+    static long[] allocatePadded(int valueSize, int padding) throws IllegalArgumentException {
+        final int size = paddedSize(valueSize, padding);
+        // enough to align the start to the padding
+        final long allocatedSize = (long) size + padding;
+        final long allocated = MEMORY.allocate(allocatedSize, AbstractNativeValue.class);
+        MEMORY.setMemory(allocated, allocatedSize, (byte) 0);
+        final long aligned = padding == NO_PADDING ? allocated : (allocated + padding - 1) & -padding;
+        return new long[]{allocated, aligned, allocatedSize};
+    }
+
+    /**
+     * Moves a value at a caller's address to another, e.g. an element of a native array.
+     *
+     * @param address of the value, which must be aligned to its size
+     * @throws IllegalArgumentException    if the value owns the memory it was allocated with
+     * @throws ClosedIllegalStateException if closed
+     */
+    void bind(long address) throws IllegalArgumentException, ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        if (allocatedSize > 0)
+            throw new IllegalArgumentException("Can't rebind a value which owns its memory");
+        assert SKIP_ASSERTIONS || address != 0;
+        this.address = address;
+    }
+
+    /**
+     * @return the address of the value
+     */
+    public long address() {
+        return address;
+    }
+
+    /**
+     * Frees the memory if it was allocated for this value.
+     */
+    @Override
+    protected void performClose() {
+        if (allocatedSize > 0)
+            MEMORY.freeMemory(allocatedAddress, allocatedSize, AbstractNativeValue.class);
+    }
+}
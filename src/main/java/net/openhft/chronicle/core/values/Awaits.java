@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.threads.BackoffStrategy;
+
+/**
+ * The wait loops behind the await methods of {@link LongValue} and {@link IntValue}, kept out of the interfaces so
+ * each condition doesn't need its own copy.
+ */
+final class Awaits {
+    static final int EQUAL = 0;
+    static final int AT_LEAST = 1;
+    static final int CHANGED = 2;
+
+    // Suppresses default constructor, ensuring non-instantiability.
+    private Awaits() {
+    }
+
+    static boolean await(LongValue value, int condition, long target, long timeoutNanos, BackoffStrategy backoff) {
+        if (matches(value.getVolatileValue(), condition, target))
+            return true;
+        final long start = System.nanoTime();
+        for (int iteration = 0; ; ) {
+            final long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+            if (remainingNanos <= 0)
+                return false;
+            backoff.idle(iteration, remainingNanos);
+            if (iteration < Integer.MAX_VALUE)
+                iteration++;
+            if (matches(value.getVolatileValue(), condition, target))
+                return true;
+        }
+    }
+
+    static boolean await(IntValue value, int condition, int target, long timeoutNanos, BackoffStrategy backoff) {
+        if (matches(value.getVolatileValue(), condition, target))
+            return true;
+        final long start = System.nanoTime();
+        for (int iteration = 0; ; ) {
+            final long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+            if (remainingNanos <= 0)
+                return false;
+            backoff.idle(iteration, remainingNanos);
+            if (iteration < Integer.MAX_VALUE)
+                iteration++;
+            if (matches(value.getVolatileValue(), condition, target))
+                return true;
+        }
+    }
+
+    private static boolean matches(long value, int condition, long target) {
+        switch (condition) {
+            case EQUAL:
+                return value == target;
+            case AT_LEAST:
+                return value >= target;
+            default:
+                return value != target;
+        }
+    }
+}
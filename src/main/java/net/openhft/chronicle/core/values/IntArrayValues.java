@@ -183,4 +183,148 @@ public interface IntArrayValues extends Closeable {
      * @throws ThreadingIllegalStateException If this resource was accessed by multiple threads in an unsafe way
      */
     void reset() throws IllegalStateException;
+
+    /**
+     * Copies a range of values to an array. Implementations backed by memory copy the range in bulk.
+     *
+     * @param index  of the first value to copy
+     * @param values to copy to
+     * @param offset in values of the first value copied
+     * @param length the number of values
+     * @throws ClosedIllegalStateException    If the resource has been released or closed.
+     * @throws ThreadingIllegalStateException If this resource was accessed by multiple threads in an unsafe way
+     * @throws BufferUnderflowException       If the range is out of bounds
+     */
+    default void getValuesAt(long index, int[] values, int offset, int length) throws IllegalStateException, BufferUnderflowException {
+        for (int i = 0; i < length; i++)
+            values[offset + i] = getValueAt(index + i);
+    }
+
+    /**
+     * Copies values from an array to a range. Implementations backed by memory copy the range in bulk.
+     *
+     * @param index  of the first value to set
+     * @param values to copy from
+     * @param offset in values of the first value to copy
+     * @param length the number of values
+     * @throws ClosedIllegalStateException    If the resource has been released or closed.
+     * @throws ThreadingIllegalStateException If this resource was accessed by multiple threads in an unsafe way
+     * @throws BufferOverflowException        If the range is out of bounds
+     */
+    default void setValuesAt(long index, int[] values, int offset, int length) throws IllegalStateException, BufferOverflowException {
+        for (int i = 0; i < length; i++)
+            setValueAt(index + i, values[offset + i]);
+    }
+
+    /**
+     * Copies values from an array to a range, the last with ordered semantics, so a reader which sees the last value
+     * sees all of them. This publishes a batch with one barrier rather than one per value.
+     *
+     * @param index  of the first value to set
+     * @param values to copy from
+     * @param offset in values of the first value to copy
+     * @param length the number of values
+     * @throws ClosedIllegalStateException    If the resource has been released or closed.
+     * @throws ThreadingIllegalStateException If this resource was accessed by multiple threads in an unsafe way
+     * @throws BufferOverflowException        If the range is out of bounds
+     */
+    default void setOrderedValuesAt(long index, int[] values, int offset, int length) throws IllegalStateException, BufferOverflowException {
+        if (length <= 0)
+            return;
+        setValuesAt(index, values, offset, length - 1);
+        setOrderedValueAt(index + length - 1, values[offset + length - 1]);
+    }
+
+    /**
+     * Sets every value in a range.
+     *
+     * @param fromIndex the first index, inclusive
+     * @param toIndex   the last index, exclusive
+     * @param value     to set
+     * @throws ClosedIllegalStateException    If the resource has been released or closed.
+     * @throws ThreadingIllegalStateException If this resource was accessed by multiple threads in an unsafe way
+     * @throws BufferOverflowException        If the range is out of bounds
+     */
+    default void fill(long fromIndex, long toIndex, int value) throws IllegalStateException, BufferOverflowException {
+        for (long i = fromIndex; i < toIndex; i++)
+            setValueAt(i, value);
+    }
+
+    /**
+     * Sums a range of values.
+     *
+     * @param fromIndex the first index, inclusive
+     * @param toIndex   the last index, exclusive
+     * @return the sum, 0 if the range is empty
+     * @throws ClosedIllegalStateException    If the resource has been released or closed.
+     * @throws ThreadingIllegalStateException If this resource was accessed by multiple threads in an unsafe way
+     * @throws BufferUnderflowException       If the range is out of bounds
+     */
+    default long sum(long fromIndex, long toIndex) throws IllegalStateException, BufferUnderflowException {
+        long sum = 0;
+        for (long i = fromIndex; i < toIndex; i++)
+            sum += getValueAt(i);
+        return sum;
+    }
+
+    /**
+     * Finds the smallest of a range of values.
+     *
+     * @param fromIndex the first index, inclusive
+     * @param toIndex   the last index, exclusive
+     * @return the smallest value, Integer.MAX_VALUE if the range is empty
+     * @throws ClosedIllegalStateException    If the resource has been released or closed.
+     * @throws ThreadingIllegalStateException If this resource was accessed by multiple threads in an unsafe way
+     * @throws BufferUnderflowException       If the range is out of bounds
+     */
+    default int min(long fromIndex, long toIndex) throws IllegalStateException, BufferUnderflowException {
+        int min = Integer.MAX_VALUE;
+        for (long i = fromIndex; i < toIndex; i++)
+            min = Math.min(min, getValueAt(i));
+        return min;
+    }
+
+    /**
+     * Finds the largest of a range of values.
+     *
+     * @param fromIndex the first index, inclusive
+     * @param toIndex   the last index, exclusive
+     * @return the largest value, Integer.MIN_VALUE if the range is empty
+     * @throws ClosedIllegalStateException    If the resource has been released or closed.
+     * @throws ThreadingIllegalStateException If this resource was accessed by multiple threads in an unsafe way
+     * @throws BufferUnderflowException       If the range is out of bounds
+     */
+    default int max(long fromIndex, long toIndex) throws IllegalStateException, BufferUnderflowException {
+        int max = Integer.MIN_VALUE;
+        for (long i = fromIndex; i < toIndex; i++)
+            max = Math.max(max, getValueAt(i));
+        return max;
+    }
+
+    /**
+     * Searches a range of values sorted in ascending order, as {@link java.util.Arrays#binarySearch(int[], int, int, int)} does.
+     *
+     * @param fromIndex the first index, inclusive
+     * @param toIndex   the last index, exclusive
+     * @param key       to search for
+     * @return the index of the key, or {@code -(insertion point) - 1} if it is not present
+     * @throws ClosedIllegalStateException    If the resource has been released or closed.
+     * @throws ThreadingIllegalStateException If this resource was accessed by multiple threads in an unsafe way
+     * @throws BufferUnderflowException       If the range is out of bounds
+     */
+    default long binarySearch(long fromIndex, long toIndex, int key) throws IllegalStateException, BufferUnderflowException {
+        long low = fromIndex;
+        long high = toIndex - 1;
+        while (low <= high) {
+            final long mid = (low + high) >>> 1;
+            final int midValue = getValueAt(mid);
+            if (midValue < key)
+                low = mid + 1;
+            else if (midValue > key)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
 }
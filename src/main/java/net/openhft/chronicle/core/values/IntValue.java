@@ -21,9 +21,12 @@ package net.openhft.chronicle.core.values;
 import net.openhft.chronicle.core.io.Closeable;
 import net.openhft.chronicle.core.io.ClosedIllegalStateException;
 import net.openhft.chronicle.core.io.ThreadingIllegalStateException;
+import net.openhft.chronicle.core.threads.BackoffStrategy;
+import net.openhft.chronicle.core.threads.InterruptedRuntimeException;
 
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents a reference to a 32-bit integer value, providing various methods
@@ -130,6 +133,99 @@ public interface IntValue extends Closeable {
      */
     boolean compareAndSwapValue(int expected, int value) throws IllegalStateException, BufferOverflowException;
 
+    /**
+     * Waits until the value equals an expected value, idling with {@link BackoffStrategy#spinYieldPark()}.
+     *
+     * @param expected the value to wait for
+     * @param timeout  the longest to wait
+     * @param unit     of the timeout
+     * @return true if the value was seen, false if the timeout passed first
+     * @throws ClosedIllegalStateException If the resource has been released or closed.
+     * @throws InterruptedRuntimeException If the thread was interrupted while waiting
+     * @throws BufferUnderflowException    If there's not enough data to read
+     */
+    default boolean awaitValue(int expected, long timeout, TimeUnit unit) throws IllegalStateException, BufferUnderflowException {
+        return awaitValue(expected, timeout, unit, BackoffStrategy.spinYieldPark());
+    }
+
+    /**
+     * Waits until the value equals an expected value, e.g. one written by another thread or process.
+     *
+     * @param expected the value to wait for
+     * @param timeout  the longest to wait
+     * @param unit     of the timeout
+     * @param backoff  how to idle between checks
+     * @return true if the value was seen, false if the timeout passed first
+     * @throws ClosedIllegalStateException If the resource has been released or closed.
+     * @throws InterruptedRuntimeException If the thread was interrupted while waiting
+     * @throws BufferUnderflowException    If there's not enough data to read
+     */
+    default boolean awaitValue(int expected, long timeout, TimeUnit unit, BackoffStrategy backoff) throws IllegalStateException, BufferUnderflowException {
+        return Awaits.await(this, Awaits.EQUAL, expected, unit.toNanos(timeout), backoff);
+    }
+
+    /**
+     * Waits until the value is at least a minimum, idling with {@link BackoffStrategy#spinYieldPark()}.
+     *
+     * @param min     the smallest value to wait for
+     * @param timeout the longest to wait
+     * @param unit    of the timeout
+     * @return true if such a value was seen, false if the timeout passed first
+     * @throws ClosedIllegalStateException If the resource has been released or closed.
+     * @throws InterruptedRuntimeException If the thread was interrupted while waiting
+     * @throws BufferUnderflowException    If there's not enough data to read
+     */
+    default boolean awaitAtLeast(int min, long timeout, TimeUnit unit) throws IllegalStateException, BufferUnderflowException {
+        return awaitAtLeast(min, timeout, unit, BackoffStrategy.spinYieldPark());
+    }
+
+    /**
+     * Waits until the value is at least a minimum, e.g. a sequence reaching a position.
+     *
+     * @param min     the smallest value to wait for
+     * @param timeout the longest to wait
+     * @param unit    of the timeout
+     * @param backoff how to idle between checks
+     * @return true if such a value was seen, false if the timeout passed first
+     * @throws ClosedIllegalStateException If the resource has been released or closed.
+     * @throws InterruptedRuntimeException If the thread was interrupted while waiting
+     * @throws BufferUnderflowException    If there's not enough data to read
+     */
+    default boolean awaitAtLeast(int min, long timeout, TimeUnit unit, BackoffStrategy backoff) throws IllegalStateException, BufferUnderflowException {
+        return Awaits.await(this, Awaits.AT_LEAST, min, unit.toNanos(timeout), backoff);
+    }
+
+    /**
+     * Waits until the value is different from one previously read, idling with {@link BackoffStrategy#spinYieldPark()}.
+     *
+     * @param from    the value previously read
+     * @param timeout the longest to wait
+     * @param unit    of the timeout
+     * @return true if the value changed, false if the timeout passed first
+     * @throws ClosedIllegalStateException If the resource has been released or closed.
+     * @throws InterruptedRuntimeException If the thread was interrupted while waiting
+     * @throws BufferUnderflowException    If there's not enough data to read
+     */
+    default boolean awaitChange(int from, long timeout, TimeUnit unit) throws IllegalStateException, BufferUnderflowException {
+        return awaitChange(from, timeout, unit, BackoffStrategy.spinYieldPark());
+    }
+
+    /**
+     * Waits until the value is different from one previously read.
+     *
+     * @param from    the value previously read
+     * @param timeout the longest to wait
+     * @param unit    of the timeout
+     * @param backoff how to idle between checks
+     * @return true if the value changed, false if the timeout passed first
+     * @throws ClosedIllegalStateException If the resource has been released or closed.
+     * @throws InterruptedRuntimeException If the thread was interrupted while waiting
+     * @throws BufferUnderflowException    If there's not enough data to read
+     */
+    default boolean awaitChange(int from, long timeout, TimeUnit unit, BackoffStrategy backoff) throws IllegalStateException, BufferUnderflowException {
+        return Awaits.await(this, Awaits.CHANGED, from, unit.toNanos(timeout), backoff);
+    }
+
     @Override
     default boolean isClosed() {
         return false;
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.io.ClosedIllegalStateException;
+import sun.misc.Unsafe;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A {@link IntArrayValues} held in native memory, either allocated or in a memory mapped file shared between processes.
+ * <p>
+ * The memory holds the capacity and the number used, as longs, followed by the values. Range operations work on the
+ * memory directly, copying with a single memory copy and scanning without a call or bounds check per element.
+ */
+public final class NativeIntArrayValues extends AbstractNativeValue implements IntArrayValues {
+    private static final long CAPACITY = 0;
+    private static final long USED = 8;
+    private static final long VALUES = 16;
+    // the most values copied at once, as copyMemory takes an int length in bytes
+    private static final int MAX_COPY = Integer.MAX_VALUE / 4;
+
+    private final long capacity;
+
+    /**
+     * Uses memory the caller manages, recording the capacity if the memory is zeroed, otherwise checking it matches.
+     *
+     * @param address  of the memory, 8 byte aligned, of {@link #sizeFor(long)} bytes
+     * @param capacity the number of values
+     * @throws IllegalArgumentException if the capacity is not positive or doesn't match that recorded
+     */
+    public NativeIntArrayValues(long address, long capacity) throws IllegalArgumentException {
+        super(address);
+        this.capacity = checkCapacity(capacity);
+        if (!MEMORY.compareAndSwapLong(address + CAPACITY, 0, capacity)) {
+            final long capacity2 = MEMORY.readVolatileLong(address + CAPACITY);
+            if (capacity2 != capacity)
+                throw new IllegalArgumentException("Array was created with capacity " + capacity2 + ", expected " + capacity);
+        }
+    }
+
+    private NativeIntArrayValues(long[] allocation, long capacity) {
+        super(allocation[1], allocation[0], allocation[2]);
+        this.capacity = capacity;
+        MEMORY.writeLong(address + CAPACITY, capacity);
+    }
+
+    /**
+     * Allocates an array of values initially 0, freed on close.
+     *
+     * @param capacity the number of values
+     * @return the array
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public static NativeIntArrayValues allocate(long capacity) throws IllegalArgumentException {
+        return new NativeIntArrayValues(allocatePadded(Math.toIntExact(sizeFor(capacity)), CACHE_LINE_PADDING), capacity);
+    }
+
+    /**
+     * @param capacity the number of values
+     * @return the size of memory needed, including the header
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public static long sizeFor(long capacity) throws IllegalArgumentException {
+        return VALUES + checkCapacity(capacity) * 4;
+    }
+
+    private static long checkCapacity(long capacity) throws IllegalArgumentException {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+        return capacity;
+    }
+
+    /**
+     * @param index of a value
+     * @return the address of the value
+     */
+    public long addressOf(long index) {
+        return address + VALUES + index * 4;
+    }
+
+    private long readAddress(long index) throws ClosedIllegalStateException, BufferUnderflowException {
+        throwExceptionIfClosed();
+        if (index < 0 || index >= capacity)
+            throw new BufferUnderflowException();
+        return address + VALUES + index * 4;
+    }
+
+    private long writeAddress(long index) throws ClosedIllegalStateException, BufferOverflowException {
+        throwExceptionIfClosed();
+        if (index < 0 || index >= capacity)
+            throw new BufferOverflowException();
+        return address + VALUES + index * 4;
+    }
+
+    private void checkReadRange(long fromIndex, long toIndex) throws ClosedIllegalStateException, BufferUnderflowException {
+        throwExceptionIfClosed();
+        if (fromIndex < 0 || toIndex > capacity || fromIndex > toIndex)
+            throw new BufferUnderflowException();
+    }
+
+    private void checkWriteRange(long fromIndex, long toIndex) throws ClosedIllegalStateException, BufferOverflowException {
+        throwExceptionIfClosed();
+        if (fromIndex < 0 || toIndex > capacity || fromIndex > toIndex)
+            throw new BufferOverflowException();
+    }
+
+    private static void checkArray(int[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > values.length - length)
+            throw new ArrayIndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + values.length);
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getUsed() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readVolatileLong(address + USED);
+    }
+
+    /**
+     * Sets the number of used elements in the array.
+     *
+     * @param used the number of used elements in the array
+     * @throws ClosedIllegalStateException If the resource has been released or closed.
+     */
+    public void setUsed(long used) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeOrderedLong(address + USED, used);
+    }
+
+    @Override
+    public void setMaxUsed(long usedAtLeast) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        for (; ; ) {
+            final long used = MEMORY.readVolatileLong(address + USED);
+            if (used >= usedAtLeast || MEMORY.compareAndSwapLong(address + USED, used, usedAtLeast))
+                return;
+        }
+    }
+
+    @Override
+    public int getValueAt(long index) throws ClosedIllegalStateException, BufferUnderflowException {
+        return MEMORY.readInt(readAddress(index));
+    }
+
+    @Override
+    public void setValueAt(long index, int value) throws ClosedIllegalStateException, BufferOverflowException {
+        MEMORY.writeInt(writeAddress(index), value);
+    }
+
+    @Override
+    public int getVolatileValueAt(long index) throws ClosedIllegalStateException, BufferUnderflowException {
+        return MEMORY.readVolatileInt(readAddress(index));
+    }
+
+    @Override
+    public void setOrderedValueAt(long index, int value) throws ClosedIllegalStateException, BufferOverflowException {
+        MEMORY.writeOrderedInt(writeAddress(index), value);
+    }
+
+    @Override
+    public boolean compareAndSet(long index, int expected, int value) throws ClosedIllegalStateException, BufferOverflowException {
+        return MEMORY.compareAndSwapInt(writeAddress(index), expected, value);
+    }
+
+    /**
+     * Moves a {@link NativeIntValue} at a caller's address onto the element at an index.
+     *
+     * @throws IllegalArgumentException if the value isn't a NativeIntValue, or owns the memory it was allocated with
+     */
+    @Override
+    public void bindValueAt(long index, IntValue value) throws ClosedIllegalStateException, BufferOverflowException, IllegalArgumentException {
+        final long elementAddress = writeAddress(index);
+        if (!(value instanceof NativeIntValue))
+            throw new IllegalArgumentException("Can only bind a NativeIntValue, not " + (value == null ? null : value.getClass().getName()));
+        ((NativeIntValue) value).bind(elementAddress);
+    }
+
+    @Override
+    public long sizeInBytes(long capacity) {
+        return sizeFor(capacity);
+    }
+
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    @Override
+    public void reset() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.setMemory(address + VALUES, capacity * 4, (byte) 0);
+        MEMORY.writeOrderedLong(address + USED, 0);
+    }
+
+    @Override
+    public void getValuesAt(long index, int[] values, int offset, int length) throws ClosedIllegalStateException, BufferUnderflowException {
+        checkReadRange(index, index + length);
+        checkArray(values, offset, length);
+        for (int done = 0; done < length; ) {
+            final int count = Math.min(length - done, MAX_COPY);
+            MEMORY.copyMemory(addressOf(index + done), values, Unsafe.ARRAY_INT_BASE_OFFSET + (long) (offset + done) * 4, count * 4);
+            done += count;
+        }
+    }
+
+    @Override
+    public void setValuesAt(long index, int[] values, int offset, int length) throws ClosedIllegalStateException, BufferOverflowException {
+        checkWriteRange(index, index + length);
+        checkArray(values, offset, length);
+        for (int done = 0; done < length; ) {
+            final int count = Math.min(length - done, MAX_COPY);
+            MEMORY.copyMemory(values, Unsafe.ARRAY_INT_BASE_OFFSET + (long) (offset + done) * 4, addressOf(index + done), count * 4);
+            done += count;
+        }
+    }
+
+    @Override
+    public void fill(long fromIndex, long toIndex, int value) throws ClosedIllegalStateException, BufferOverflowException {
+        checkWriteRange(fromIndex, toIndex);
+        if (value == 0 || value == -1) {
+            MEMORY.setMemory(addressOf(fromIndex), (toIndex - fromIndex) * 4, (byte) value);
+            return;
+        }
+        final long end = addressOf(toIndex);
+        for (long a = addressOf(fromIndex); a < end; a += 4)
+            MEMORY.writeInt(a, value);
+    }
+
+    @Override
+    public long sum(long fromIndex, long toIndex) throws ClosedIllegalStateException, BufferUnderflowException {
+        checkReadRange(fromIndex, toIndex);
+        long sum = 0;
+        final long end = addressOf(toIndex);
+        for (long a = addressOf(fromIndex); a < end; a += 4)
+            sum += MEMORY.readInt(a);
+        return sum;
+    }
+
+    @Override
+    public int min(long fromIndex, long toIndex) throws ClosedIllegalStateException, BufferUnderflowException {
+        checkReadRange(fromIndex, toIndex);
+        int min = Integer.MAX_VALUE;
+        final long end = addressOf(toIndex);
+        for (long a = addressOf(fromIndex); a < end; a += 4)
+            min = Math.min(min, MEMORY.readInt(a));
+        return min;
+    }
+
+    @Override
+    public int max(long fromIndex, long toIndex) throws ClosedIllegalStateException, BufferUnderflowException {
+        checkReadRange(fromIndex, toIndex);
+        int max = Integer.MIN_VALUE;
+        final long end = addressOf(toIndex);
+        for (long a = addressOf(fromIndex); a < end; a += 4)
+            max = Math.max(max, MEMORY.readInt(a));
+        return max;
+    }
+
+    @Override
+    public long binarySearch(long fromIndex, long toIndex, int key) throws ClosedIllegalStateException, BufferUnderflowException {
+        checkReadRange(fromIndex, toIndex);
+        long low = fromIndex;
+        long high = toIndex - 1;
+        while (low <= high) {
+            final long mid = (low + high) >>> 1;
+            final int midValue = MEMORY.readInt(addressOf(mid));
+            if (midValue < key)
+                low = mid + 1;
+            else if (midValue > key)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    @Override
+    public String toString() {
+        return isClosed() ? "closed" : "NativeIntArrayValues{capacity=" + capacity + ", used=" + getUsed() + '}';
+    }
+}
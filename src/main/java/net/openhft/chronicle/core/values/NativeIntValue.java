@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.io.ClosedIllegalStateException;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * An {@link IntValue} held at a native memory address, using ordered, volatile and compare-and-swap operations
+ * directly on that memory, so it can be shared between threads, or between processes via a memory mapped file.
+ */
+public final class NativeIntValue extends AbstractNativeValue implements IntValue {
+
+    /**
+     * Uses an int at an address the caller manages.
+     *
+     * @param address of the value, 4 byte aligned
+     */
+    public NativeIntValue(long address) {
+        super(address);
+    }
+
+    private NativeIntValue(long[] allocation) {
+        super(allocation[1], allocation[0], allocation[2]);
+    }
+
+    /**
+     * Allocates an int initially 0, freed on close.
+     *
+     * @param padding one of {@link #NO_PADDING}, {@link #CACHE_LINE_PADDING} or {@link #TWO_CACHE_LINE_PADDING}
+     * @return the value
+     * @throws IllegalArgumentException if the padding is not one of the above
+     */
+    public static NativeIntValue allocate(int padding) throws IllegalArgumentException {
+        return new NativeIntValue(allocatePadded(4, padding));
+    }
+
+    @Override
+    public int getValue() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readInt(address);
+    }
+
+    @Override
+    public void setValue(int value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeInt(address, value);
+    }
+
+    @Override
+    public int getVolatileValue() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readVolatileInt(address);
+    }
+
+    @Override
+    public void setOrderedValue(int value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeOrderedInt(address, value);
+    }
+
+    @Override
+    public int addValue(int delta) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        final int value = MEMORY.readInt(address) + delta;
+        MEMORY.writeInt(address, value);
+        return value;
+    }
+
+    @Override
+    public int addAtomicValue(int delta) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.addInt(address, delta);
+    }
+
+    @Override
+    public boolean compareAndSwapValue(int expected, int value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.compareAndSwapInt(address, expected, value);
+    }
+
+    @Override
+    public String toString() {
+        return isClosed() ? "closed" : Integer.toString(getVolatileValue());
+    }
+}
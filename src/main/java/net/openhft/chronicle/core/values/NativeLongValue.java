@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.io.ClosedIllegalStateException;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A {@link LongValue} held at a native memory address, using ordered, volatile and compare-and-swap operations
+ * directly on that memory, so it can be shared between threads, or between processes via a memory mapped file.
+ */
+public final class NativeLongValue extends AbstractNativeValue implements LongValue {
+
+    /**
+     * Uses a long at an address the caller manages.
+     *
+     * @param address of the value, 8 byte aligned
+     */
+    public NativeLongValue(long address) {
+        super(address);
+    }
+
+    private NativeLongValue(long[] allocation) {
+        super(allocation[1], allocation[0], allocation[2]);
+    }
+
+    /**
+     * Allocates a long initially 0, freed on close.
+     *
+     * @param padding one of {@link #NO_PADDING}, {@link #CACHE_LINE_PADDING} or {@link #TWO_CACHE_LINE_PADDING}
+     * @return the value
+     * @throws IllegalArgumentException if the padding is not one of the above
+     */
+    public static NativeLongValue allocate(int padding) throws IllegalArgumentException {
+        return new NativeLongValue(allocatePadded(8, padding));
+    }
+
+    @Override
+    public long getValue() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readLong(address);
+    }
+
+    @Override
+    public void setValue(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeLong(address, value);
+    }
+
+    @Override
+    public long getVolatileValue() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readVolatileLong(address);
+    }
+
+    @Override
+    public void setVolatileValue(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeVolatileLong(address, value);
+    }
+
+    @Override
+    public void setOrderedValue(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeOrderedLong(address, value);
+    }
+
+    @Override
+    public long addValue(long delta) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        final long value = MEMORY.readLong(address) + delta;
+        MEMORY.writeLong(address, value);
+        return value;
+    }
+
+    @Override
+    public long addAtomicValue(long delta) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.addLong(address, delta);
+    }
+
+    @Override
+    public boolean compareAndSwapValue(long expected, long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.compareAndSwapLong(address, expected, value);
+    }
+
+    @Override
+    public String toString() {
+        return isClosed() ? "closed" : Long.toString(getVolatileValue());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.io.ClosedIllegalStateException;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A {@link TwoLongValue} held at a native memory address, the first value followed by the second, using ordered,
+ * volatile and compare-and-swap operations directly on that memory, so it can be shared between threads, or between
+ * processes via a memory mapped file. The two share a cache line, padding only separates the pair from others.
+ */
+public final class NativeTwoLongValue extends AbstractNativeValue implements TwoLongValue {
+
+    /**
+     * Uses a pair of longs at an address the caller manages.
+     *
+     * @param address of the first value, 16 byte aligned
+     */
+    public NativeTwoLongValue(long address) {
+        super(address);
+    }
+
+    private NativeTwoLongValue(long[] allocation) {
+        super(allocation[1], allocation[0], allocation[2]);
+    }
+
+    /**
+     * Allocates a pair of longs initially 0, freed on close.
+     *
+     * @param padding one of {@link #NO_PADDING}, {@link #CACHE_LINE_PADDING} or {@link #TWO_CACHE_LINE_PADDING}
+     * @return the value
+     * @throws IllegalArgumentException if the padding is not one of the above
+     */
+    public static NativeTwoLongValue allocate(int padding) throws IllegalArgumentException {
+        return new NativeTwoLongValue(allocatePadded(16, padding));
+    }
+
+    @Override
+    public long getValue() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readLong(address);
+    }
+
+    @Override
+    public void setValue(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeLong(address, value);
+    }
+
+    @Override
+    public long getVolatileValue() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readVolatileLong(address);
+    }
+
+    @Override
+    public void setVolatileValue(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeVolatileLong(address, value);
+    }
+
+    @Override
+    public void setOrderedValue(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeOrderedLong(address, value);
+    }
+
+    @Override
+    public long addValue(long delta) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        final long value = MEMORY.readLong(address) + delta;
+        MEMORY.writeLong(address, value);
+        return value;
+    }
+
+    @Override
+    public long addAtomicValue(long delta) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.addLong(address, delta);
+    }
+
+    @Override
+    public boolean compareAndSwapValue(long expected, long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.compareAndSwapLong(address, expected, value);
+    }
+
+    @Override
+    public long getValue2() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readLong(address + 8);
+    }
+
+    @Override
+    public void setValue2(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeLong(address + 8, value);
+    }
+
+    @Override
+    public long getVolatileValue2() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readVolatileLong(address + 8);
+    }
+
+    @Override
+    public void setVolatileValue2(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeVolatileLong(address + 8, value);
+    }
+
+    @Override
+    public void setOrderedValue2(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        MEMORY.writeOrderedLong(address + 8, value);
+    }
+
+    @Override
+    public long addValue2(long delta) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        final long value = MEMORY.readLong(address + 8) + delta;
+        MEMORY.writeLong(address + 8, value);
+        return value;
+    }
+
+    @Override
+    public long addAtomicValue2(long delta) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.addLong(address + 8, delta);
+    }
+
+    @Override
+    public boolean compareAndSwapValue2(long expected, long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.compareAndSwapLong(address + 8, expected, value);
+    }
+
+    @Override
+    public String toString() {
+        return isClosed() ? "closed" : getVolatileValue() + ", " + getVolatileValue2();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.Jvm;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A {@link LongValue} on the heap, for counters written by different threads in the same process, padded with
+ * 128 bytes either side so it never shares a cache line, or an adjacent line which might be prefetched, with another
+ * object's fields.
+ * <p>
+ * The padding is in superclasses and a subclass, as the JVM may reorder fields within a class but lays out the
+ * fields of a superclass before those of its subclasses.
+ */
+public final class PaddedLongValue extends PaddedLongValueRightPadding implements LongValue {
+
+    /**
+     * Creates a value initially 0.
+     */
+    public PaddedLongValue() {
+    }
+
+    /**
+     * @param value the initial value
+     */
+    public PaddedLongValue(long value) {
+        this.value = value;
+    }
+
+    @Override
+    public long getValue() {
+        return value;
+    }
+
+    @Override
+    public void setValue(long value) {
+        this.value = value;
+    }
+
+    @Override
+    public long getVolatileValue() {
+        return MEMORY.readVolatileLong(this, VALUE_OFFSET);
+    }
+
+    @Override
+    public void setVolatileValue(long value) {
+        MEMORY.writeVolatileLong(this, VALUE_OFFSET, value);
+    }
+
+    @Override
+    public void setOrderedValue(long value) {
+        MEMORY.writeOrderedLong(this, VALUE_OFFSET, value);
+    }
+
+    @Override
+    public long addValue(long delta) {
+        return value += delta;
+    }
+
+    @Override
+    public long addAtomicValue(long delta) {
+        return MEMORY.addLong(this, VALUE_OFFSET, delta);
+    }
+
+    @Override
+    public boolean compareAndSwapValue(long expected, long value) {
+        return MEMORY.compareAndSwapLong(this, VALUE_OFFSET, expected, value);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(getVolatileValue());
+    }
+}
+
+@SuppressWarnings("unused")
+abstract class PaddedLongValueLeftPadding {
+    long p01, p02, p03, p04, p05, p06, p07, p08, p09, p10, p11, p12, p13, p14, p15, p16;
+}
+
+abstract class PaddedLongValueValue extends PaddedLongValueLeftPadding {
+    static final long VALUE_OFFSET = Jvm.fieldOffset(PaddedLongValueValue.class, "value");
+    long value;
+}
+
+@SuppressWarnings("unused")
+abstract class PaddedLongValueRightPadding extends PaddedLongValueValue {
+    long p17, p18, p19, p20, p21, p22, p23, p24, p25, p26, p27, p28, p29, p30, p31, p32;
+}
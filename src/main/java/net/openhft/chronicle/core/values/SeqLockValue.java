@@ -0,0 +1,241 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.io.ClosedIllegalStateException;
+
+import static net.openhft.chronicle.assertions.AssertUtil.SKIP_ASSERTIONS;
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A group of long fields in native memory, guarded by a sequence lock so readers always see the fields from the same
+ * update, e.g. a (sequence, timestamp) or (bid, ask) pair, even between processes via a memory mapped file.
+ * <p>
+ * The memory is a version followed by the fields. A writer takes the lock by moving the version from even to odd,
+ * writes the fields, and releases it by moving the version on to the next even number. Writers exclude each other,
+ * readers take no lock, they copy the fields and retry if the version was odd or changed while they did so. Readers
+ * never hold up writers and copy into an array the caller provides, so nothing is allocated.
+ * <p>
+ * As with any lock held in shared memory, if a writer dies between {@link #startWrite()} and {@link #endWrite()} the
+ * value stays locked.
+ */
+public final class SeqLockValue extends AbstractNativeValue {
+    private static final long VERSION = 0;
+    private static final long FIELDS = 8;
+
+    private final int fields;
+
+    /**
+     * Uses memory the caller manages, initially zeroed, so every field is 0.
+     *
+     * @param address of the memory, 8 byte aligned, of {@link #sizeFor(int)} bytes
+     * @param fields  the number of long fields
+     * @throws IllegalArgumentException if fields is not positive
+     */
+    public SeqLockValue(long address, int fields) throws IllegalArgumentException {
+        super(address);
+        this.fields = checkFields(fields);
+    }
+
+    private SeqLockValue(long[] allocation, int fields) {
+        super(allocation[1], allocation[0], allocation[2]);
+        this.fields = fields;
+    }
+
+    /**
+     * Allocates fields initially 0, freed on close.
+     *
+     * @param fields  the number of long fields
+     * @param padding one of {@link #NO_PADDING}, {@link #CACHE_LINE_PADDING} or {@link #TWO_CACHE_LINE_PADDING}
+     * @return the value
+     * @throws IllegalArgumentException if fields is not positive or the padding is not one of the above
+     */
+    public static SeqLockValue allocate(int fields, int padding) throws IllegalArgumentException {
+        return new SeqLockValue(allocatePadded(Math.toIntExact(sizeFor(fields)), padding), fields);
+    }
+
+    /**
+     * @param fields the number of long fields
+     * @return the size of memory needed, including the version
+     * @throws IllegalArgumentException if fields is not positive
+     */
+    public static long sizeFor(int fields) throws IllegalArgumentException {
+        return FIELDS + 8L * checkFields(fields);
+    }
+
+    private static int checkFields(int fields) throws IllegalArgumentException {
+        if (fields <= 0)
+            throw new IllegalArgumentException("fields must be positive, was " + fields);
+        return fields;
+    }
+
+    /**
+     * @return the number of fields
+     */
+    public int fields() {
+        return fields;
+    }
+
+    /**
+     * @return the version, even when unlocked, which increases by two with every write
+     * @throws ClosedIllegalStateException if closed
+     */
+    public long version() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        return MEMORY.readVolatileLong(address + VERSION);
+    }
+
+    /**
+     * Takes the write lock, waiting for any other writer to finish. The fields are then set with
+     * {@link #setField(int, long)} and made visible by {@link #endWrite()}.
+     *
+     * @return the odd version while locked
+     * @throws ClosedIllegalStateException if closed
+     */
+    public long startWrite() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        for (; ; ) {
+            final long version = MEMORY.readVolatileLong(address + VERSION);
+            if ((version & 1) == 0 && MEMORY.compareAndSwapLong(address + VERSION, version, version + 1))
+                return version + 1;
+            Jvm.nanoPause();
+        }
+    }
+
+    /**
+     * Sets a field, only while holding the write lock.
+     *
+     * @param index of the field
+     * @param value to set
+     */
+    public void setField(int index, long value) {
+        assert SKIP_ASSERTIONS || (MEMORY.readLong(address + VERSION) & 1) != 0;
+        MEMORY.writeLong(fieldAddress(index), value);
+    }
+
+    /**
+     * Reads a field without checking for a concurrent write, for the writer holding the lock or when a single field is
+     * all that is needed.
+     *
+     * @param index of the field
+     * @return the value
+     */
+    public long getField(int index) {
+        return MEMORY.readVolatileLong(fieldAddress(index));
+    }
+
+    /**
+     * Releases the write lock, making the fields set visible together.
+     */
+    public void endWrite() {
+        final long version = MEMORY.readLong(address + VERSION);
+        assert SKIP_ASSERTIONS || (version & 1) != 0;
+        MEMORY.writeOrderedLong(address + VERSION, version + 1);
+    }
+
+    /**
+     * Writes all the fields as one update.
+     *
+     * @param values of the fields, at least {@link #fields()} long
+     * @throws IllegalArgumentException   if there are too few values
+     * @throws ClosedIllegalStateException if closed
+     */
+    public void write(long[] values) throws IllegalArgumentException, ClosedIllegalStateException {
+        // checked before locking so a short array can't leave the lock held
+        if (values.length < fields)
+            throw new IllegalArgumentException("Expected " + fields + " values, was " + values.length);
+        startWrite();
+        for (int i = 0; i < fields; i++)
+            MEMORY.writeLong(address + FIELDS + 8L * i, values[i]);
+        endWrite();
+    }
+
+    /**
+     * Writes the first two fields as one update.
+     *
+     * @param value0 of field 0
+     * @param value1 of field 1
+     * @throws IllegalArgumentException   if there are fewer than two fields
+     * @throws ClosedIllegalStateException if closed
+     */
+    public void write(long value0, long value1) throws IllegalArgumentException, ClosedIllegalStateException {
+        // checked before locking so it can't leave the lock held
+        if (fields < 2)
+            throw new IllegalArgumentException("Expected 2 fields, has " + fields);
+        startWrite();
+        MEMORY.writeLong(address + FIELDS, value0);
+        MEMORY.writeLong(address + FIELDS + 8, value1);
+        endWrite();
+    }
+
+    /**
+     * Copies the fields from a single update, without waiting.
+     *
+     * @param values to copy the fields to, at least {@link #fields()} long
+     * @return the even version copied, or -1 if a write was in progress and values should be ignored
+     * @throws ClosedIllegalStateException if closed
+     */
+    public long tryRead(long[] values) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        final long version = MEMORY.readVolatileLong(address + VERSION);
+        if ((version & 1) != 0)
+            return -1;
+        for (int i = 0; i < fields; i++)
+            values[i] = MEMORY.readLong(address + FIELDS + 8L * i);
+        // the fields must be read before the version is checked again
+        MEMORY.loadFence();
+        return MEMORY.readLong(address + VERSION) == version ? version : -1;
+    }
+
+    /**
+     * Copies the fields from a single update, retrying while they are being written.
+     *
+     * @param values to copy the fields to, at least {@link #fields()} long
+     * @return the even version copied
+     * @throws ClosedIllegalStateException if closed
+     */
+    public long read(long[] values) throws ClosedIllegalStateException {
+        long version;
+        while ((version = tryRead(values)) < 0)
+            Jvm.nanoPause();
+        return version;
+    }
+
+    private long fieldAddress(int index) {
+        assert SKIP_ASSERTIONS || (index >= 0 && index < fields);
+        return address + FIELDS + 8L * index;
+    }
+
+    @Override
+    public String toString() {
+        if (isClosed())
+            return "closed";
+        final long[] values = new long[fields];
+        final long version = read(values);
+        final StringBuilder sb = new StringBuilder().append("version: ").append(version).append(", fields: [");
+        for (int i = 0; i < fields; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(values[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
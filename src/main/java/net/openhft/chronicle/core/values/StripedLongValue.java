@@ -0,0 +1,314 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.Maths;
+import net.openhft.chronicle.core.io.ClosedIllegalStateException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+
+/**
+ * A counter spread over a number of stripes, like {@link java.util.concurrent.atomic.LongAdder}, so threads updating it
+ * concurrently mostly touch different cache lines rather than all contending for one. Each thread updates the stripe its
+ * random probe picks, moving to another stripe when a compare-and-swap fails, reading the total sums every stripe, so it suits statistics which are updated much more often than read.
+ * <p>
+ * As well as a sum, each stripe keeps the largest and smallest value offered to {@link #updateMax(long)} and
+ * {@link #updateMin(long)}, which only needs a compare-and-swap when the stripe's bound changes.
+ * <p>
+ * Everything is held in native memory, a header giving the number of stripes followed by a padded cell per stripe, so it
+ * can be placed in a memory mapped file where another process, e.g. a monitor, can bind to it with the same stripes and
+ * padding and read the totals.
+ */
+public final class StripedLongValue extends AbstractNativeValue {
+    private static final int MAGIC = 0x45505453; // STPE in little endian
+    private static final int INITIALISING = -1;
+    private static final long STRIPES = 4;
+    private static final long CELL_SIZE = 8;
+    private static final long SUM = 0;
+    private static final long MAX = 8;
+    private static final long MIN = 16;
+    private static final int CELL_VALUES_SIZE = 24;
+    private static final long INITIALISE_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(10);
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{ThreadLocalRandom.current().nextInt() | 1});
+
+    private final int stripes;
+    private final int mask;
+    private final int cellSize;
+
+    /**
+     * Binds to memory the caller manages, initially zeroed, which the first to bind initialises.
+     *
+     * @param address of the memory, aligned to the padding, of {@link #sizeFor(int, int)} bytes
+     * @param stripes a power of 2, e.g. the number of CPUs expected to update it concurrently
+     * @param padding {@link #CACHE_LINE_PADDING} or {@link #TWO_CACHE_LINE_PADDING}
+     * @throws IllegalArgumentException if the stripes or padding are invalid, or don't match those the memory was
+     *                                  initialised with
+     * @throws IllegalStateException    if whoever started initialising the memory didn't finish within 10 seconds,
+     *                                  e.g. the process died part way through
+     */
+    public StripedLongValue(long address, int stripes, int padding) throws IllegalArgumentException, IllegalStateException {
+        super(address);
+        this.stripes = stripes;
+        this.mask = stripes - 1;
+        this.cellSize = cellSize(stripes, padding);
+        initialiseOrCheckHeader();
+    }
+
+    private StripedLongValue(long[] allocation, int stripes, int padding) {
+        super(allocation[1], allocation[0], allocation[2]);
+        this.stripes = stripes;
+        this.mask = stripes - 1;
+        this.cellSize = cellSize(stripes, padding);
+        initialiseOrCheckHeader();
+    }
+
+    /**
+     * Allocates a counter initially 0, freed on close.
+     *
+     * @param stripes a power of 2, e.g. the number of CPUs expected to update it concurrently
+     * @param padding {@link #CACHE_LINE_PADDING} or {@link #TWO_CACHE_LINE_PADDING}
+     * @return the counter
+     * @throws IllegalArgumentException if the stripes or padding are invalid
+     */
+    public static StripedLongValue allocate(int stripes, int padding) throws IllegalArgumentException {
+        return new StripedLongValue(allocatePadded(Math.toIntExact(sizeFor(stripes, padding)), padding), stripes, padding);
+    }
+
+    /**
+     * @param stripes a power of 2
+     * @param padding {@link #CACHE_LINE_PADDING} or {@link #TWO_CACHE_LINE_PADDING}
+     * @return the size of memory needed, including the header
+     * @throws IllegalArgumentException if the stripes or padding are invalid
+     */
+    public static long sizeFor(int stripes, int padding) throws IllegalArgumentException {
+        return (stripes + 1L) * cellSize(stripes, padding);
+    }
+
+    private static int cellSize(int stripes, int padding) throws IllegalArgumentException {
+        if (stripes <= 0 || !Maths.isPowerOf2(stripes))
+            throw new IllegalArgumentException("stripes must be a positive power of 2, was " + stripes);
+        if (padding == NO_PADDING)
+            throw new IllegalArgumentException("stripes must be padded");
+        return paddedSize(CELL_VALUES_SIZE, padding);
+    }
+
+    /**
+     * The first to see the memory zeroed initialises it, anyone else waits for that, for a bounded time as it could be
+     * another process which died part way through, and checks it matches.
+     */
+    private void initialiseOrCheckHeader() throws IllegalArgumentException, IllegalStateException {
+        if (MEMORY.compareAndSwapInt(address, 0, INITIALISING)) {
+            MEMORY.writeInt(address + STRIPES, stripes);
+            MEMORY.writeInt(address + CELL_SIZE, cellSize);
+            for (int i = 0; i < stripes; i++) {
+                final long cell = cell(i);
+                MEMORY.writeLong(cell + MAX, Long.MIN_VALUE);
+                MEMORY.writeLong(cell + MIN, Long.MAX_VALUE);
+            }
+            MEMORY.writeOrderedInt(address, MAGIC);
+            return;
+        }
+        int magic;
+        long start = 0;
+        while ((magic = MEMORY.readVolatileInt(address)) == INITIALISING) {
+            if (start == 0)
+                start = System.nanoTime();
+            else if (System.nanoTime() - start > INITIALISE_TIMEOUT_NS)
+                throw new IllegalStateException("Striped value still being initialised after " +
+                        TimeUnit.NANOSECONDS.toSeconds(INITIALISE_TIMEOUT_NS) + " seconds, the initialising process may have died");
+            Jvm.nanoPause();
+        }
+        if (magic != MAGIC)
+            throw new IllegalArgumentException("Not a striped value, magic was " + Integer.toHexString(magic));
+        final int stripes2 = MEMORY.readInt(address + STRIPES);
+        final int cellSize2 = MEMORY.readInt(address + CELL_SIZE);
+        if (stripes2 != stripes || cellSize2 != cellSize)
+            throw new IllegalArgumentException("Striped value was created with " + stripes2 + " stripes of " + cellSize2 +
+                    " bytes, expected " + stripes + " of " + cellSize);
+    }
+
+    private long cell(int stripe) {
+        return address + (stripe + 1L) * cellSize;
+    }
+
+    /**
+     * Moves the calling thread's probe to another stripe after a failed compare-and-swap, as LongAdder does.
+     */
+    private static void advanceProbe(int[] probe) {
+        int p = probe[0];
+        p ^= p << 13;
+        p ^= p >>> 17;
+        p ^= p << 5;
+        probe[0] = p;
+    }
+
+    /**
+     * @return the number of stripes
+     */
+    public int stripes() {
+        return stripes;
+    }
+
+    /**
+     * Adds to the calling thread's stripe.
+     *
+     * @param delta to add
+     * @throws ClosedIllegalStateException if closed
+     */
+    public void add(long delta) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        final int[] probe = PROBE.get();
+        for (; ; ) {
+            final long cell = cell(probe[0] & mask) + SUM;
+            final long sum = MEMORY.readVolatileLong(cell);
+            if (MEMORY.compareAndSwapLong(cell, sum, sum + delta))
+                return;
+            advanceProbe(probe);
+        }
+    }
+
+    /**
+     * Adds one to the calling thread's stripe.
+     *
+     * @throws ClosedIllegalStateException if closed
+     */
+    public void increment() throws ClosedIllegalStateException {
+        add(1);
+    }
+
+    /**
+     * Sums the stripes. Updates made concurrently may or may not be included.
+     *
+     * @return the total
+     * @throws ClosedIllegalStateException if closed
+     */
+    public long sum() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        long sum = 0;
+        for (int i = 0; i < stripes; i++)
+            sum += MEMORY.readVolatileLong(cell(i) + SUM);
+        return sum;
+    }
+
+    /**
+     * Sums the stripes and takes what was read off each, so an update made concurrently is counted either in this
+     * total or the next one, never lost.
+     *
+     * @return the total since the last reset
+     * @throws ClosedIllegalStateException if closed
+     */
+    public long sumThenReset() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            final long cell = cell(i) + SUM;
+            final long value = MEMORY.readVolatileLong(cell);
+            if (value != 0) {
+                MEMORY.addLong(cell, -value);
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Raises the calling thread's stripe maximum if the value is larger.
+     *
+     * @param value to compare
+     * @throws ClosedIllegalStateException if closed
+     */
+    public void updateMax(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        final int[] probe = PROBE.get();
+        for (; ; ) {
+            final long cell = cell(probe[0] & mask) + MAX;
+            final long max = MEMORY.readVolatileLong(cell);
+            if (value <= max || MEMORY.compareAndSwapLong(cell, max, value))
+                return;
+            advanceProbe(probe);
+        }
+    }
+
+    /**
+     * Lowers the calling thread's stripe minimum if the value is smaller.
+     *
+     * @param value to compare
+     * @throws ClosedIllegalStateException if closed
+     */
+    public void updateMin(long value) throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        final int[] probe = PROBE.get();
+        for (; ; ) {
+            final long cell = cell(probe[0] & mask) + MIN;
+            final long min = MEMORY.readVolatileLong(cell);
+            if (value >= min || MEMORY.compareAndSwapLong(cell, min, value))
+                return;
+            advanceProbe(probe);
+        }
+    }
+
+    /**
+     * @return the largest value passed to {@link #updateMax(long)}, or Long.MIN_VALUE if none
+     * @throws ClosedIllegalStateException if closed
+     */
+    public long max() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < stripes; i++)
+            max = Math.max(max, MEMORY.readVolatileLong(cell(i) + MAX));
+        return max;
+    }
+
+    /**
+     * @return the smallest value passed to {@link #updateMin(long)}, or Long.MAX_VALUE if none
+     * @throws ClosedIllegalStateException if closed
+     */
+    public long min() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < stripes; i++)
+            min = Math.min(min, MEMORY.readVolatileLong(cell(i) + MIN));
+        return min;
+    }
+
+    /**
+     * Resets the sum, maximum and minimum. Updates made concurrently may be lost.
+     *
+     * @throws ClosedIllegalStateException if closed
+     */
+    public void reset() throws ClosedIllegalStateException {
+        throwExceptionIfClosed();
+        for (int i = 0; i < stripes; i++) {
+            final long cell = cell(i);
+            MEMORY.writeOrderedLong(cell + SUM, 0);
+            MEMORY.writeOrderedLong(cell + MAX, Long.MIN_VALUE);
+            MEMORY.writeOrderedLong(cell + MIN, Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isClosed() ? "closed" : Long.toString(sum());
+    }
+}
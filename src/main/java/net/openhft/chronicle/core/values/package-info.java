@@ -26,8 +26,16 @@
  *   <li>{@link net.openhft.chronicle.core.values.IntValue} - Represents a reference to a 32-bit integer value.
  *   <li>{@link net.openhft.chronicle.core.values.LongArrayValues} - Represents a reference to an array of long values.
  *   <li>{@link net.openhft.chronicle.core.values.LongValue} - Represents a reference to a long value.
+ *   <li>{@link net.openhft.chronicle.core.values.NativeIntArrayValues} - IntArrayValues in native memory with bulk range operations.
+ *   <li>{@link net.openhft.chronicle.core.values.NativeIntValue} - An IntValue at a native address, optionally cache line padded.
+ *   <li>{@link net.openhft.chronicle.core.values.NativeLongArrayValues} - LongArrayValues in native memory with bulk range operations.
+ *   <li>{@link net.openhft.chronicle.core.values.NativeLongValue} - A LongValue at a native address, optionally cache line padded.
+ *   <li>{@link net.openhft.chronicle.core.values.NativeTwoLongValue} - A TwoLongValue at a native address, optionally cache line padded.
+ *   <li>{@link net.openhft.chronicle.core.values.PaddedLongValue} - A LongValue on the heap, padded against false sharing.
+ *   <li>{@link net.openhft.chronicle.core.values.SeqLockValue} - Long fields in native memory read consistently via a sequence lock.
  *   <li>{@link net.openhft.chronicle.core.values.ShortValue} - Represents a reference to a 16-bit short value.
  *   <li>{@link net.openhft.chronicle.core.values.StringValue} - Represents a reference to a String value.
+ *   <li>{@link net.openhft.chronicle.core.values.StripedLongValue} - A counter striped over padded cells in native memory.
  *   <li>{@link net.openhft.chronicle.core.values.TwoLongValue} - Represents a reference to two long values.
  * </ul>
  *
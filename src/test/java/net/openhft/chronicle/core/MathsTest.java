@@ -569,4 +569,15 @@ public class MathsTest extends CoreTestCommon {
         assertEquals(1234500, Maths.asDouble(12345, 0, false, -2), 0.0);
         assertEquals(1.23E30, Maths.asDouble(123, 0, false, -28), 0.0);
     }
+
+    @Test
+    public void zigZag() {
+        assertEquals(0, Maths.zigZagEncode(0));
+        assertEquals(1, Maths.zigZagEncode(-1));
+        assertEquals(2, Maths.zigZagEncode(1));
+        assertEquals(-1, Maths.zigZagEncode(Long.MIN_VALUE));
+        assertEquals(-2, Maths.zigZagEncode(Long.MAX_VALUE));
+        for (long l : new long[]{0, 1, -1, 63, -64, Long.MIN_VALUE, Long.MAX_VALUE})
+            assertEquals(l, Maths.zigZagDecode(Maths.zigZagEncode(l)));
+    }
 }
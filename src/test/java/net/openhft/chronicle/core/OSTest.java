@@ -204,6 +204,59 @@ public class OSTest extends CoreTestCommon {
         }
     }
 
+    @Test
+    public void mapWithAdvice() throws IOException {
+        File file = IOTools.createTempFile(getClass().getName() + "." + testName.getMethodName());
+
+        try (RandomAccessFile rw = new RandomAccessFile(file, "rw")) {
+            FileChannel fc = rw.getChannel();
+            long length = 1 << 20;
+            rw.setLength(length);
+            long address = OS.map(fc, MapMode.READ_WRITE, 0, length, OS.pageSize(),
+                    MemoryAdvice.SEQUENTIAL, MemoryAdvice.HUGE_PAGE, MemoryAdvice.POPULATE);
+            try {
+                OS.memory().writeLong(address + length - 8, 12345L);
+                assertEquals(12345L, OS.memory().readLong(address + length - 8));
+                OS.advise(address, length, MemoryAdvice.RANDOM);
+            } finally {
+                OS.unmap(address, length);
+            }
+        }
+    }
+
+    @Test
+    public void allocatePopulatedAndWrite() {
+        int pageSize = OS.pageSize();
+        long size = 16L * pageSize;
+        long address = OS.memory().allocate(size, MemoryAdvice.POPULATE);
+        try {
+            for (long offset = 0; offset + 8 <= size; offset += pageSize)
+                OS.memory().writeLong(address + offset, ~offset);
+            // touching writable pages again must not change what they hold
+            assertTrue(OS.advise(address, size, MemoryAdvice.POPULATE, true));
+            for (long offset = 0; offset + 8 <= size; offset += pageSize)
+                assertEquals(~offset, OS.memory().readLong(address + offset));
+        } finally {
+            OS.memory().freeMemory(address, size);
+        }
+    }
+
+    @Test
+    public void adviseOnlyWholePages() {
+        int pageSize = OS.pageSize();
+        long address = OS.memory().allocate(4L * pageSize, MemoryAdvice.POPULATE);
+        try {
+            long aligned = OS.pageAlign(address);
+            // no whole page in the region
+            assertFalse(OS.advise(aligned + 1, pageSize, MemoryAdvice.WILL_NEED));
+            assertFalse(OS.advise(aligned, pageSize - 1, MemoryAdvice.WILL_NEED));
+            // always applied as it doesn't depend on madvise
+            assertTrue(OS.advise(aligned, pageSize, MemoryAdvice.POPULATE));
+        } finally {
+            OS.memory().freeMemory(address, 4L * pageSize);
+        }
+    }
+
     @Test
     public void getHostname() throws IOException {
         System.out.println("exec hostname: " + OS.HostnameHolder.execHostname());
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core;
+
+import net.openhft.chronicle.core.threads.CleaningThread;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class SlabAllocatorTest extends CoreTestCommon {
+
+    @Test
+    public void sizeClasses() {
+        assertEquals(0, SlabAllocator.sizeClass(1));
+        assertEquals(0, SlabAllocator.sizeClass(16));
+        assertEquals(1, SlabAllocator.sizeClass(17));
+        assertEquals(1, SlabAllocator.sizeClass(32));
+        assertEquals(2, SlabAllocator.sizeClass(33));
+        assertEquals(12, SlabAllocator.sizeClass(64 << 10));
+    }
+
+    @Test
+    public void freedChunksAreReused() {
+        try (SlabAllocator allocator = new SlabAllocator()) {
+            long a = allocator.allocate(100);
+            MEMORY.writeLong(a, 1L);
+            allocator.free(a, 100);
+            assertEquals(a, allocator.allocate(128));
+            assertEquals(1 << 20, allocator.slabMemory());
+        }
+    }
+
+    @Test
+    public void chunksDoNotOverlap() {
+        try (SlabAllocator allocator = new SlabAllocator(1 << 10, 4 << 10, 8)) {
+            Set<Long> addresses = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                long address = allocator.allocate(64);
+                assertEquals(0, address & 7);
+                assertTrue(addresses.add(address));
+                MEMORY.writeLong(address + 56, i);
+            }
+            // 100 chunks of 64 bytes need two 4 KiB slabs
+            assertEquals(8 << 10, allocator.slabMemory());
+            for (long address : addresses)
+                allocator.free(address, 64);
+            for (int i = 0; i < 100; i++)
+                assertTrue(addresses.contains(allocator.allocate(64)));
+            assertEquals(8 << 10, allocator.slabMemory());
+        }
+    }
+
+    @Test
+    public void largeRequestsPassThrough() {
+        try (SlabAllocator allocator = new SlabAllocator(1 << 10, 4 << 10, 8)) {
+            long before = MEMORY.nativeMemoryUsed();
+            long address = allocator.allocate(2 << 10);
+            assertEquals(before + (2 << 10), MEMORY.nativeMemoryUsed());
+            allocator.free(address, 2 << 10);
+            assertEquals(before, MEMORY.nativeMemoryUsed());
+            assertEquals(0, allocator.slabMemory());
+        }
+    }
+
+    @Test
+    public void magazinesReturnedOnThreadExit() throws InterruptedException {
+        try (SlabAllocator allocator = new SlabAllocator(1 << 10, 4 << 10, 8)) {
+            long[] chunks = new long[16];
+            Thread thread = new CleaningThread(() -> {
+                for (int i = 0; i < chunks.length; i++)
+                    chunks[i] = allocator.allocate(256);
+                for (long chunk : chunks)
+                    allocator.free(chunk, 256);
+            });
+            thread.start();
+            thread.join();
+
+            Set<Long> expected = new HashSet<>();
+            for (long chunk : chunks)
+                expected.add(chunk);
+            for (int i = 0; i < chunks.length; i++)
+                assertTrue(expected.contains(allocator.allocate(256)));
+            assertEquals(4 << 10, allocator.slabMemory());
+        }
+    }
+
+    @Test
+    public void partialMagazinesReusedBeforeCarving() throws InterruptedException {
+        // one magazine of 512 byte chunks fills a 4 KiB slab
+        try (SlabAllocator allocator = new SlabAllocator(1 << 10, 4 << 10, 8)) {
+            long[] kept = new long[3];
+            Thread thread = new CleaningThread(() -> {
+                for (int i = 0; i < kept.length; i++)
+                    kept[i] = allocator.allocate(512);
+            });
+            thread.start();
+            thread.join();
+            assertEquals(4 << 10, allocator.slabMemory());
+
+            // the 5 chunks the thread still cached are handed out rather than a new slab
+            Set<Long> keptSet = new HashSet<>();
+            for (long chunk : kept)
+                keptSet.add(chunk);
+            Set<Long> reused = new HashSet<>();
+            for (int i = 0; i < 5; i++) {
+                long chunk = allocator.allocate(512);
+                assertFalse(keptSet.contains(chunk));
+                assertTrue(reused.add(chunk));
+            }
+            assertEquals(4 << 10, allocator.slabMemory());
+        }
+    }
+
+    @Test
+    public void closeReleasesSlabs() {
+        long before = MEMORY.nativeMemoryUsed();
+        SlabAllocator allocator = new SlabAllocator();
+        allocator.allocate(16);
+        allocator.allocate(1000);
+        assertEquals(before + (2 << 20), MEMORY.nativeMemoryUsed());
+        allocator.close();
+        assertEquals(before, MEMORY.nativeMemoryUsed());
+    }
+}
@@ -18,12 +18,16 @@
 
 package net.openhft.chronicle.core;
 
+import net.openhft.chronicle.core.util.MisAlignedAssertionError;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import sun.misc.Unsafe;
 
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Random;
@@ -32,6 +36,7 @@ import static net.openhft.chronicle.core.UnsafeMemory.UNSAFE;
 import static net.openhft.chronicle.core.UnsafeMemory.UNSAFE_COPY_THRESHOLD;
 import static org.junit.Assert.*;
 import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
 
 @RunWith(Parameterized.class)
 public class UnsafeMemory2Test extends CoreTestCommon {
@@ -57,6 +62,400 @@ public class UnsafeMemory2Test extends CoreTestCommon {
         return Arrays.asList(Jvm.isArm() ? arm : all);
     }
 
+    @Test
+    public void nativeMemoryUsedByTag() {
+        // other threads may allocate at the same time, so only this test's own tag is checked exactly
+        final String tag = getClass().getName() + ".nativeMemoryUsedByTag";
+        long a = memory.allocate(64, tag);
+        long b = memory.allocate(128, tag);
+        long c = memory.allocate(32);
+        assertEquals(192L, (long) memory.nativeMemoryUsedByTag().get(tag));
+
+        memory.freeMemory(a, 64, tag);
+        assertEquals(128L, (long) memory.nativeMemoryUsedByTag().get(tag));
+        memory.freeMemory(b, 128, tag);
+        memory.freeMemory(c, 32);
+        assertEquals(0L, (long) memory.nativeMemoryUsedByTag().get(tag));
+    }
+
+    @Test
+    public void mismatchAndCompare() {
+        final int length = 64;
+        long a = memory.allocate(length + 8);
+        long b = memory.allocate(length + 8);
+        try {
+            for (int offset = 0; offset < 8; offset++) {
+                for (int len = 0; len <= length - offset; len++) {
+                    for (int i = 0; i < len; i++) {
+                        memory.writeByte(a + offset + i, (byte) i);
+                        memory.writeByte(b + i, (byte) i);
+                    }
+                    assertEquals(-1, memory.mismatch(a + offset, b, len));
+                    assertTrue(memory.isEqual(a + offset, b, len));
+                    assertEquals(0, memory.compare(a + offset, b, len));
+                    for (int i = 0; i < len; i++) {
+                        memory.writeByte(b + i, (byte) 0x80);
+                        assertEquals(i, memory.mismatch(a + offset, b, len));
+                        assertFalse(memory.isEqual(a + offset, b, len));
+                        // compared as unsigned
+                        assertEquals(-1, memory.compare(a + offset, b, len));
+                        assertEquals(1, memory.compare(b, a + offset, len));
+                        memory.writeByte(b + i, (byte) i);
+                    }
+                }
+            }
+        } finally {
+            memory.freeMemory(a, length + 8);
+            memory.freeMemory(b, length + 8);
+        }
+    }
+
+    @Test
+    public void mismatchHeap() {
+        byte[] bytes = "Hello World, this is a test".getBytes();
+        byte[] bytes2 = bytes.clone();
+        long address = memory.allocate(bytes.length);
+        try {
+            memory.copyMemory(bytes, 0, address, bytes.length);
+            assertEquals(-1, memory.mismatch(bytes, 0, address, bytes.length));
+            assertTrue(memory.isEqual(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, bytes2, Unsafe.ARRAY_BYTE_BASE_OFFSET, bytes.length));
+            bytes2[20] = 0;
+            assertEquals(20, memory.mismatch(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, bytes2, Unsafe.ARRAY_BYTE_BASE_OFFSET, bytes.length));
+            assertEquals(13, memory.mismatch(bytes2, 7, address + 7, bytes.length - 7));
+            assertTrue(memory.compare(bytes2, Unsafe.ARRAY_BYTE_BASE_OFFSET, null, address, bytes.length) < 0);
+        } finally {
+            memory.freeMemory(address, bytes.length);
+        }
+    }
+
+    @Test
+    public void indexOf() {
+        final int length = 64;
+        long address = memory.allocate(length);
+        try {
+            memory.setMemory(address, length, (byte) 'a');
+            for (int offset = 0; offset < 8; offset++) {
+                assertEquals(-1, memory.indexOf(address + offset, length - offset, (byte) ','));
+                for (int i = offset; i < length; i++) {
+                    memory.writeByte(address + i, (byte) ',');
+                    assertEquals(i - offset, memory.indexOf(address + offset, length - offset, (byte) ','));
+                    assertEquals(-1, memory.indexOf(address + offset, i - offset, (byte) ','));
+                    // a 0x80 byte before the match must not confuse the search
+                    if (i > offset) {
+                        memory.writeByte(address + i - 1, (byte) 0x80);
+                        assertEquals(i - offset, memory.indexOf(address + offset, length - offset, (byte) ','));
+                        assertEquals(i - 1 - offset, memory.indexOf(address + offset, length - offset, (byte) 0x80));
+                        memory.writeByte(address + i - 1, (byte) 'a');
+                    }
+                    memory.writeByte(address + i, (byte) 'a');
+                }
+            }
+        } finally {
+            memory.freeMemory(address, length);
+        }
+    }
+
+    @Test
+    public void indexOfLong() {
+        final int length = 64;
+        long address = memory.allocate(length);
+        try {
+            memory.setMemory(address, length, (byte) 'x');
+            final long pattern = 0x0102030405060708L;
+            assertEquals(-1, memory.indexOfLong(address, length, pattern));
+            for (int i = 0; i <= length - 8; i++) {
+                memory.writeLong(address + i, pattern);
+                // a partial match first
+                if (i > 0)
+                    memory.writeByte(address + i - 1, (byte) (UnsafeMemory.IS_LITTLE_ENDIAN ? 0x08 : 0x01));
+                assertEquals(i, memory.indexOfLong(address, length, pattern));
+                assertEquals(-1, memory.indexOfLong(address, i + 7, pattern));
+                memory.setMemory(address, length, (byte) 'x');
+            }
+        } finally {
+            memory.freeMemory(address, length);
+        }
+    }
+
+    @Test
+    public void bulkLongs() {
+        long[] longs = {0x0102030405060708L, -1L, Long.MIN_VALUE, 0, 12345};
+        long address = memory.allocate(longs.length * 8L + 1);
+        try {
+            for (ByteOrder order : new ByteOrder[]{ByteOrder.nativeOrder(), ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                // unaligned on purpose
+                memory.writeLongs(address + 1, longs, 1, 4, order);
+                long[] copy = new long[6];
+                memory.readLongs(address + 1, copy, 2, 4, order);
+                assertArrayEquals(new long[]{0, 0, -1L, Long.MIN_VALUE, 0, 12345}, copy);
+            }
+            memory.writeLongs(address, longs, 0, 1, ByteOrder.BIG_ENDIAN);
+            for (int i = 0; i < 8; i++)
+                assertEquals(i + 1, memory.readByte(address + i));
+            memory.writeLongs(address, longs, 0, longs.length);
+            for (int i = 0; i < longs.length; i++)
+                assertEquals(longs[i], memory.readLong(address + i * 8L));
+        } finally {
+            memory.freeMemory(address, longs.length * 8L + 1);
+        }
+    }
+
+    @Test
+    public void bulkIntsShortsChars() {
+        long address = memory.allocate(64);
+        try {
+            int[] ints = {0x01020304, -2, 7};
+            memory.writeInts(address, ints, 0, ints.length, ByteOrder.BIG_ENDIAN);
+            for (int i = 0; i < 4; i++)
+                assertEquals(i + 1, memory.readByte(address + i));
+            int[] ints2 = new int[3];
+            memory.readInts(address, ints2, 0, 3, ByteOrder.BIG_ENDIAN);
+            assertArrayEquals(ints, ints2);
+
+            short[] shorts = {0x0102, -3, 9};
+            memory.writeShorts(address, shorts, 0, shorts.length, ByteOrder.BIG_ENDIAN);
+            assertEquals(1, memory.readByte(address));
+            assertEquals(2, memory.readByte(address + 1));
+            short[] shorts2 = new short[3];
+            memory.readShorts(address, shorts2, 0, 3, ByteOrder.BIG_ENDIAN);
+            assertArrayEquals(shorts, shorts2);
+
+            char[] chars = "Hello".toCharArray();
+            memory.writeChars(address, chars, 0, chars.length);
+            assertEquals('e', memory.readShort(address + 2));
+            char[] chars2 = new char[5];
+            memory.readChars(address, chars2, 0, 5);
+            assertArrayEquals(chars, chars2);
+        } finally {
+            memory.freeMemory(address, 64);
+        }
+    }
+
+    @Test
+    public void bulkFloatsDoubles() {
+        long address = memory.allocate(64);
+        try {
+            double[] doubles = {1.5, -0.0, Double.NaN, Double.MAX_VALUE};
+            double[] doubles2 = new double[4];
+            memory.writeDoubles(address, doubles, 0, 4, ByteOrder.BIG_ENDIAN);
+            // 1.5 is 0x3FF8000000000000
+            assertEquals(0x3F, memory.readByte(address));
+            assertEquals((byte) 0xF8, memory.readByte(address + 1));
+            memory.readDoubles(address, doubles2, 0, 4, ByteOrder.BIG_ENDIAN);
+            assertArrayEquals(doubles, doubles2, 0.0);
+
+            float[] floats = {1.5f, -2f, Float.MIN_VALUE};
+            float[] floats2 = new float[3];
+            memory.writeFloats(address, floats, 0, 3, ByteOrder.LITTLE_ENDIAN);
+            memory.readFloats(address, floats2, 0, 3, ByteOrder.LITTLE_ENDIAN);
+            assertArrayEquals(floats, floats2, 0.0f);
+        } finally {
+            memory.freeMemory(address, 64);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bulkOutOfRange() {
+        memory.writeLongs(8, new long[4], 2, 3);
+    }
+
+    @Test
+    public void bigEndian() {
+        long address = memory.allocate(32);
+        try {
+            memory.writeBigEndianLong(address, 0x0102030405060708L);
+            for (int i = 0; i < 8; i++)
+                assertEquals(i + 1, memory.readByte(address + i));
+            assertEquals(0x0102030405060708L, memory.readBigEndianLong(address));
+            assertEquals(0x0102030405060708L, memory.readVolatileBigEndianLong(address));
+            assertEquals(0x01020304, memory.readBigEndianInt(address));
+            assertEquals(0x0506, memory.readBigEndianShort(address + 4));
+
+            memory.writeVolatileBigEndianInt(address + 8, 0x0A0B0C0D);
+            assertEquals(0x0A, memory.readByte(address + 8));
+            assertEquals(0x0A0B0C0D, memory.readVolatileBigEndianInt(address + 8));
+            memory.writeOrderedBigEndianInt(address + 8, -2);
+            assertEquals(-2, memory.readBigEndianInt(address + 8));
+            memory.writeOrderedBigEndianLong(address + 16, 42L);
+            assertEquals(42, memory.readByte(address + 23));
+            memory.writeVolatileBigEndianShort(address + 12, (short) 0x1234);
+            assertEquals(0x12, memory.readByte(address + 12));
+            assertEquals(0x1234, memory.readVolatileBigEndianShort(address + 12));
+
+            memory.writeBigEndianDouble(address, 1.5);
+            assertEquals(0x3F, memory.readByte(address));
+            assertEquals(1.5, memory.readBigEndianDouble(address), 0.0);
+            memory.writeVolatileBigEndianDouble(address, -2.5);
+            assertEquals(-2.5, memory.readVolatileBigEndianDouble(address), 0.0);
+            memory.writeBigEndianFloat(address + 8, 1.5f);
+            assertEquals(0x3F, memory.readByte(address + 8));
+            assertEquals((byte) 0xC0, memory.readByte(address + 9));
+            assertEquals(1.5f, memory.readBigEndianFloat(address + 8), 0.0f);
+            memory.writeVolatileBigEndianFloat(address + 8, 3f);
+            assertEquals(3f, memory.readVolatileBigEndianFloat(address + 8), 0.0f);
+        } finally {
+            memory.freeMemory(address, 32);
+        }
+    }
+
+    @Test
+    public void bigEndianSignallingNaNBytes() {
+        final long address = memory.allocate(16);
+        try {
+            // ordinary values whose bytes, swapped, form a signalling NaN, which a float or double may not preserve
+            final float f = Float.intBitsToFloat(0x0100807F);
+            memory.writeBigEndianFloat(address, f);
+            assertEquals(0x0100807F, memory.readBigEndianInt(address));
+            assertEquals(0x0100807F, Float.floatToRawIntBits(memory.readBigEndianFloat(address)));
+            memory.writeVolatileBigEndianFloat(address, f);
+            assertEquals(0x0100807F, Float.floatToRawIntBits(memory.readVolatileBigEndianFloat(address)));
+
+            final double d = Double.longBitsToDouble(0x010000000000F07FL);
+            memory.writeBigEndianDouble(address + 8, d);
+            assertEquals(0x010000000000F07FL, memory.readBigEndianLong(address + 8));
+            assertEquals(0x010000000000F07FL, Double.doubleToRawLongBits(memory.readBigEndianDouble(address + 8)));
+            memory.writeVolatileBigEndianDouble(address + 8, d);
+            assertEquals(0x010000000000F07FL, Double.doubleToRawLongBits(memory.readVolatileBigEndianDouble(address + 8)));
+        } finally {
+            memory.freeMemory(address, 16);
+        }
+    }
+
+    @Test
+    public void bigEndianHeap() {
+        byte[] bytes = new byte[16];
+        final long offset = Unsafe.ARRAY_BYTE_BASE_OFFSET;
+        memory.writeBigEndianInt(bytes, offset, 0x01020304);
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, Arrays.copyOf(bytes, 4));
+        assertEquals(0x01020304, memory.readBigEndianInt(bytes, offset));
+        memory.writeOrderedBigEndianLong(bytes, offset + 8, 0x0102030405060708L);
+        assertEquals(8, bytes[15]);
+        assertEquals(0x0102030405060708L, memory.readVolatileBigEndianLong(bytes, offset + 8));
+        memory.writeBigEndianShort(bytes, offset, (short) 0x0102);
+        assertEquals(0x0102, memory.readBigEndianShort(bytes, offset));
+    }
+
+    @Test
+    public void atomicsOnAddress() {
+        long address = memory.allocate(64);
+        try {
+            long a = (address + 7) & ~7L;
+            memory.writeLong(a, 10);
+            assertEquals(10, memory.getAndAddLong(a, 5));
+            assertEquals(15, memory.getAndSetLong(a, 0b1100));
+            assertEquals(0b1100, memory.getAndBitwiseOrLong(a, 0b0011));
+            assertEquals(0b1111, memory.getAndBitwiseAndLong(a, 0b0110));
+            assertEquals(0b0110, memory.getAndBitwiseXorLong(a, 0b0101));
+            assertEquals(0b0011, memory.compareAndExchangeLong(a, 0b0011, 42));
+            assertEquals(42, memory.compareAndExchangeLong(a, 1, 2));
+            assertTrue(memory.weakCompareAndSwapLong(a, 42, 43) || memory.readVolatileLong(a) == 42);
+            memory.writeLong(a, 43);
+
+            long i = a + 8;
+            memory.writeInt(i, 10);
+            assertEquals(10, memory.getAndAddInt(i, -3));
+            assertEquals(7, memory.getAndBitwiseOrInt(i, 8));
+            assertEquals(15, memory.getAndBitwiseAndInt(i, 6));
+            assertEquals(6, memory.getAndBitwiseXorInt(i, -1));
+            assertEquals(~6, memory.compareAndExchangeInt(i, 0, 1));
+            assertEquals(~6, memory.compareAndExchangeInt(i, ~6, 1));
+            assertEquals(1, memory.readInt(i));
+            assertEquals(43, memory.readLong(a));
+        } finally {
+            memory.freeMemory(address, 64);
+        }
+    }
+
+    @Test
+    public void atomicsOnHeap() {
+        long[] longs = new long[2];
+        int[] ints = new int[2];
+        final long longOffset = Unsafe.ARRAY_LONG_BASE_OFFSET + 8;
+        final long intOffset = Unsafe.ARRAY_INT_BASE_OFFSET + 4;
+        assertEquals(0, memory.getAndAddLong(longs, longOffset, 3));
+        assertEquals(3, memory.getAndSetLong(longs, longOffset, 1));
+        assertEquals(1, memory.getAndBitwiseOrLong(longs, longOffset, 2));
+        assertEquals(3, memory.compareAndExchangeLong(longs, longOffset, 3, 7));
+        assertTrue(memory.weakCompareAndSwapLong(longs, longOffset, 7, 8) || longs[1] == 7);
+        assertEquals(0, longs[0]);
+
+        assertEquals(0, memory.getAndAddInt(ints, intOffset, 3));
+        assertEquals(3, memory.getAndBitwiseXorInt(ints, intOffset, 1));
+        assertEquals(2, memory.compareAndExchangeInt(ints, intOffset, 2, 5));
+        assertEquals(5, ints[1]);
+        assertEquals(0, ints[0]);
+    }
+
+    @Test
+    public void getAndSetLongAcrossCacheLine() {
+        long address = memory.allocate(192);
+        try {
+            long crossing = ((address + 63) & ~63L) + 60;
+            assertThrows(AssertionError.class, () -> memory.getAndSetLong(crossing, 1));
+            assertThrows(AssertionError.class, () -> memory.getAndSetLong(null, crossing, 1));
+        } finally {
+            memory.freeMemory(address, 192);
+        }
+    }
+
+    @Test
+    public void atomicsMisaligned() {
+        assumeTrue(memory instanceof UnsafeMemory.ARMMemory);
+        long address = memory.allocate(64);
+        try {
+            long misaligned = ((address + 7) & ~7L) + 1;
+            memory.writeLong(misaligned, 0);
+            assertThrows(MisAlignedAssertionError.class, () -> memory.getAndSetLong(misaligned, 1));
+            assertThrows(MisAlignedAssertionError.class, () -> memory.getAndAddLong(misaligned, 1));
+            assertThrows(MisAlignedAssertionError.class, () -> memory.getAndBitwiseOrInt(misaligned, 1));
+            assertThrows(MisAlignedAssertionError.class, () -> memory.compareAndExchangeLong(misaligned, 0, 1));
+        } finally {
+            memory.freeMemory(address, 64);
+        }
+    }
+
+    @Test
+    public void utf8RoundTrip() {
+        String[] strings = {"", "Hello World", "caf\u00e9 \u00a3100", "\u20ac\u4e2d\u6587", "emoji \uD83D\uDE00!", "\u007f\u0080\u07ff\u0800\uffff"};
+        long address = memory.allocate(64);
+        StringBuilder sb = new StringBuilder("junk");
+        try {
+            for (String s : strings) {
+                byte[] expected = s.getBytes(StandardCharsets.UTF_8);
+                assertEquals(s, expected.length, memory.utf8Length(s));
+                assertEquals(s, expected.length, memory.writeUtf8(address, s));
+                byte[] actual = new byte[expected.length];
+                memory.readBytes(address, actual, 0, actual.length);
+                assertArrayEquals(s, expected, actual);
+                memory.readUtf8(address, expected.length, sb);
+                assertEquals(s, sb.toString());
+            }
+            // unpaired surrogates are written as '?' like String.getBytes
+            String lone = "a\uD800b";
+            assertEquals(3, memory.utf8Length(lone));
+            assertEquals(3, memory.writeUtf8(address, lone));
+            memory.readUtf8(address, 3, sb);
+            assertEquals("a?b", sb.toString());
+        } finally {
+            memory.freeMemory(address, 64);
+        }
+    }
+
+    @Test
+    public void utf8Malformed() {
+        long address = memory.allocate(8);
+        StringBuilder sb = new StringBuilder();
+        try {
+            byte[][] malformed = {{(byte) 0x80}, {(byte) 0xC3}, {(byte) 0xC0, (byte) 0x80}, {(byte) 0xE2, 0x28, (byte) 0xA1}, {(byte) 0xED, (byte) 0xA0, (byte) 0x80}, {(byte) 0xF8}};
+            for (byte[] bytes : malformed) {
+                memory.writeBytes(address, bytes, 0, bytes.length);
+                assertThrows(IllegalArgumentException.class, () -> memory.readUtf8(address, bytes.length, sb));
+            }
+        } finally {
+            memory.freeMemory(address, 8);
+        }
+    }
+
     @Test
     public void stopBitLengthInt() {
         assertEquals(1, memory.stopBitLength(0));
@@ -86,6 +485,60 @@ public class UnsafeMemory2Test extends CoreTestCommon {
         }
     }
 
+    @Test
+    public void stopBitRoundTrip() {
+        long address = memory.allocate(16);
+        try {
+            Random random = new Random(11);
+            for (int i = 0; i < 2000; i++) {
+                long value = i < 64 ? (1L << i) - (i & 1) : random.nextLong() >> random.nextInt(64);
+                for (long v : new long[]{value, -value, ~value}) {
+                    int length = memory.writeStopBit(address, v);
+                    assertEquals(memory.stopBitLength(v), length);
+                    assertEquals(v, memory.readStopBit(address));
+
+                    length = memory.writeZigZagStopBit(address, v);
+                    assertEquals(memory.stopBitLength(Maths.zigZagEncode(v)), length);
+                    assertEquals(v, memory.readZigZagStopBit(address));
+                }
+            }
+            assertEquals(1, memory.writeZigZagStopBit(address, -64));
+            assertEquals(2, memory.writeStopBit(address, -64));
+        } finally {
+            memory.freeMemory(address, 16);
+        }
+    }
+
+    @Test
+    public void stopBitArrays() {
+        long[] values = {0, 1, -1, 127, 128, -128, 1L << 40, Long.MIN_VALUE, Long.MAX_VALUE, 300, -300};
+        long address = memory.allocate(values.length * 10L);
+        try {
+            long written = memory.writeStopBits(address, values, 1, values.length - 1);
+            long[] read = new long[values.length];
+            assertEquals(written, memory.readStopBits(address, read, 1, values.length - 1));
+            assertArrayEquals(values, read);
+
+            written = memory.writeZigZagStopBits(address, values, 0, values.length);
+            Arrays.fill(read, 42);
+            assertEquals(written, memory.readZigZagStopBits(address, read, 0, values.length));
+            assertArrayEquals(values, read);
+        } finally {
+            memory.freeMemory(address, values.length * 10L);
+        }
+    }
+
+    @Test
+    public void stopBitTooLong() {
+        long address = memory.allocate(16);
+        try {
+            memory.setMemory(address, 16, (byte) 0x80);
+            assertThrows(IllegalStateException.class, () -> memory.readStopBit(address));
+        } finally {
+            memory.freeMemory(address, 16);
+        }
+    }
+
     @Test
     public void is7BitBytes() {
         for (int i = 0; i <= 64; i++) {
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class ZeroedMemoryPoolTest extends CoreTestCommon {
+
+    private static void awaitZeroed(ZeroedMemoryPool pool, int count) {
+        long end = System.currentTimeMillis() + 5_000;
+        while (pool.zeroedCount() < count) {
+            assertTrue("timed out", System.currentTimeMillis() < end);
+            Jvm.pause(1);
+        }
+    }
+
+    private static void assertZeroed(long address, long size) {
+        for (long i = 0; i < size; i += 8)
+            assertEquals(0L, MEMORY.readLong(address + i));
+    }
+
+    @Test
+    public void fillsToHighWaterMark() {
+        try (ZeroedMemoryPool pool = new ZeroedMemoryPool("fill", 4096, 2, 8)) {
+            awaitZeroed(pool, 8);
+            long[] chunks = new long[6];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = pool.allocate();
+                assertZeroed(chunks[i], 4096);
+            }
+            assertEquals(6, pool.hits());
+            // fell to the low water mark so it is refilled
+            awaitZeroed(pool, 8);
+            for (long chunk : chunks)
+                pool.free(chunk);
+        }
+    }
+
+    @Test
+    public void freedChunksAreZeroedAndReused() {
+        try (ZeroedMemoryPool pool = new ZeroedMemoryPool("reuse", 1024, 0, 4)) {
+            awaitZeroed(pool, 4);
+            // stays above the low water mark so nothing new is allocated
+            long a = pool.allocate();
+            long b = pool.allocate();
+            MEMORY.setMemory(a, 1024, (byte) -1);
+            MEMORY.setMemory(b, 1024, (byte) -1);
+            pool.free(a);
+            pool.free(b);
+            awaitZeroed(pool, 4);
+            Set<Long> chunks = new HashSet<>();
+            for (int i = 0; i < 4; i++) {
+                long c = pool.allocate();
+                assertZeroed(c, 1024);
+                chunks.add(c);
+            }
+            assertTrue(chunks.contains(a));
+            assertTrue(chunks.contains(b));
+            for (long c : chunks)
+                pool.free(c);
+        }
+    }
+
+    @Test
+    public void emptyPoolZeroesInline() {
+        try (ZeroedMemoryPool pool = new ZeroedMemoryPool("inline", 512, 0, 1)) {
+            awaitZeroed(pool, 1);
+            long a = pool.allocate();
+            long b = pool.allocate();
+            assertZeroed(b, 512);
+            // the second may or may not find the pool refilled
+            assertEquals(2, pool.hits() + pool.misses());
+            pool.free(a);
+            pool.free(b);
+        }
+    }
+
+    @Test
+    public void closeFreesChunks() {
+        long before = MEMORY.nativeMemoryUsed();
+        ZeroedMemoryPool pool = new ZeroedMemoryPool("close", 1 << 16, 1, 4);
+        awaitZeroed(pool, 4);
+        long a = pool.allocate();
+        pool.close();
+        pool.free(a);
+        assertEquals(before, MEMORY.nativeMemoryUsed());
+    }
+}
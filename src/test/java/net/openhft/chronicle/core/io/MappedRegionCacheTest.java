@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.io;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import net.openhft.chronicle.core.OS;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class MappedRegionCacheTest extends CoreTestCommon {
+
+    @Test
+    public void acquireMapsAndCaches() throws IOException {
+        final long chunkSize = OS.mapAlignment();
+        File file = IOTools.createTempFile("acquireMapsAndCaches");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             MappedRegionCache cache = new MappedRegionCache(raf.getChannel(), FileChannel.MapMode.READ_WRITE, chunkSize, 4 * chunkSize)) {
+            ReferenceOwner owner = ReferenceOwner.temporary("owner");
+            MappedRegionCache.MappedRegion region = cache.acquire(chunkSize + 8, owner);
+            assertEquals(chunkSize, region.start());
+            assertEquals(2, region.refCount());
+            assertEquals(2 * chunkSize, raf.length());
+            MEMORY.writeLong(region.addressOf(chunkSize + 8), 0x1234L);
+            region.release(owner);
+
+            MappedRegionCache.MappedRegion region2 = cache.acquire(chunkSize + 16, owner);
+            assertSame(region, region2);
+            assertEquals(0x1234L, MEMORY.readLong(region2.address() + 8));
+            region2.release(owner);
+
+            assertEquals(1, cache.hits());
+            assertEquals(1, cache.misses());
+            assertEquals(chunkSize, cache.mappedSize());
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedUnreferenced() throws IOException {
+        final long chunkSize = OS.mapAlignment();
+        File file = IOTools.createTempFile("evictsLeastRecentlyUsedUnreferenced");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             MappedRegionCache cache = new MappedRegionCache(raf.getChannel(), FileChannel.MapMode.READ_WRITE, chunkSize, 2 * chunkSize)) {
+            ReferenceOwner owner = ReferenceOwner.temporary("owner");
+            MappedRegionCache.MappedRegion held = cache.acquire(0, owner);
+            cache.acquire(chunkSize, owner).release(owner);
+            cache.acquire(2 * chunkSize, owner).release(owner);
+            // the region at 0 is held, so the one at chunkSize is evicted
+            assertEquals(1, cache.evictions());
+            assertEquals(2, cache.regionCount());
+            assertEquals(2 * chunkSize, cache.mappedSize());
+
+            MappedRegionCache.MappedRegion region = cache.acquire(chunkSize, owner);
+            // it was evicted so has to be mapped again
+            assertEquals(4, cache.misses());
+            assertEquals(0, cache.hits());
+            region.release(owner);
+            held.release(owner);
+            BackgroundResourceReleaser.releasePendingResources();
+        }
+    }
+
+    @Test
+    public void closeReleasesRegions() throws IOException {
+        final long chunkSize = OS.mapAlignment();
+        File file = IOTools.createTempFile("closeReleasesRegions");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long before = OS.memoryMapped();
+            MappedRegionCache cache = new MappedRegionCache(raf.getChannel(), FileChannel.MapMode.READ_WRITE, chunkSize, 8 * chunkSize);
+            ReferenceOwner owner = ReferenceOwner.temporary("owner");
+            for (int i = 0; i < 4; i++)
+                cache.acquire(i * chunkSize, owner).release(owner);
+            assertEquals(before + 4 * chunkSize, OS.memoryMapped());
+
+            MappedRegionCache.MappedRegion held = cache.acquire(0, owner);
+            cache.close();
+            assertThrows(ClosedIllegalStateException.class, () -> cache.acquire(0, owner));
+            held.release(owner);
+            BackgroundResourceReleaser.releasePendingResources();
+            assertEquals(before, OS.memoryMapped());
+        }
+    }
+}
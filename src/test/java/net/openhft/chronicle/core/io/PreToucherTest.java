@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.io;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.OS;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class PreToucherTest extends CoreTestCommon {
+
+    private static void waitFor(BooleanSupplier condition) {
+        long end = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("timed out", System.currentTimeMillis() < end);
+            Jvm.pause(1);
+        }
+    }
+
+    @Test
+    public void touchesAheadOfTheWriter() throws IOException {
+        File file = IOTools.createTempFile("touchesAheadOfTheWriter");
+        final long size = 4 << 20;
+        final long lookahead = 1 << 20;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size);
+            long address = OS.map(raf.getChannel(), FileChannel.MapMode.READ_WRITE, 0, size);
+            try (PreToucher preToucher = new PreToucher(address, size, lookahead, true)) {
+                waitFor(() -> preToucher.touchedPosition() >= lookahead);
+                assertTrue(preToucher.touchedPosition() < lookahead + OS.pageSize());
+                assertEquals(preToucher.touchedPosition() / OS.pageSize(), preToucher.pagesTouched());
+
+                preToucher.writePosition(lookahead / 2);
+                assertEquals(0, preToucher.outrunCount());
+                assertEquals(0, preToucher.lag());
+
+                // jump ahead of the touched pages
+                preToucher.writePosition(3 * lookahead);
+                assertEquals(1, preToucher.outrunCount());
+                assertTrue(preToucher.maxOutrun() >= lookahead);
+
+                waitFor(() -> preToucher.touchedPosition() == size);
+                assertEquals(0, preToucher.lag());
+                assertEquals(size / OS.pageSize(), preToucher.pagesTouched());
+                // the contents are unchanged
+                assertEquals(0L, OS.memory().readLong(address + size - 8));
+            } finally {
+                OS.unmap(address, size);
+            }
+        }
+    }
+
+    @Test
+    public void readOnlyTouch() {
+        final long size = 16L * OS.pageSize();
+        long address = OS.memory().allocate(size + OS.pageSize());
+        try {
+            long aligned = OS.pageAlign(address);
+            try (PreToucher preToucher = new PreToucher(aligned, size, size, false)) {
+                waitFor(() -> preToucher.touchedPosition() == size);
+                assertEquals(16, preToucher.pagesTouched());
+            }
+        } finally {
+            OS.memory().freeMemory(address, size + OS.pageSize());
+        }
+    }
+}
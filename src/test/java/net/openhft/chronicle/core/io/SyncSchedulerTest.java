@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.io;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SyncSchedulerTest extends CoreTestCommon {
+
+    @Test
+    public void burstIsCoalesced() throws Exception {
+        AtomicInteger a = new AtomicInteger();
+        AtomicInteger b = new AtomicInteger();
+        // a window which can't expire during the burst, the pending syncs are run on close
+        SyncScheduler scheduler = new SyncScheduler("burst", 1, TimeUnit.HOURS);
+        // a different instance, so synced separately
+        CompletableFuture<Void> first = scheduler.requestSync(a::incrementAndGet);
+        Syncable syncableA = a::incrementAndGet;
+        Syncable syncableB = b::incrementAndGet;
+        CompletableFuture<Void> fa = scheduler.requestSync(syncableA);
+        CompletableFuture<Void> fb = scheduler.requestSync(syncableB);
+        for (int i = 0; i < 100; i++) {
+            assertSame(fa, scheduler.requestSync(syncableA));
+            assertSame(fb, scheduler.requestSync(syncableB));
+        }
+        assertFalse(fa.isDone());
+        assertEquals(0, scheduler.syncsPerformed());
+        scheduler.close();
+
+        first.get(5, TimeUnit.SECONDS);
+        fa.get(5, TimeUnit.SECONDS);
+        fb.get(5, TimeUnit.SECONDS);
+        assertEquals(2, a.get());
+        assertEquals(1, b.get());
+        assertEquals(203, scheduler.syncsRequested());
+        assertEquals(3, scheduler.syncsPerformed());
+    }
+
+    @Test
+    public void failureCompletesExceptionally() throws Exception {
+        expectException("Failed to sync");
+        try (SyncScheduler scheduler = new SyncScheduler("failure", 0, TimeUnit.MILLISECONDS)) {
+            CompletableFuture<Void> future = scheduler.requestSync(() -> {
+                throw new IllegalStateException("sync failed");
+            });
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertEquals("sync failed", e.getCause().getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void closeRunsPending() {
+        AtomicInteger count = new AtomicInteger();
+        SyncScheduler scheduler = new SyncScheduler("close", 1, TimeUnit.MINUTES);
+        CompletableFuture<Void> future = scheduler.requestSync(count::incrementAndGet);
+        scheduler.close();
+        assertTrue(future.isDone());
+        assertEquals(1, count.get());
+        assertThrows(ClosedIllegalStateException.class, () -> scheduler.requestSync(count::incrementAndGet));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.pool;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentStringInternerTest extends CoreTestCommon {
+
+    @Test
+    public void internCountsHitsAndMisses() {
+        ConcurrentStringInterner si = new ConcurrentStringInterner(128);
+        assertEquals(128, si.capacity());
+        String a = si.intern(new StringBuilder("hello"));
+        assertEquals("hello", a);
+        assertSame(a, si.intern("hello"));
+        assertSame(a, si.intern(new StringBuilder("hello")));
+        assertNull(si.intern(null));
+        assertEquals(2, si.hits());
+        assertEquals(1, si.misses());
+        assertEquals(0, si.evictions());
+        assertEquals(1, si.valueCount());
+        si.resetStats();
+        assertEquals(0, si.hits());
+    }
+
+    @Test
+    public void internBytes() {
+        ConcurrentStringInterner si = new ConcurrentStringInterner(128);
+        byte[] bytes = "55=EURUSD|".getBytes(StandardCharsets.ISO_8859_1);
+        String symbol = si.intern(bytes, 3, 6);
+        assertEquals("EURUSD", symbol);
+        assertSame(symbol, si.intern(bytes, 3, 6));
+        assertSame(symbol, si.intern("EURUSD"));
+        assertSame(symbol, si.internUtf8(bytes, 3, 6));
+        assertEquals(3, si.hits());
+        assertEquals(1, si.misses());
+    }
+
+    @Test
+    public void evictsWhenFull() {
+        ConcurrentStringInterner si = new ConcurrentStringInterner(128);
+        for (int i = 0; i < 1000; i++)
+            assertEquals("" + i, si.intern("" + i));
+        assertEquals(1000, si.misses());
+        assertTrue(si.evictions() > 0);
+        assertEquals(si.misses() - si.evictions(), si.valueCount());
+    }
+
+    @Test
+    public void index() {
+        ConcurrentStringInterner si = new ConcurrentStringInterner(128);
+        String[] uppercase = new String[si.capacity()];
+        for (int i = 0; i < 100; i++) {
+            String s = "s" + i;
+            int index = si.index(s, (idx, value) -> uppercase[idx] = value.toUpperCase());
+            assertEquals(s, si.get(index));
+            assertEquals(s.toUpperCase(), uppercase[index]);
+        }
+    }
+
+    @Test
+    public void sharedBetweenThreads() throws Exception {
+        ConcurrentStringInterner si = new ConcurrentStringInterner(1024);
+        ExecutorService es = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future[8];
+            for (int t = 0; t < futures.length; t++)
+                futures[t] = es.submit(() -> {
+                    StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < 100_000; i++) {
+                        sb.setLength(0);
+                        sb.append("sym").append(i % 200);
+                        assertTrue(si.intern(sb).contentEquals(sb));
+                    }
+                });
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            es.shutdown();
+            assertTrue(es.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(800_000, si.hits() + si.misses());
+        assertTrue(si.hits() > si.misses());
+    }
+}
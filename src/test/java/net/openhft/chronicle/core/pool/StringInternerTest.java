@@ -22,7 +22,10 @@ import net.openhft.chronicle.core.CoreTestCommon;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import java.nio.charset.StandardCharsets;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
 
 public class StringInternerTest extends CoreTestCommon {
 
@@ -43,6 +46,53 @@ public class StringInternerTest extends CoreTestCommon {
         }
     }
 
+    @Test
+    public void internBytes() {
+        StringInterner si = new StringInterner(128);
+        byte[] bytes = "8=FIX.4.4|55=EURUSD|".getBytes(StandardCharsets.ISO_8859_1);
+        String symbol = si.intern(bytes, 13, 6);
+        assertEquals("EURUSD", symbol);
+        assertSame(symbol, si.intern(bytes, 13, 6));
+        // the same slot is found from a CharSequence
+        assertSame(symbol, si.intern(new StringBuilder("EURUSD")));
+        assertSame(symbol, si.intern("EURUSD"));
+        assertEquals("", si.intern(bytes, 0, 0));
+    }
+
+    @Test
+    public void internAddress() {
+        StringInterner si = new StringInterner(128);
+        byte[] bytes = "caf\u00e9 GBPUSD".getBytes(StandardCharsets.ISO_8859_1);
+        long address = MEMORY.allocate(bytes.length);
+        try {
+            MEMORY.copyMemory(bytes, 0, address, bytes.length);
+            String symbol = si.intern(address + 5, 6);
+            assertEquals("GBPUSD", symbol);
+            assertSame(symbol, si.intern(address + 5, 6));
+            String latin1 = si.intern(address, 4);
+            assertEquals("caf\u00e9", latin1);
+            assertSame(latin1, si.intern(address, 4));
+        } finally {
+            MEMORY.freeMemory(address, bytes.length);
+        }
+    }
+
+    @Test
+    public void internUtf8() {
+        StringInterner si = new StringInterner(128);
+        byte[] bytes = "caf\u00e9".getBytes(StandardCharsets.UTF_8);
+        assertEquals(5, bytes.length);
+        String s = si.internUtf8(bytes, 0, bytes.length);
+        assertEquals("caf\u00e9", s);
+        assertSame(s, si.internUtf8(bytes, 0, bytes.length));
+        assertSame(si.intern("abc"), si.internUtf8("abc".getBytes(StandardCharsets.UTF_8), 0, 3));
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void internBytesOutOfBounds() {
+        new StringInterner(128).intern(new byte[4], 2, 3);
+    }
+
     private String[] uppercase;
 
     /**
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.threads;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SpinYieldParkBackoffTest extends CoreTestCommon {
+
+    @Test
+    public void parkTimesDoubleUpToMax() {
+        SpinYieldParkBackoff backoff = new SpinYieldParkBackoff(1, 1, 1, 1_000, 10_000);
+        assertEquals(1_000, backoff.parkNanos(0));
+        assertEquals(2_000, backoff.parkNanos(1));
+        assertEquals(8_000, backoff.parkNanos(3));
+        assertEquals(10_000, backoff.parkNanos(4));
+        assertEquals(10_000, backoff.parkNanos(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void parkDoesNotOutlastTheTimeout() {
+        SpinYieldParkBackoff backoff = new SpinYieldParkBackoff(0, 0, 0, TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(10));
+        long start = System.nanoTime();
+        backoff.idle(0, TimeUnit.MILLISECONDS.toNanos(1));
+        long elapsed = System.nanoTime() - start;
+        assertTrue("parked for " + elapsed + " ns", elapsed < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test(expected = InterruptedRuntimeException.class)
+    public void interruptedWhileParked() {
+        Thread.currentThread().interrupt();
+        try {
+            new SpinYieldParkBackoff(0, 0, 0, 1_000, 1_000).idle(0, Long.MAX_VALUE);
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidParkTimes() {
+        new SpinYieldParkBackoff(0, 0, 0, 2_000, 1_000);
+    }
+}
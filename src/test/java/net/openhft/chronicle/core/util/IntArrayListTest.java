@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IntArrayListTest extends CoreTestCommon {
+
+    @Test
+    public void addGetRemove() {
+        IntArrayList list = new IntArrayList();
+        assertTrue(list.isEmpty());
+        for (int i = 0; i < 100; i++)
+            list.add(i * 3);
+        assertEquals(100, list.size());
+        assertEquals(30, list.get(10));
+        assertEquals(30, list.set(10, -1));
+        assertEquals(10, list.indexOf(-1));
+        assertEquals(-1, list.removeAt(10));
+        assertFalse(list.contains(-1));
+        assertEquals(33, list.get(10));
+        assertEquals(99, list.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(99));
+
+        list.addAll(new int[]{7, 8, 9}, 1, 2);
+        assertEquals(9, list.get(100));
+        assertTrue(list.removeIf(v -> v % 2 == 0));
+        List<Integer> odd = new ArrayList<>();
+        list.forEach(odd::add);
+        assertEquals(list.size(), odd.size());
+        for (Integer v : odd)
+            assertEquals(1, v % 2);
+        assertEquals(list.toArray().length, list.size());
+
+        IntArrayList copy = new IntArrayList(list.size());
+        copy.addAll(list.toArray(), 0, list.size());
+        assertEquals(list, copy);
+        assertEquals(list.hashCode(), copy.hashCode());
+        list.clear();
+        assertEquals("[]", list.toString());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntObjMapTest extends CoreTestCommon {
+
+    @Test
+    public void matchesHashMap() {
+        IntObjMap<String> map = new IntObjMap<>(4);
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            int key = (random.nextInt(2000) - 10) * 64;
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(key), map.remove(key));
+            else
+                assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -10 * 64; key < 1990 * 64; key += 32) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        Map<Integer, String> actual = new HashMap<>();
+        map.forEach((v, k) -> actual.put(k, v));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void computeIfAbsent() {
+        IntObjMap<String> map = new IntObjMap<>();
+        assertEquals("1", map.computeIfAbsent(1, String::valueOf));
+        assertEquals("1", map.computeIfAbsent(1, k -> "other"));
+        assertEquals("none", map.getOrDefault(2, "none"));
+        assertThrows(NullPointerException.class, () -> map.put(3, null));
+        assertEquals("{1=1}", map.toString());
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void growIsCapped() {
+        assertEquals(1 << 30, OpenAddressing.grow(1 << 29, "map"));
+        try {
+            OpenAddressing.grow(1 << 30, "map");
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("map is full, capacity 1073741824", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LongHashSetTest extends CoreTestCommon {
+
+    @Test
+    public void matchesHashSet() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 100_000; i++) {
+            long value = (random.nextInt(2000) - 10) * 1024L;
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(value), set.remove(value));
+            else
+                assertEquals(expected.add(value), set.add(value));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long value = -10 * 1024L; value < 1990 * 1024L; value += 512)
+            assertEquals(expected.contains(value), set.contains(value));
+        Set<Long> actual = new HashSet<>();
+        set.forEach(actual::add);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), set.toArray().length);
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class MPSCRingBufferTest extends CoreTestCommon {
+
+    @Test
+    public void publishedOutOfOrder() {
+        try (MPSCRingBuffer ring = MPSCRingBuffer.allocate(8, 8)) {
+            long a = ring.tryClaim(2);
+            long b = ring.tryClaim(1);
+            assertEquals(0, a);
+            assertEquals(2, b);
+            MEMORY.writeLong(ring.slotAddress(b), 2);
+            ring.publish(b, 1);
+            // a isn't published yet
+            assertEquals(0, ring.readable(8));
+            ring.publish(a, 2);
+            assertEquals(3, ring.readable(8));
+            assertEquals(2L, MEMORY.readLong(ring.slotAddress(2)));
+            ring.release(3);
+            // all of it is free again
+            assertEquals(3, ring.tryClaim(8));
+            assertEquals(-1, ring.tryClaim(1));
+        }
+    }
+
+    @Test
+    public void manyProducers() throws InterruptedException {
+        final int producers = 3;
+        final int perProducer = 50_000;
+        try (MPSCRingBuffer ring = MPSCRingBuffer.allocate(128, 8)) {
+            Thread[] threads = new Thread[producers];
+            for (int p = 0; p < producers; p++) {
+                final int base = p * perProducer;
+                threads[p] = new Thread(() -> {
+                    for (int i = 0; i < perProducer; ) {
+                        int batch = Math.min(1 + (i & 3), perProducer - i);
+                        long position = ring.tryClaim(batch);
+                        if (position < 0)
+                            continue;
+                        for (int j = 0; j < batch; j++)
+                            MEMORY.writeLong(ring.slotAddress(position + j), base + i + j);
+                        ring.publish(position, batch);
+                        i += batch;
+                    }
+                }, "producer-" + p);
+                threads[p].start();
+            }
+            BitSet seen = new BitSet();
+            int total = producers * perProducer;
+            int[] last = {-1, -1, -1};
+            for (int read = 0; read < total; ) {
+                int readable = ring.readable(32);
+                for (int j = 0; j < readable; j++) {
+                    int value = (int) MEMORY.readLong(ring.slotAddress(ring.readPosition() + j));
+                    assertFalse(seen.get(value));
+                    seen.set(value);
+                    // each producer's messages arrive in order
+                    int producer = value / perProducer;
+                    assertTrue(value > last[producer]);
+                    last[producer] = value;
+                }
+                ring.release(readable);
+                read += readable;
+            }
+            for (Thread thread : threads)
+                thread.join();
+            assertEquals(total, seen.cardinality());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class NativeLongLongMapTest extends CoreTestCommon {
+
+    @Test
+    public void matchesHashMap() {
+        try (NativeLongLongMap map = NativeLongLongMap.allocate(1000)) {
+            assertEquals(2048, map.capacity());
+            Map<Long, Long> expected = new HashMap<>();
+            Random random = new Random(17);
+            for (int i = 0; i < 100_000; i++) {
+                // a small range of keys so there are plenty of collisions and removes of present keys
+                long key = random.nextInt(1500) - 10;
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key) != null, map.remove(key));
+                } else {
+                    assertEquals(expected.put(key, (long) i) == null, map.put(key, i));
+                }
+            }
+            assertEquals(expected.size(), map.size());
+            for (long key = -10; key < 1490; key++) {
+                Long value = expected.get(key);
+                assertEquals(value != null, map.containsKey(key));
+                assertEquals(value == null ? -1 : value, map.get(key, -1));
+                assertEquals(value == null ? -1 : value, map.getConcurrent(key, -1));
+            }
+            Map<Long, Long> actual = new HashMap<>();
+            map.forEach(actual::put);
+            assertEquals(expected, actual);
+
+            map.clear();
+            assertEquals(0, map.size());
+            assertEquals(-1, map.get(1, -1));
+        }
+    }
+
+    @Test
+    public void fullMapThrows() {
+        try (NativeLongLongMap map = NativeLongLongMap.allocate(10)) {
+            assertEquals(16, map.capacity());
+            assertEquals(14, map.maxSize());
+            for (int i = 1; i <= 14; i++)
+                map.put(i * 1024L, i);
+            // replacing is fine
+            assertFalse(map.put(1024L, 0));
+            assertThrows(IllegalStateException.class, () -> map.put(99, 1));
+        }
+    }
+
+    @Test
+    public void readersWhileWriting() throws InterruptedException {
+        final int keys = 4096;
+        try (NativeLongLongMap map = NativeLongLongMap.allocate(keys)) {
+            // even keys are never removed, so a reader must always find them
+            for (long key = 2; key <= keys; key += 2)
+                map.put(key, -key);
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicReference<String> failure = new AtomicReference<>();
+            Thread reader = new Thread(() -> {
+                while (running.get()) {
+                    for (long key = 2; key <= keys; key += 2) {
+                        long value = map.getConcurrent(key, 0);
+                        if (value != -key) {
+                            failure.set("key " + key + " had " + value);
+                            return;
+                        }
+                    }
+                }
+            }, "reader");
+            reader.start();
+            for (int round = 0; round < 200; round++) {
+                for (long key = 1; key < keys; key += 2)
+                    map.put(key, round);
+                for (long key = 1; key < keys; key += 2)
+                    map.remove(key);
+            }
+            running.set(false);
+            reader.join();
+            assertNull(failure.get());
+            assertEquals(keys / 2, map.size());
+        }
+    }
+}
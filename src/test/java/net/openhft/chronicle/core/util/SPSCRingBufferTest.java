@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.IOTools;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class SPSCRingBufferTest extends CoreTestCommon {
+
+    @Test
+    public void claimPublishReadRelease() {
+        try (SPSCRingBuffer ring = SPSCRingBuffer.allocate(4, 12)) {
+            assertEquals(0, ring.readable(4));
+            assertEquals(0, ring.tryClaim(3));
+            for (int i = 0; i < 3; i++)
+                MEMORY.writeLong(ring.slotAddress(i), i * 10L);
+            assertEquals(0, ring.readable(4));
+            ring.publish(0, 3);
+            assertEquals(3, ring.tryClaim(1));
+            // full
+            assertEquals(-1, ring.tryClaim(1));
+            assertEquals(3, ring.readable(4));
+            assertEquals(20L, MEMORY.readLong(ring.slotAddress(ring.readPosition() + 2)));
+            ring.release(2);
+            assertEquals(4, ring.tryClaim(2));
+            ring.publish(3, 1);
+            ring.publish(4, 2);
+            assertEquals(4, ring.readable(8));
+            // wrapped around
+            assertEquals(ring.slotAddress(0), ring.slotAddress(4));
+            assertEquals(4, ring.size());
+        }
+    }
+
+    @Test
+    public void betweenThreads() throws InterruptedException {
+        final int messages = 200_000;
+        try (SPSCRingBuffer ring = SPSCRingBuffer.allocate(64, 8)) {
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < messages; ) {
+                    int batch = Math.min(1 + (i & 7), messages - i);
+                    long position = ring.tryClaim(batch);
+                    if (position < 0)
+                        continue;
+                    for (int j = 0; j < batch; j++)
+                        MEMORY.writeLong(ring.slotAddress(position + j), i + j);
+                    ring.publish(position, batch);
+                    i += batch;
+                }
+            }, "producer");
+            producer.start();
+            long expected = 0;
+            while (expected < messages) {
+                int readable = ring.readable(16);
+                for (int j = 0; j < readable; j++)
+                    assertEquals(expected++, MEMORY.readLong(ring.slotAddress(ring.readPosition() + j)));
+                ring.release(readable);
+            }
+            producer.join();
+            assertEquals(0, ring.size());
+        }
+    }
+
+    @Test
+    public void sharedViaMappedFile() throws IOException {
+        File file = IOTools.createTempFile("sharedViaMappedFile");
+        final long size = SPSCRingBuffer.sizeFor(16, 32);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(OS.pageAlign(size));
+            long address = OS.map(raf.getChannel(), FileChannel.MapMode.READ_WRITE, 0, size);
+            try {
+                // as another process would see it
+                try (SPSCRingBuffer writer = new SPSCRingBuffer(address, 16, 32);
+                     SPSCRingBuffer reader = new SPSCRingBuffer(address, 16, 32)) {
+                    long position = writer.tryClaim(1);
+                    MEMORY.writeLong(writer.slotAddress(position), 123L);
+                    writer.publish(position, 1);
+                    assertEquals(1, reader.readable(1));
+                    assertEquals(123L, MEMORY.readLong(reader.slotAddress(reader.readPosition())));
+                    reader.release(1);
+                }
+                // reopening carries on from where it was
+                try (SPSCRingBuffer again = new SPSCRingBuffer(address, 16, 32)) {
+                    assertEquals(1, again.readPosition());
+                    assertEquals(1, again.tryClaim(1));
+                }
+            } finally {
+                OS.unmap(address, size);
+            }
+        }
+    }
+}
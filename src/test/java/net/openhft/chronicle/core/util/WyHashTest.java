@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.util;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import net.openhft.chronicle.core.Maths;
+import org.junit.Test;
+import sun.misc.Unsafe;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class WyHashTest extends CoreTestCommon {
+
+    @Test
+    public void sameHashForHeapAndNative() {
+        Random random = new Random(1);
+        byte[] bytes = new byte[300];
+        random.nextBytes(bytes);
+        long address = MEMORY.allocate(bytes.length);
+        try {
+            MEMORY.copyMemory(bytes, 0, address, bytes.length);
+            long[] hash = new long[2];
+            long[] hash2 = new long[2];
+            for (int offset = 0; offset < 8; offset++) {
+                for (int length = 0; length <= bytes.length - offset; length++) {
+                    long h = WyHash.hash64(bytes, offset, length);
+                    assertEquals(h, WyHash.hash64(address + offset, length));
+                    assertEquals(h, Maths.hash64Memory(address + offset, length));
+                    assertEquals(h, Maths.hash64(bytes, offset, length));
+                    WyHash.hash128(bytes, offset, length, hash);
+                    WyHash.hash128(address + offset, length, hash2);
+                    assertArrayEquals(hash, hash2);
+                    assertEquals(h, hash[0]);
+                    assertNotEquals(hash[0], hash[1]);
+                }
+            }
+        } finally {
+            MEMORY.freeMemory(address, bytes.length);
+        }
+    }
+
+    @Test
+    public void everyLengthAndBitChangesTheHash() {
+        byte[] bytes = new byte[130];
+        Set<Long> hashes = new HashSet<>();
+        for (int length = 0; length <= bytes.length; length++)
+            assertTrue(hashes.add(WyHash.hash64(bytes, 0, length)));
+        for (int i = 0; i < bytes.length * 8; i++) {
+            bytes[i >> 3] ^= (byte) (1 << (i & 7));
+            assertTrue(hashes.add(WyHash.hash64(bytes, 0, bytes.length)));
+            bytes[i >> 3] ^= (byte) (1 << (i & 7));
+        }
+    }
+
+    @Test
+    public void avalanche() {
+        Random random = new Random(2);
+        byte[] bytes = new byte[24];
+        int flipped = 0;
+        int trials = 2000;
+        for (int t = 0; t < trials; t++) {
+            random.nextBytes(bytes);
+            long h = WyHash.hash64(bytes, 0, bytes.length);
+            int bit = random.nextInt(bytes.length * 8);
+            bytes[bit >> 3] ^= (byte) (1 << (bit & 7));
+            flipped += Long.bitCount(h ^ WyHash.hash64(bytes, 0, bytes.length));
+        }
+        // on average half the bits of the hash should change
+        double average = (double) flipped / trials;
+        assertEquals(32.0, average, 1.0);
+    }
+
+    @Test
+    public void seedChangesTheHash() {
+        byte[] bytes = "Hello World".getBytes();
+        long h0 = WyHash.hash64(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, bytes.length, 0);
+        long h1 = WyHash.hash64(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, bytes.length, 1);
+        assertEquals(h0, WyHash.hash64(bytes, 0, bytes.length));
+        assertNotEquals(h0, h1);
+    }
+
+    @Test
+    public void multiplyHighUnsigned() {
+        Random random = new Random(3);
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int i = 0; i < 1000; i++) {
+            long x = random.nextLong();
+            long y = i == 0 ? -1 : random.nextLong();
+            BigInteger product = new BigInteger(Long.toUnsignedString(x)).multiply(new BigInteger(Long.toUnsignedString(y)));
+            assertEquals(product.shiftRight(64).and(mask).longValue(), WyHash.multiplyHighUnsigned(x, y));
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void outOfBounds() {
+        WyHash.hash64(new byte[8], 4, 5);
+    }
+}
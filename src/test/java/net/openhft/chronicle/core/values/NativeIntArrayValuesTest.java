@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class NativeIntArrayValuesTest extends CoreTestCommon {
+
+    @Test
+    public void bulkOperations() {
+        try (NativeIntArrayValues array = NativeIntArrayValues.allocate(1000)) {
+            assertEquals(16 + 4000, array.sizeInBytes(1000));
+            int[] values = new int[1000];
+            for (int i = 0; i < values.length; i++)
+                values[i] = Integer.MAX_VALUE - 999 + i;
+            array.setValuesAt(0, values, 0, values.length);
+            int[] copy = new int[1000];
+            array.getValuesAt(0, copy, 0, 1000);
+            assertArrayEquals(values, copy);
+
+            // summed as a long so it doesn't overflow
+            long sum = 0;
+            for (int value : values)
+                sum += value;
+            assertEquals(sum, array.sum(0, 1000));
+            assertEquals(values[0], array.min(0, 1000));
+            assertEquals(Integer.MAX_VALUE, array.max(0, 1000));
+            for (int key : new int[]{0, values[0], values[500], Integer.MAX_VALUE})
+                assertEquals(Arrays.binarySearch(values, key), array.binarySearch(0, 1000, key));
+
+            array.fill(0, 4, 3);
+            assertEquals(12, array.sum(0, 4));
+            array.setOrderedValuesAt(0, new int[]{1, 2}, 0, 2);
+            assertEquals(1, array.getVolatileValueAt(0));
+            assertEquals(2, array.getValueAt(1));
+            assertTrue(array.compareAndSet(1, 2, 5));
+            assertEquals(5, array.getValueAt(1));
+        }
+    }
+
+    @Test
+    public void bindValueAt() {
+        try (NativeIntArrayValues array = NativeIntArrayValues.allocate(4)) {
+            NativeIntValue value = new NativeIntValue(array.addressOf(0));
+            for (int i = 0; i < 4; i++) {
+                array.bindValueAt(i, value);
+                assertEquals(array.addressOf(i), value.address());
+                value.setValue(10 + i);
+            }
+            assertEquals(10 + 11 + 12 + 13, array.sum(0, 4));
+            try {
+                array.bindValueAt(4, value);
+                fail();
+            } catch (BufferOverflowException expected) {
+                // expected
+            }
+            try (NativeIntValue allocated = NativeIntValue.allocate(AbstractNativeValue.NO_PADDING)) {
+                array.bindValueAt(0, allocated);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class NativeIntValueTest extends CoreTestCommon {
+
+    @Test
+    public void operations() {
+        try (NativeIntValue value = NativeIntValue.allocate(AbstractNativeValue.CACHE_LINE_PADDING)) {
+            assertEquals(0, value.address() & 63);
+            assertEquals(0, value.getValue());
+            value.setValue(10);
+            assertEquals(10, value.getVolatileValue());
+            value.setOrderedValue(20);
+            assertEquals(25, value.addValue(5));
+            assertEquals(30, value.addAtomicValue(5));
+            assertTrue(value.compareAndSwapValue(30, 40));
+            assertFalse(value.compareAndSwapValue(30, 50));
+            assertEquals(40, value.getValue());
+            assertEquals("40", value.toString());
+        }
+    }
+
+    @Test
+    public void await() {
+        try (NativeIntValue value = NativeIntValue.allocate(AbstractNativeValue.NO_PADDING)) {
+            value.setValue(3);
+            assertTrue(value.awaitValue(3, 0, TimeUnit.MILLISECONDS));
+            assertTrue(value.awaitAtLeast(2, 0, TimeUnit.MILLISECONDS));
+            assertTrue(value.awaitChange(2, 0, TimeUnit.MILLISECONDS));
+            assertFalse(value.awaitChange(3, 1, TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.Arrays;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class NativeLongArrayValuesTest extends CoreTestCommon {
+
+    @Test
+    public void perIndexOperations() {
+        try (NativeLongArrayValues array = NativeLongArrayValues.allocate(8)) {
+            assertEquals(8, array.getCapacity());
+            assertEquals(16 + 64, array.sizeInBytes(8));
+            array.setValueAt(0, 1);
+            array.setOrderedValueAt(1, 2);
+            assertEquals(1, array.getValueAt(0));
+            assertEquals(2, array.getVolatileValueAt(1));
+            assertTrue(array.compareAndSet(1, 2, 3));
+            assertFalse(array.compareAndSet(1, 2, 4));
+            assertEquals(3, array.getValueAt(1));
+            array.setMaxUsed(2);
+            array.setMaxUsed(1);
+            assertEquals(2, array.getUsed());
+            array.reset();
+            assertEquals(0, array.getUsed());
+            assertEquals(0, array.getValueAt(1));
+            new NativeLongValue(array.addressOf(7)).setValue(77);
+            assertEquals(77, array.getValueAt(7));
+        }
+    }
+
+    @Test
+    public void bounds() {
+        try (NativeLongArrayValues array = NativeLongArrayValues.allocate(4)) {
+            try {
+                array.getValueAt(4);
+                fail();
+            } catch (BufferUnderflowException expected) {
+                // expected
+            }
+            try {
+                array.setValuesAt(2, new long[3], 0, 3);
+                fail();
+            } catch (BufferOverflowException expected) {
+                // expected
+            }
+            try {
+                array.getValuesAt(0, new long[2], 1, 2);
+                fail();
+            } catch (ArrayIndexOutOfBoundsException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void bindValueAt() {
+        try (NativeLongArrayValues array = NativeLongArrayValues.allocate(4)) {
+            NativeLongValue value = new NativeLongValue(array.addressOf(0));
+            for (int i = 0; i < 4; i++) {
+                array.bindValueAt(i, value);
+                assertEquals(array.addressOf(i), value.address());
+                value.setValue(10 + i);
+            }
+            assertEquals(10 + 11 + 12 + 13, array.sum(0, 4));
+            try {
+                array.bindValueAt(4, value);
+                fail();
+            } catch (BufferOverflowException expected) {
+                // expected
+            }
+            try (NativeLongValue allocated = NativeLongValue.allocate(AbstractNativeValue.NO_PADDING)) {
+                array.bindValueAt(0, allocated);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+            try (LongValueImpl other = new LongValueImpl()) {
+                array.bindValueAt(0, other);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void bulkOperations() {
+        try (NativeLongArrayValues array = NativeLongArrayValues.allocate(1000)) {
+            long[] values = new long[1000];
+            for (int i = 0; i < values.length; i++)
+                values[i] = i * 3 - 500;
+            array.setValuesAt(0, values, 0, values.length);
+            long[] copy = new long[1002];
+            array.getValuesAt(0, copy, 1, 1000);
+            assertArrayEquals(values, Arrays.copyOfRange(copy, 1, 1001));
+
+            assertEquals(Arrays.stream(values).sum(), array.sum(0, 1000));
+            assertEquals(-500 + -497, array.sum(0, 2));
+            assertEquals(-500, array.min(0, 1000));
+            assertEquals(2497, array.max(0, 1000));
+            assertEquals(Long.MAX_VALUE, array.min(5, 5));
+            assertEquals(Long.MIN_VALUE, array.max(5, 5));
+
+            for (long key : new long[]{-501, -500, -499, 1, 100, 2497, 2498})
+                assertEquals(Arrays.binarySearch(values, key), array.binarySearch(0, 1000, key));
+            assertEquals(-11, array.binarySearch(10, 20, -1000));
+
+            array.fill(10, 20, 7);
+            assertEquals(70, array.sum(10, 20));
+            assertEquals(values[20], array.getValueAt(20));
+            array.fill(10, 20, -1);
+            assertEquals(-10, array.sum(10, 20));
+            array.fill(10, 20, 0);
+            assertEquals(0, array.sum(10, 20));
+
+            array.setOrderedValuesAt(100, new long[]{1, 2, 3}, 0, 3);
+            assertEquals(6, array.sum(100, 103));
+        }
+    }
+
+    @Test
+    public void defaultsMatchNative() {
+        try (NativeLongArrayValues array = NativeLongArrayValues.allocate(100)) {
+            // exercises the default methods through a view which only has the per index methods
+            LongArrayValues view = new LongArrayValuesView(array);
+            long[] values = new long[100];
+            for (int i = 0; i < values.length; i++)
+                values[i] = i * i;
+            view.setOrderedValuesAt(0, values, 0, 100);
+            assertEquals(array.sum(0, 100), view.sum(0, 100));
+            assertEquals(array.min(3, 50), view.min(3, 50));
+            assertEquals(array.max(3, 50), view.max(3, 50));
+            assertEquals(array.binarySearch(0, 100, 49), view.binarySearch(0, 100, 49));
+            assertEquals(array.binarySearch(0, 100, 50), view.binarySearch(0, 100, 50));
+            view.fill(0, 10, 5);
+            long[] copy = new long[10];
+            view.getValuesAt(0, copy, 0, 10);
+            long[] fives = new long[10];
+            Arrays.fill(fives, 5);
+            assertArrayEquals(fives, copy);
+        }
+    }
+
+    @Test
+    public void sharedBetweenInstances() {
+        long size = NativeLongArrayValues.sizeFor(16);
+        long address = MEMORY.allocate(size);
+        try {
+            MEMORY.setMemory(address, size, (byte) 0);
+            new NativeLongArrayValues(address, 16).setValueAt(3, 33);
+            assertEquals(33, new NativeLongArrayValues(address, 16).getValueAt(3));
+            try {
+                new NativeLongArrayValues(address, 8);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        } finally {
+            MEMORY.freeMemory(address, size);
+        }
+    }
+
+    static final class LongArrayValuesView implements LongArrayValues {
+        private final LongArrayValues array;
+
+        LongArrayValuesView(LongArrayValues array) {
+            this.array = array;
+        }
+
+        @Override
+        public long getCapacity() {
+            return array.getCapacity();
+        }
+
+        @Override
+        public long getUsed() {
+            return array.getUsed();
+        }
+
+        @Override
+        public void setUsed(long used) {
+            array.setUsed(used);
+        }
+
+        @Override
+        public void setMaxUsed(long usedAtLeast) {
+            array.setMaxUsed(usedAtLeast);
+        }
+
+        @Override
+        public long getValueAt(long index) {
+            return array.getValueAt(index);
+        }
+
+        @Override
+        public void setValueAt(long index, long value) {
+            array.setValueAt(index, value);
+        }
+
+        @Override
+        public long getVolatileValueAt(long index) {
+            return array.getVolatileValueAt(index);
+        }
+
+        @Override
+        public void setOrderedValueAt(long index, long value) {
+            array.setOrderedValueAt(index, value);
+        }
+
+        @Override
+        public boolean compareAndSet(long index, long expected, long value) {
+            return array.compareAndSet(index, expected, value);
+        }
+
+        @Override
+        public void bindValueAt(long index, LongValue value) {
+            array.bindValueAt(index, value);
+        }
+
+        @Override
+        public long sizeInBytes(long capacity) {
+            return array.sizeInBytes(capacity);
+        }
+
+        @Override
+        public boolean isNull() {
+            return array.isNull();
+        }
+
+        @Override
+        public void reset() {
+            array.reset();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.io.ClosedIllegalStateException;
+import net.openhft.chronicle.core.threads.BackoffStrategy;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class NativeLongValueTest extends CoreTestCommon {
+
+    @Test
+    public void paddedSize() {
+        assertEquals(8, AbstractNativeValue.paddedSize(8, AbstractNativeValue.NO_PADDING));
+        assertEquals(64, AbstractNativeValue.paddedSize(8, AbstractNativeValue.CACHE_LINE_PADDING));
+        assertEquals(128, AbstractNativeValue.paddedSize(16, AbstractNativeValue.TWO_CACHE_LINE_PADDING));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPadding() {
+        AbstractNativeValue.paddedSize(8, 32);
+    }
+
+    @Test
+    public void allocatedValuesAreAligned() {
+        for (int padding : new int[]{AbstractNativeValue.NO_PADDING, AbstractNativeValue.CACHE_LINE_PADDING, AbstractNativeValue.TWO_CACHE_LINE_PADDING}) {
+            try (NativeLongValue value = NativeLongValue.allocate(padding)) {
+                assertEquals(0, value.address() & (AbstractNativeValue.paddedSize(8, padding) - 1));
+                assertEquals(0, value.getValue());
+            }
+        }
+    }
+
+    @Test
+    public void operations() {
+        try (NativeLongValue value = NativeLongValue.allocate(AbstractNativeValue.CACHE_LINE_PADDING)) {
+            value.setValue(10);
+            assertEquals(10, value.getVolatileValue());
+            value.setOrderedValue(20);
+            assertEquals(20, value.getValue());
+            value.setVolatileValue(30);
+            assertEquals(35, value.addValue(5));
+            assertEquals(40, value.addAtomicValue(5));
+            assertTrue(value.compareAndSwapValue(40, 50));
+            assertFalse(value.compareAndSwapValue(40, 60));
+            assertEquals(50, value.getValue());
+            value.setMaxValue(45);
+            assertEquals(50, value.getValue());
+            value.setMinValue(45);
+            assertEquals(45, value.getValue());
+            assertEquals("45", value.toString());
+        }
+    }
+
+    @Test
+    public void sharesCallersMemory() {
+        long address = MEMORY.allocate(64);
+        try {
+            MEMORY.setMemory(address, 64, (byte) 0);
+            NativeLongValue first = new NativeLongValue(address);
+            NativeLongValue second = new NativeLongValue(address + AbstractNativeValue.paddedSize(8, AbstractNativeValue.NO_PADDING));
+            first.setValue(1);
+            second.setValue(2);
+            assertEquals(1, MEMORY.readLong(address));
+            assertEquals(2, MEMORY.readLong(address + 8));
+            first.close();
+            assertTrue(first.isClosed());
+            // not freed as it wasn't allocated by the value
+            assertEquals(1, MEMORY.readLong(address));
+        } finally {
+            MEMORY.freeMemory(address, 64);
+        }
+    }
+
+    @Test
+    public void closeFreesMemory() {
+        long before = MEMORY.nativeMemoryUsed();
+        NativeLongValue value = NativeLongValue.allocate(AbstractNativeValue.TWO_CACHE_LINE_PADDING);
+        assertTrue(MEMORY.nativeMemoryUsed() > before);
+        value.close();
+        value.close();
+        assertEquals(before, MEMORY.nativeMemoryUsed());
+        assertEquals("closed", value.toString());
+        try {
+            value.getValue();
+            fail();
+        } catch (ClosedIllegalStateException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void concurrentAdds() throws InterruptedException {
+        try (NativeLongValue value = NativeLongValue.allocate(AbstractNativeValue.CACHE_LINE_PADDING)) {
+            ExecutorService es = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++)
+                es.submit(() -> {
+                    for (int i = 0; i < 100_000; i++)
+                        value.addAtomicValue(1);
+                });
+            es.shutdown();
+            assertTrue(es.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(400_000, value.getVolatileValue());
+        }
+    }
+
+    @Test
+    public void awaitTimesOut() {
+        try (NativeLongValue value = NativeLongValue.allocate(AbstractNativeValue.NO_PADDING)) {
+            assertTrue(value.awaitValue(0, 0, TimeUnit.MILLISECONDS));
+            assertFalse(value.awaitValue(1, 1, TimeUnit.MILLISECONDS));
+            assertFalse(value.awaitAtLeast(1, 1, TimeUnit.MILLISECONDS, BackoffStrategy.busySpin()));
+            assertFalse(value.awaitChange(0, 1, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void awaitWrittenByAnotherThread() throws InterruptedException {
+        try (NativeLongValue value = NativeLongValue.allocate(AbstractNativeValue.CACHE_LINE_PADDING)) {
+            Thread writer = new Thread(() -> {
+                for (int i = 1; i <= 10; i++) {
+                    Jvm.pause(1);
+                    value.setOrderedValue(i);
+                }
+            });
+            writer.start();
+            assertTrue(value.awaitChange(0, 5, TimeUnit.SECONDS));
+            assertTrue(value.awaitAtLeast(5, 5, TimeUnit.SECONDS));
+            assertTrue(value.getVolatileValue() >= 5);
+            assertTrue(value.awaitValue(10, 5, TimeUnit.SECONDS));
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class NativeTwoLongValueTest extends CoreTestCommon {
+
+    @Test
+    public void valuesAreIndependent() {
+        try (NativeTwoLongValue value = NativeTwoLongValue.allocate(AbstractNativeValue.TWO_CACHE_LINE_PADDING)) {
+            assertEquals(0, value.address() & 127);
+            value.setValue(1);
+            value.setValue2(2);
+            assertEquals(1, MEMORY.readLong(value.address()));
+            assertEquals(2, MEMORY.readLong(value.address() + 8));
+            value.setOrderedValue2(3);
+            value.setVolatileValue2(4);
+            assertEquals(4, value.getVolatileValue2());
+            assertEquals(6, value.addValue2(2));
+            assertEquals(8, value.addAtomicValue2(2));
+            assertTrue(value.compareAndSwapValue2(8, 9));
+            assertFalse(value.compareAndSwapValue2(8, 10));
+            assertEquals(9, value.getValue2());
+            assertEquals(1, value.getValue());
+            assertEquals("1, 9", value.toString());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import net.openhft.chronicle.core.Jvm;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PaddedLongValueTest extends CoreTestCommon {
+
+    @Test
+    public void valueIsPadded() {
+        long value = Jvm.fieldOffset(PaddedLongValueValue.class, "value");
+        long left = Jvm.fieldOffset(PaddedLongValueLeftPadding.class, "p16");
+        long right = Jvm.fieldOffset(PaddedLongValueRightPadding.class, "p17");
+        assertTrue(value > left);
+        assertTrue(right > value);
+        assertTrue(value >= 128);
+    }
+
+    @Test
+    public void operations() {
+        PaddedLongValue value = new PaddedLongValue(10);
+        assertEquals(10, value.getVolatileValue());
+        value.setOrderedValue(20);
+        assertEquals(20, value.getValue());
+        value.setVolatileValue(30);
+        assertEquals(35, value.addValue(5));
+        assertEquals(40, value.addAtomicValue(5));
+        assertTrue(value.compareAndSwapValue(40, 50));
+        assertFalse(value.compareAndSwapValue(40, 60));
+        value.setMinValue(45);
+        assertEquals(45, value.getValue());
+        assertEquals("45", value.toString());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class SeqLockValueTest extends CoreTestCommon {
+
+    @Test
+    public void writeAndRead() {
+        try (SeqLockValue value = SeqLockValue.allocate(3, AbstractNativeValue.CACHE_LINE_PADDING)) {
+            assertEquals(32, SeqLockValue.sizeFor(3));
+            long[] values = new long[3];
+            assertEquals(0, value.read(values));
+            assertArrayEquals(new long[3], values);
+
+            value.write(new long[]{1, 2, 3});
+            assertEquals(2, value.read(values));
+            assertArrayEquals(new long[]{1, 2, 3}, values);
+
+            value.write(4, 5);
+            assertEquals(4, value.tryRead(values));
+            assertArrayEquals(new long[]{4, 5, 3}, values);
+            assertEquals("version: 4, fields: [4, 5, 3]", value.toString());
+        }
+    }
+
+    @Test
+    public void readersRetryDuringWrite() {
+        try (SeqLockValue value = SeqLockValue.allocate(2, AbstractNativeValue.NO_PADDING)) {
+            long[] values = new long[2];
+            assertEquals(1, value.startWrite());
+            value.setField(0, 10);
+            assertEquals(10, value.getField(0));
+            assertEquals(-1, value.tryRead(values));
+            value.setField(1, 20);
+            value.endWrite();
+            assertEquals(2, value.tryRead(values));
+            assertArrayEquals(new long[]{10, 20}, values);
+        }
+    }
+
+    @Test
+    public void shortArrayDoesNotLock() {
+        try (SeqLockValue value = SeqLockValue.allocate(2, AbstractNativeValue.NO_PADDING)) {
+            try {
+                value.write(new long[1]);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+            assertEquals(0, value.version());
+        }
+    }
+
+    @Test
+    public void pairWriteNeedsTwoFields() {
+        try (SeqLockValue value = SeqLockValue.allocate(1, AbstractNativeValue.NO_PADDING)) {
+            try {
+                value.write(1, 2);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+            assertEquals(0, value.version());
+        }
+    }
+
+    @Test
+    public void sharedBetweenInstances() {
+        long size = SeqLockValue.sizeFor(2);
+        long address = MEMORY.allocate(size);
+        try {
+            MEMORY.setMemory(address, size, (byte) 0);
+            new SeqLockValue(address, 2).write(7, 8);
+            long[] values = new long[2];
+            new SeqLockValue(address, 2).read(values);
+            assertArrayEquals(new long[]{7, 8}, values);
+        } finally {
+            MEMORY.freeMemory(address, size);
+        }
+    }
+
+    @Test
+    public void consistentSnapshots() throws InterruptedException {
+        try (SeqLockValue value = SeqLockValue.allocate(4, AbstractNativeValue.CACHE_LINE_PADDING)) {
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicReference<String> error = new AtomicReference<>();
+            Thread reader = new Thread(() -> {
+                long[] values = new long[4];
+                while (running.get()) {
+                    value.read(values);
+                    for (int i = 1; i < 4; i++)
+                        if (values[i] != values[0] * (i + 1))
+                            error.set(values[0] + " " + values[i]);
+                }
+            });
+            reader.start();
+            long[] values = new long[4];
+            for (long n = 0; n < 200_000; n++) {
+                for (int i = 0; i < 4; i++)
+                    values[i] = n * (i + 1);
+                value.write(values);
+            }
+            running.set(false);
+            reader.join();
+            assertNull(error.get());
+            assertEquals(400_000, value.version());
+        }
+    }
+}
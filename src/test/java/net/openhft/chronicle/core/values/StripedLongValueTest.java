@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016-2020 chronicle.software
+ *
+ *       https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.openhft.chronicle.core.values;
+
+import net.openhft.chronicle.core.CoreTestCommon;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static net.openhft.chronicle.core.UnsafeMemory.MEMORY;
+import static org.junit.Assert.*;
+
+public class StripedLongValueTest extends CoreTestCommon {
+
+    @Test
+    public void sizeFor() {
+        assertEquals(5 * 64, StripedLongValue.sizeFor(4, AbstractNativeValue.CACHE_LINE_PADDING));
+        assertEquals(9 * 128, StripedLongValue.sizeFor(8, AbstractNativeValue.TWO_CACHE_LINE_PADDING));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stripesMustBePowerOf2() {
+        StripedLongValue.sizeFor(3, AbstractNativeValue.CACHE_LINE_PADDING);
+    }
+
+    @Test
+    public void sumMaxAndMin() {
+        try (StripedLongValue value = StripedLongValue.allocate(4, AbstractNativeValue.CACHE_LINE_PADDING)) {
+            assertEquals(0, value.address() & 63);
+            assertEquals(0, value.sum());
+            assertEquals(Long.MIN_VALUE, value.max());
+            assertEquals(Long.MAX_VALUE, value.min());
+            value.add(10);
+            value.increment();
+            value.updateMax(5);
+            value.updateMax(3);
+            value.updateMin(5);
+            value.updateMin(7);
+            assertEquals(11, value.sum());
+            assertEquals(5, value.max());
+            assertEquals(5, value.min());
+            assertEquals("11", value.toString());
+            assertEquals(11, value.sumThenReset());
+            assertEquals(0, value.sum());
+            assertEquals(5, value.max());
+            value.reset();
+            assertEquals(Long.MIN_VALUE, value.max());
+            assertEquals(Long.MAX_VALUE, value.min());
+        }
+    }
+
+    @Test
+    public void concurrentUpdates() throws InterruptedException {
+        try (StripedLongValue value = StripedLongValue.allocate(8, AbstractNativeValue.CACHE_LINE_PADDING)) {
+            ExecutorService es = Executors.newFixedThreadPool(8);
+            for (int t = 0; t < 8; t++) {
+                final int id = t;
+                es.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        value.increment();
+                        value.updateMax(id * 1000L + i % 1000);
+                        value.updateMin(-id * 1000L - i % 1000);
+                    }
+                });
+            }
+            es.shutdown();
+            assertTrue(es.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(800_000, value.sum());
+            assertEquals(7999, value.max());
+            assertEquals(-7999, value.min());
+        }
+    }
+
+    @Test
+    public void sharedBetweenInstances() {
+        long size = StripedLongValue.sizeFor(4, AbstractNativeValue.CACHE_LINE_PADDING);
+        long address = MEMORY.allocate(size);
+        try {
+            MEMORY.setMemory(address, size, (byte) 0);
+            StripedLongValue writer = new StripedLongValue(address, 4, AbstractNativeValue.CACHE_LINE_PADDING);
+            writer.add(42);
+            writer.updateMax(7);
+            StripedLongValue monitor = new StripedLongValue(address, 4, AbstractNativeValue.CACHE_LINE_PADDING);
+            assertEquals(42, monitor.sum());
+            assertEquals(7, monitor.max());
+            try {
+                new StripedLongValue(address, 8, AbstractNativeValue.CACHE_LINE_PADDING);
+                fail();
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        } finally {
+            MEMORY.freeMemory(address, size);
+        }
+    }
+}